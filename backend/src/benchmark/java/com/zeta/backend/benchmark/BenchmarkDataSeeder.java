@@ -0,0 +1,193 @@
+package com.zeta.backend.benchmark;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+
+/**
+ * Seeds the schema with synthetic users, applications, cards, transactions and BNPL
+ * installments using plain JDBC batches. Every user has two approved applications and
+ * two cards; transactions are spread evenly over cards and every BNPL transaction gets
+ * three installments, the first of which is overdue for roughly a third of them.
+ */
+public class BenchmarkDataSeeder {
+
+    private static final int BATCH = 5_000;
+    private static final String[] CATEGORIES = {"Food", "Travel", "Electronics", "Clothing", "Groceries", "Fuel"};
+    private static final String[] CARD_TYPES = {"VISA", "MASTERCARD", "AMEX"};
+
+    private final DataSource dataSource;
+    private final SplittableRandom random = new SplittableRandom(42);
+
+    private int users;
+    private int cards;
+    private int transactions;
+    private int installments;
+
+    public BenchmarkDataSeeder(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    public void seed(int userCount, int transactionCount) throws SQLException {
+        this.users = userCount;
+        this.cards = userCount * 2;
+        this.transactions = transactionCount;
+        LocalDate today = LocalDate.now();
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+
+            try (PreparedStatement ps = connection.prepareStatement(
+                    "INSERT INTO user_profiles (user_id, full_name, email, phone, address, annual_income, password, "
+                            + "is_eligible_for_bnpl, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+                Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+                for (int u = 1; u <= users; u++) {
+                    ps.setLong(1, u);
+                    ps.setString(2, "User " + u);
+                    ps.setString(3, email(u));
+                    ps.setString(4, String.format("9%09d", u));
+                    ps.setString(5, "Address " + u);
+                    ps.setDouble(6, 500_000 + random.nextInt(2_000_000));
+                    ps.setString(7, "x");
+                    ps.setBoolean(8, true);
+                    ps.setTimestamp(9, now);
+                    ps.setTimestamp(10, now);
+                    addBatch(ps, u, connection);
+                }
+                flush(ps, connection);
+            }
+
+            try (PreparedStatement app = connection.prepareStatement(
+                    "INSERT INTO card_applications (id, user_id, card_type, requested_limit, application_date, status) "
+                            + "VALUES (?, ?, ?, ?, ?, 'APPROVED')");
+                 PreparedStatement card = connection.prepareStatement(
+                         "INSERT INTO card (card_id, card_number, card_type, status, credit_limit, available_limit, "
+                                 + "expiry_date, cvv, expiry_month, expiry_year, application_id, user_id) "
+                                 + "VALUES (?, ?, ?, 'ACTIVE', ?, ?, ?, ?, '10', '31', ?, ?)")) {
+                for (int c = 1; c <= cards; c++) {
+                    long userId = (c + 1) / 2;
+                    String cardType = CARD_TYPES[c % CARD_TYPES.length];
+                    double limit = 50_000 + (c % 20) * 10_000;
+                    app.setLong(1, c);
+                    app.setLong(2, userId);
+                    app.setString(3, cardType);
+                    app.setDouble(4, limit);
+                    app.setDate(5, Date.valueOf(today.minusYears(1)));
+                    app.addBatch();
+
+                    card.setLong(1, c);
+                    card.setString(2, cardNumber(c));
+                    card.setString(3, cardType);
+                    card.setDouble(4, limit);
+                    card.setDouble(5, limit);
+                    card.setDate(6, Date.valueOf(today.plusYears(5)));
+                    card.setString(7, cvv(c));
+                    card.setLong(8, c);
+                    card.setLong(9, userId);
+                    card.addBatch();
+                    if (c % BATCH == 0) {
+                        app.executeBatch();
+                        card.executeBatch();
+                        connection.commit();
+                    }
+                }
+                app.executeBatch();
+                card.executeBatch();
+                connection.commit();
+            }
+
+            try (PreparedStatement txn = connection.prepareStatement(
+                    "INSERT INTO transactions (id, card_id, merchant_name, amount, transaction_date, category, is_bnpl, status) "
+                            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)");
+                 PreparedStatement inst = connection.prepareStatement(
+                         "INSERT INTO bnpl_installments (id, transaction_id, installment_number, amount, due_date, is_paid) "
+                                 + "VALUES (?, ?, ?, ?, ?, ?)")) {
+                long installmentId = 0;
+                for (int t = 1; t <= transactions; t++) {
+                    long cardId = 1 + (t % cards);
+                    boolean bnpl = t % 4 == 0;
+                    double amount = 100 + random.nextInt(20_000);
+                    LocalDate date = today.minusDays(random.nextInt(720));
+                    txn.setLong(1, t);
+                    txn.setLong(2, cardId);
+                    txn.setString(3, "Merchant " + random.nextInt(5_000));
+                    txn.setDouble(4, amount);
+                    txn.setDate(5, Date.valueOf(date));
+                    txn.setString(6, CATEGORIES[t % CATEGORIES.length]);
+                    txn.setBoolean(7, bnpl);
+                    txn.setString(8, bnpl ? "Pending" : "Completed");
+                    txn.addBatch();
+
+                    if (bnpl) {
+                        boolean overdue = t % 3 == 0;
+                        LocalDate firstDue = overdue ? today.minusDays(1 + random.nextInt(60)) : today.plusDays(1 + random.nextInt(30));
+                        for (int n = 1; n <= 3; n++) {
+                            inst.setLong(1, ++installmentId);
+                            inst.setLong(2, t);
+                            inst.setInt(3, n);
+                            inst.setDouble(4, Math.round(amount / 3 * 100.0) / 100.0);
+                            inst.setDate(5, Date.valueOf(firstDue.plusMonths(n - 1)));
+                            inst.setBoolean(6, !overdue && n == 1 && random.nextBoolean());
+                            inst.addBatch();
+                        }
+                    }
+                    if (t % BATCH == 0) {
+                        txn.executeBatch();
+                        inst.executeBatch();
+                        connection.commit();
+                    }
+                }
+                txn.executeBatch();
+                inst.executeBatch();
+                connection.commit();
+                installments = (int) installmentId;
+            }
+        }
+    }
+
+    public int getUsers() {
+        return users;
+    }
+
+    public int getCards() {
+        return cards;
+    }
+
+    public int getTransactions() {
+        return transactions;
+    }
+
+    public int getInstallments() {
+        return installments;
+    }
+
+    public static String email(long userId) {
+        return "user" + userId + "@bench.local";
+    }
+
+    public static String cardNumber(long cardId) {
+        return String.format("4%015d", cardId);
+    }
+
+    public static String cvv(long cardId) {
+        return String.format("%03d", cardId % 1000);
+    }
+
+    private void addBatch(PreparedStatement ps, int count, Connection connection) throws SQLException {
+        ps.addBatch();
+        if (count % BATCH == 0) {
+            flush(ps, connection);
+        }
+    }
+
+    private void flush(PreparedStatement ps, Connection connection) throws SQLException {
+        ps.executeBatch();
+        connection.commit();
+    }
+}
@@ -0,0 +1,105 @@
+package com.zeta.backend.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.zeta.backend.BackendApplication;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Shared helpers for the macro benchmarks: boots the application on a random port
+ * against a private in-memory H2 database and times repeated calls.
+ */
+public final class BenchmarkSupport {
+
+    private BenchmarkSupport() {
+    }
+
+    public static ConfigurableApplicationContext startContext(String databaseName, String... extraProperties) {
+        String[] properties = {
+                "spring.datasource.url=jdbc:h2:mem:" + databaseName + ";DB_CLOSE_DELAY=-1",
+                "spring.jpa.hibernate.ddl-auto=create",
+                "spring.jpa.show-sql=false",
+                "spring.main.banner-mode=off",
+                "server.port=0",
+                "spring.h2.console.enabled=false",
+                "transactions.journal.enabled=false",
+                "logging.level.root=WARN",
+                "logging.level.com.zeta.backend=WARN"
+        };
+        // Passed as command-line arguments so they override application.properties
+        String[] args = Stream.concat(Arrays.stream(properties), Arrays.stream(extraProperties))
+                .map(property -> "--" + property)
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(BackendApplication.class).run(args);
+    }
+
+    /**
+     * Raises the root log level to WARN for JMH forks, which run without Spring Boot's logging setup
+     * and would otherwise print every DEBUG/INFO line of the code under measurement.
+     */
+    public static void quietLogging() {
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+    }
+
+    public static int intProperty(String name, int defaultValue) {
+        return Integer.getInteger(name, defaultValue);
+    }
+
+    /**
+     * Runs the call warmup + iterations times and returns latency stats of the measured runs.
+     */
+    public static Timing time(int warmup, int iterations, Supplier<?> call) {
+        for (int i = 0; i < warmup; i++) {
+            call.get();
+        }
+        long[] nanos = new long[iterations];
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            call.get();
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        double mean = Arrays.stream(nanos).average().orElse(0);
+        return new Timing(mean / 1000.0, nanos[(int) Math.min(nanos.length - 1, Math.ceil(nanos.length * 0.95) - 1)] / 1000.0);
+    }
+
+    public static void printTable(List<String> header, List<List<String>> rows) {
+        int[] widths = new int[header.size()];
+        for (int c = 0; c < header.size(); c++) {
+            widths[c] = header.get(c).length();
+            for (List<String> row : rows) {
+                widths[c] = Math.max(widths[c], row.get(c).length());
+            }
+        }
+        printRow(header, widths);
+        StringBuilder rule = new StringBuilder();
+        for (int width : widths) {
+            rule.append("-".repeat(width)).append("-+-");
+        }
+        System.out.println(rule);
+        rows.forEach(row -> printRow(row, widths));
+    }
+
+    public static String format(double value) {
+        return String.format(Locale.ROOT, "%.1f", value);
+    }
+
+    private static void printRow(List<String> row, int[] widths) {
+        StringBuilder line = new StringBuilder();
+        for (int c = 0; c < row.size(); c++) {
+            line.append(String.format("%-" + widths[c] + "s", row.get(c))).append(" | ");
+        }
+        System.out.println(line);
+    }
+
+    public record Timing(double meanMicros, double p95Micros) {
+    }
+}
@@ -0,0 +1,90 @@
+package com.zeta.backend.benchmark;
+
+import com.zeta.backend.config.IdSequenceMigration;
+import com.zeta.backend.dto.TransactionCreateDTO;
+import com.zeta.backend.enums.InstallmentPlan;
+import com.zeta.backend.service.ITransactionService;
+import com.zeta.backend.util.SqlStatementCounter;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * BNPL purchase creation (transaction row plus its installment schedule) through
+ * ITransactionService.simulateBNPLTransaction, per installment plan: purchases per second,
+ * latency, and SQL statements prepared per purchase (a JDBC batch counts once).
+ *
+ * The seeded rows carry explicit ids, as a database migrated from IDENTITY columns would,
+ * so the id sequences are aligned with IdSequenceMigration first; the benchmark then checks
+ * that every installment row it created is present.
+ *
+ * mvn -Pbenchmark compile exec:java -Dbenchmark.mainClass=com.zeta.backend.benchmark.BnplCreationBenchmark
+ */
+public class BnplCreationBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int users = BenchmarkSupport.intProperty("bench.users", 1_000);
+        int transactionCount = BenchmarkSupport.intProperty("bench.transactions", 20_000);
+        int iterations = BenchmarkSupport.intProperty("bench.iterations", 2_000);
+
+        try (ConfigurableApplicationContext context = BenchmarkSupport.startContext("bnplbench",
+                "aggregates.spending.backfill-on-startup=false")) {
+            DataSource dataSource = context.getBean(DataSource.class);
+            BenchmarkDataSeeder seeder = new BenchmarkDataSeeder(dataSource);
+            seeder.seed(users, transactionCount);
+            context.getBean(IdSequenceMigration.class).alignSequences();
+
+            JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+            ITransactionService transactionService = context.getBean(ITransactionService.class);
+            AtomicLong purchases = new AtomicLong();
+            long installmentsBefore = count(jdbc, "bnpl_installments");
+            long expectedInstallments = 0;
+
+            List<List<String>> rows = new ArrayList<>();
+            for (InstallmentPlan plan : List.of(InstallmentPlan.THREE, InstallmentPlan.SIX, InstallmentPlan.NINE)) {
+                int warmup = Math.max(1, iterations / 10);
+                long statementsBefore = SqlStatementCounter.current();
+                BenchmarkSupport.Timing timing = BenchmarkSupport.time(warmup, iterations,
+                        () -> createPurchase(transactionService, seeder, purchases.incrementAndGet(), plan));
+                double statements = (double) (SqlStatementCounter.current() - statementsBefore) / (warmup + iterations);
+                expectedInstallments += (long) (warmup + iterations) * plan.getMonths();
+
+                rows.add(List.of(plan.name().toLowerCase(), String.valueOf(plan.getMonths()),
+                        BenchmarkSupport.format(1_000_000 / timing.meanMicros()),
+                        BenchmarkSupport.format(timing.meanMicros()), BenchmarkSupport.format(timing.p95Micros()),
+                        BenchmarkSupport.format(statements)));
+            }
+            BenchmarkSupport.printTable(List.of("plan", "installments", "purchases/s", "mean us", "p95 us",
+                    "SQL statements/purchase"), rows);
+
+            long created = count(jdbc, "bnpl_installments") - installmentsBefore;
+            if (created != expectedInstallments) {
+                throw new IllegalStateException("Created " + created + " installments, expected " + expectedInstallments);
+            }
+            System.out.println("All " + created + " installments persisted");
+        }
+    }
+
+    // One purchase on the next card in turn, by the card's owner
+    private static Object createPurchase(ITransactionService transactionService, BenchmarkDataSeeder seeder,
+                                         long sequence, InstallmentPlan plan) {
+        long cardId = 1 + sequence % seeder.getCards();
+        TransactionCreateDTO dto = new TransactionCreateDTO();
+        dto.setCardNumber(BenchmarkDataSeeder.cardNumber(cardId));
+        dto.setCvv(BenchmarkDataSeeder.cvv(cardId));
+        dto.setExpiryMonth("10");
+        dto.setExpiryYear("31");
+        dto.setAmount(120.0);
+        dto.setCategory("Electronics");
+        dto.setMerchantName("Bench Store");
+        return transactionService.simulateBNPLTransaction(dto, plan, BenchmarkDataSeeder.email((cardId + 1) / 2));
+    }
+
+    private static long count(JdbcTemplate jdbc, String table) {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+    }
+}
@@ -0,0 +1,190 @@
+package com.zeta.backend.benchmark;
+
+import com.zeta.backend.dto.BNPLPayoffResponseDTO;
+import com.zeta.backend.service.IBNPLPaymentService;
+import com.zeta.backend.service.ICardSpendingService;
+import com.zeta.backend.service.implementation.LateFeeCalculatorService;
+import com.zeta.backend.util.SqlStatementCounter;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Paying off BNPL installments: a transaction's remaining installments, and everything due on a
+ * card, each through one payoff call (one database transaction, one bulk UPDATE) against one
+ * IBNPLPaymentService.payInstallment call per installment, as clients paid them before. Targets
+ * take turns between the two paths; transaction and card payoffs run on disjoint sets of cards,
+ * whose spending summaries are built beforehand so neither path pays for the first-touch rebuild.
+ *
+ * The expected principal and late fees of every target are read beforehand and the late fees
+ * computed by LateFeeCalculatorService. Each payoff must report exactly those totals, and on both
+ * paths every installment paid must end up paid, with no fee, accrued as of today, the fees kept as
+ * paid must add up to the expected late fees, and the card's outstanding principal must equal its
+ * unpaid installments.
+ *
+ * mvn -Pbenchmark compile exec:java -Dbenchmark.mainClass=com.zeta.backend.benchmark.BnplPayoffBenchmark
+ */
+public class BnplPayoffBenchmark {
+
+    // A transaction or card to pay off, by its owner, and the installments it has to pay
+    private record Target(long id, long cardId, String email, List<Long> installmentIds, List<Double> amounts,
+                          double principal, double lateFees) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int users = BenchmarkSupport.intProperty("bench.users", 10_000);
+        int transactionCount = BenchmarkSupport.intProperty("bench.transactions", 100_000);
+        int targets = BenchmarkSupport.intProperty("bench.targets", 1_000);
+
+        try (ConfigurableApplicationContext context = BenchmarkSupport.startContext("payoffbench",
+                "aggregates.spending.backfill-on-startup=false",
+                "latefees.accrual.on-startup=false")) {
+            DataSource dataSource = context.getBean(DataSource.class);
+            new BenchmarkDataSeeder(dataSource).seed(users, transactionCount);
+            JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+            IBNPLPaymentService paymentService = context.getBean(IBNPLPaymentService.class);
+            LateFeeCalculatorService lateFees = context.getBean(LateFeeCalculatorService.class);
+            LocalDate today = LocalDate.now();
+
+            List<Long> transactionIds = jdbc.queryForList("SELECT t.id FROM transactions t WHERE MOD(t.card_id, 8) = 1"
+                    + " AND EXISTS (SELECT 1 FROM bnpl_installments b WHERE b.transaction_id = t.id AND b.is_paid = FALSE)"
+                    + " ORDER BY t.id LIMIT ?", Long.class, targets);
+            List<Long> cardIds = jdbc.queryForList("SELECT DISTINCT t.card_id FROM transactions t"
+                    + " JOIN bnpl_installments b ON b.transaction_id = t.id"
+                    + " WHERE MOD(t.card_id, 8) = 5 AND b.is_paid = FALSE AND b.due_date <= ?"
+                    + " ORDER BY t.card_id LIMIT ?", Long.class, today, targets);
+            List<Target> transactions = new ArrayList<>();
+            for (Long transactionId : transactionIds) {
+                Long cardId = jdbc.queryForObject("SELECT card_id FROM transactions WHERE id = ?", Long.class, transactionId);
+                transactions.add(target(jdbc, lateFees, today, transactionId, cardId,
+                        "b.transaction_id = ?", transactionId));
+            }
+            List<Target> cards = new ArrayList<>();
+            for (Long cardId : cardIds) {
+                cards.add(target(jdbc, lateFees, today, cardId, cardId,
+                        "b.due_date <= ? AND b.transaction_id IN (SELECT id FROM transactions WHERE card_id = ?)",
+                        today, cardId));
+            }
+
+            ICardSpendingService spendingService = context.getBean(ICardSpendingService.class);
+            transactions.forEach(target -> spendingService.rebuildCard(target.cardId()));
+            cards.forEach(target -> spendingService.rebuildCard(target.cardId()));
+
+            List<List<String>> rows = new ArrayList<>();
+            rows.addAll(run("transaction", transactions, jdbc, today,
+                    target -> paymentService.payOffTransaction(target.id(), target.email()),
+                    (target, i) -> paymentService.payInstallment(target.installmentIds().get(i),
+                            target.amounts().get(i), target.email())));
+            rows.addAll(run("card", cards, jdbc, today,
+                    target -> paymentService.payOffDueByCard(target.id(), target.email()),
+                    (target, i) -> paymentService.payInstallment(target.installmentIds().get(i),
+                            target.amounts().get(i), target.email())));
+            BenchmarkSupport.printTable(List.of("payoff of", "path", "targets", "installments/target",
+                    "mean us/target", "p95 us/target", "SQL statements/target"), rows);
+        }
+    }
+
+    // Unpaid installments matching the condition, with their late fees as of today
+    private static Target target(JdbcTemplate jdbc, LateFeeCalculatorService lateFees, LocalDate today,
+                                 long id, long cardId, String condition, Object... args) {
+        List<Long> ids = new ArrayList<>();
+        List<Double> amounts = new ArrayList<>();
+        double[] totals = new double[2];
+        jdbc.query("SELECT b.id, b.amount, b.due_date FROM bnpl_installments b WHERE b.is_paid = FALSE AND "
+                + condition + " ORDER BY b.id", rs -> {
+            ids.add(rs.getLong(1));
+            amounts.add(rs.getDouble(2));
+            totals[0] += rs.getDouble(2);
+            totals[1] += lateFees.calculateLateFee(rs.getLong(1), rs.getDouble(2),
+                    rs.getDate(3).toLocalDate(), false, today);
+        }, args);
+        return new Target(id, cardId, BenchmarkDataSeeder.email((cardId + 1) / 2), ids, amounts,
+                round(totals[0]), round(totals[1]));
+    }
+
+    private static List<List<String>> run(String kind, List<Target> targets, JdbcTemplate jdbc, LocalDate today,
+                                          Function<Target, BNPLPayoffResponseDTO> payoff,
+                                          BiFunction<Target, Integer, Object> payOne) {
+        List<Long> payoffMicros = new ArrayList<>();
+        List<Long> perInstallmentMicros = new ArrayList<>();
+        long[] statements = new long[2];
+        long installments = 0;
+        for (int t = 0; t < targets.size(); t++) {
+            Target target = targets.get(t);
+            boolean bulk = t % 2 == 0;
+            long statementsBefore = SqlStatementCounter.current();
+            long start = System.nanoTime();
+            if (bulk) {
+                BNPLPayoffResponseDTO response = payoff.apply(target);
+                if (response.getInstallmentsPaid() != target.installmentIds().size()
+                        || response.getPrincipalPaid() != target.principal()
+                        || response.getLateFeesPaid() != target.lateFees()) {
+                    throw new IllegalStateException(kind + " " + target.id() + " paid off " + response.getInstallmentsPaid()
+                            + " installments, " + response.getPrincipalPaid() + " + " + response.getLateFeesPaid()
+                            + " in fees; expected " + target.installmentIds().size() + ", " + target.principal()
+                            + " + " + target.lateFees());
+                }
+            } else {
+                for (int i = 0; i < target.installmentIds().size(); i++) {
+                    payOne.apply(target, i);
+                }
+            }
+            (bulk ? payoffMicros : perInstallmentMicros).add((System.nanoTime() - start) / 1_000);
+            statements[bulk ? 0 : 1] += SqlStatementCounter.current() - statementsBefore;
+            installments += target.installmentIds().size();
+            verifyPaid(kind, target, jdbc, today);
+        }
+        System.out.printf("%s payoffs: every installment paid on both paths and every payoff reported the expected"
+                + " totals (%d targets, %d installments)%n", kind, targets.size(), installments);
+        double perTarget = (double) installments / Math.max(1, targets.size());
+        return List.of(
+                row(kind, "one payoff call", payoffMicros, statements[0], perTarget),
+                row(kind, "payInstallment per installment", perInstallmentMicros, statements[1], perTarget));
+    }
+
+    private static void verifyPaid(String kind, Target target, JdbcTemplate jdbc, LocalDate today) {
+        for (Long installmentId : target.installmentIds()) {
+            Integer settled = jdbc.queryForObject("SELECT COUNT(*) FROM bnpl_installments WHERE id = ? AND is_paid = TRUE"
+                    + " AND late_fee = 0 AND days_late = 0 AND late_fee_accrued_on = ?", Integer.class, installmentId, today);
+            if (settled == null || settled != 1) {
+                throw new IllegalStateException(kind + " " + target.id() + ": installment " + installmentId + " not settled");
+            }
+        }
+        Double collected = jdbc.queryForObject("SELECT COALESCE(SUM(paid_late_fee), 0) FROM bnpl_installments"
+                + " WHERE id IN (" + String.join(",", target.installmentIds().stream().map(String::valueOf).toList())
+                + ")", Double.class);
+        if (collected == null || Math.abs(collected - target.lateFees()) > 0.005) {
+            throw new IllegalStateException(kind + " " + target.id() + ": paid late fees " + collected
+                    + ", expected " + target.lateFees());
+        }
+        Double outstanding = jdbc.queryForObject("SELECT outstanding_bnpl_principal FROM card_spending_summary"
+                + " WHERE card_id = ?", Double.class, target.cardId());
+        Double unpaid = jdbc.queryForObject("SELECT COALESCE(SUM(b.amount), 0) FROM bnpl_installments b"
+                + " JOIN transactions t ON t.id = b.transaction_id WHERE t.card_id = ? AND b.is_paid = FALSE",
+                Double.class, target.cardId());
+        if (outstanding == null || Math.abs(outstanding - unpaid) > 0.005) {
+            throw new IllegalStateException(kind + " " + target.id() + ": card " + target.cardId()
+                    + " outstanding principal " + outstanding + ", unpaid installments " + unpaid);
+        }
+    }
+
+    private static List<String> row(String kind, String path, List<Long> micros, long statements, double perTarget) {
+        List<Long> sorted = new ArrayList<>(micros);
+        sorted.sort(null);
+        double mean = sorted.stream().mapToLong(Long::longValue).average().orElse(0);
+        double p95 = sorted.isEmpty() ? 0 : sorted.get((int) Math.ceil(sorted.size() * 0.95) - 1);
+        return List.of(kind, path, String.valueOf(micros.size()), BenchmarkSupport.format(perTarget),
+                BenchmarkSupport.format(mean), BenchmarkSupport.format(p95),
+                BenchmarkSupport.format((double) statements / Math.max(1, micros.size())));
+    }
+
+    private static double round(double amount) {
+        return Math.round(amount * 100.0) / 100.0;
+    }
+}
@@ -0,0 +1,49 @@
+package com.zeta.backend.benchmark;
+
+import com.zeta.backend.model.UserProfile;
+import com.zeta.backend.util.CardApprovalUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CardApprovalUtil.determineApplicationStatus for each card type, with a requested limit
+ * inside the approval band.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CardApprovalUtilBenchmark {
+
+    @Param({"VISA", "MASTERCARD", "AMEX"})
+    public String cardType;
+
+    private UserProfile profile;
+
+    @Setup
+    public void setUp() {
+        profile = UserProfile.builder()
+                .fullName("Bench User")
+                .email("bench@bench.local")
+                .annualIncome(1_200_000.0)
+                .build();
+    }
+
+    @Benchmark
+    public String determineApplicationStatus() {
+        return CardApprovalUtil.determineApplicationStatus(profile, cardType, 300_000);
+    }
+}
@@ -0,0 +1,138 @@
+package com.zeta.backend.benchmark;
+
+import com.zeta.backend.dto.TransactionAnalyticsDTO;
+import com.zeta.backend.dto.TransactionColumnRow;
+import com.zeta.backend.enums.AnalyticsDimension;
+import com.zeta.backend.repository.TransactionRepository;
+import com.zeta.backend.service.implementation.TransactionAnalyticsService;
+import com.zeta.backend.util.ColumnarTransactionStore;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Whole-table reporting aggregates: GROUP BY queries on H2 against ColumnarTransactionStore
+ * scans at several parallelism levels, for every grouping and for a filtered query (last 90
+ * days, BNPL only). Also reports the store's load time and heap, and checks that every store
+ * aggregate equals the SQL one.
+ *
+ * MAVEN_OPTS=-Xmx4g mvn -Pbenchmark compile exec:java \
+ *     -Dbenchmark.mainClass=com.zeta.backend.benchmark.ColumnarAnalyticsBenchmark
+ */
+public class ColumnarAnalyticsBenchmark {
+
+    private static final Map<AnalyticsDimension, String> SQL_GROUP_KEYS = Map.of(
+            AnalyticsDimension.CATEGORY, "t.category",
+            AnalyticsDimension.MERCHANT, "t.merchant_name",
+            AnalyticsDimension.MONTH, "FORMATDATETIME(t.transaction_date, 'yyyy-MM')",
+            AnalyticsDimension.CARD_TYPE, "c.card_type");
+
+    public static void main(String[] args) throws Exception {
+        int users = BenchmarkSupport.intProperty("bench.users", 100_000);
+        int transactionCount = BenchmarkSupport.intProperty("bench.transactions", 1_000_000);
+        int maxParallelism = BenchmarkSupport.intProperty("bench.parallelism", 4);
+        int iterations = BenchmarkSupport.intProperty("bench.iterations", 20);
+
+        try (ConfigurableApplicationContext context = BenchmarkSupport.startContext("analyticsbench",
+                "aggregates.spending.backfill-on-startup=false", "analytics.columnar.enabled=true")) {
+            DataSource dataSource = context.getBean(DataSource.class);
+            new BenchmarkDataSeeder(dataSource).seed(users, transactionCount);
+            JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+
+            // the service loaded an empty table at startup; load it again now that it is seeded
+            Runtime runtime = Runtime.getRuntime();
+            System.gc();
+            long heapBefore = runtime.totalMemory() - runtime.freeMemory();
+            long start = System.currentTimeMillis();
+            context.getBean(TransactionAnalyticsService.class).load();
+            long loadMs = System.currentTimeMillis() - start;
+            System.gc();
+            System.out.printf("Service loaded %d transactions in %d ms, ~%d MB heap; %d available processors%n",
+                    transactionCount, loadMs, (runtime.totalMemory() - runtime.freeMemory() - heapBefore) / (1024 * 1024),
+                    runtime.availableProcessors());
+
+            List<TransactionColumnRow> rows = loadRows(context.getBean(TransactionRepository.class));
+            LocalDate from = LocalDate.now().minusDays(90);
+            List<String> header = new ArrayList<>(List.of("aggregate", "SQL GROUP BY ms"));
+            List<ColumnarTransactionStore> stores = new ArrayList<>();
+            for (int parallelism = 1; parallelism <= maxParallelism; parallelism *= 2) {
+                ColumnarTransactionStore store = new ColumnarTransactionStore(parallelism);
+                store.appendAll(rows);
+                stores.add(store);
+                header.add("store p=" + parallelism + " ms");
+            }
+
+            List<List<String>> table = new ArrayList<>();
+            for (AnalyticsDimension dimension : AnalyticsDimension.values()) {
+                table.add(compare(jdbc, stores, dimension, null, null, iterations));
+            }
+            table.add(compare(jdbc, stores, AnalyticsDimension.CATEGORY, from, true, iterations));
+            BenchmarkSupport.printTable(header, table);
+            System.out.println("Store aggregates match SQL");
+            stores.forEach(ColumnarTransactionStore::close);
+        }
+    }
+
+    private static List<TransactionColumnRow> loadRows(TransactionRepository repository) {
+        List<TransactionColumnRow> rows = new ArrayList<>();
+        long afterId = 0;
+        List<TransactionColumnRow> page;
+        do {
+            page = repository.findColumnRowsAfter(afterId, PageRequest.ofSize(10_000));
+            rows.addAll(page);
+            if (!page.isEmpty()) {
+                afterId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == 10_000);
+        return rows;
+    }
+
+    private static List<String> compare(JdbcTemplate jdbc, List<ColumnarTransactionStore> stores,
+                                        AnalyticsDimension dimension, LocalDate from, Boolean bnpl, int iterations) {
+        String key = SQL_GROUP_KEYS.get(dimension);
+        String sql = "SELECT " + key + " AS k, COUNT(*) AS c, SUM(t.amount) AS s FROM transactions t"
+                + (dimension == AnalyticsDimension.CARD_TYPE ? " JOIN card c ON c.card_id = t.card_id" : "")
+                + " WHERE t.id <> ?"
+                + (from == null ? "" : " AND t.transaction_date >= '" + from + "' AND t.is_bnpl = " + bnpl)
+                + " GROUP BY " + key;
+        // H2 reuses the result of an identical query on unchanged tables; a different no-op bound each run defeats that
+        AtomicLong run = new AtomicLong();
+
+        Map<String, double[]> expected = new HashMap<>();
+        jdbc.query(sql, rs -> {
+            expected.put(rs.getString("k"), new double[]{rs.getLong("c"), rs.getDouble("s")});
+        }, run.decrementAndGet());
+        List<String> row = new ArrayList<>();
+        row.add(dimension.name().toLowerCase() + (from == null ? "" : " (90 days, bnpl)"));
+        row.add(BenchmarkSupport.format(BenchmarkSupport.time(1, Math.max(1, iterations / 4),
+                () -> jdbc.queryForList(sql, run.decrementAndGet())).meanMicros() / 1000));
+
+        for (ColumnarTransactionStore store : stores) {
+            verify(dimension, expected, store.aggregate(dimension, from, null, null, bnpl));
+            row.add(BenchmarkSupport.format(BenchmarkSupport.time(3, iterations,
+                    () -> store.aggregate(dimension, from, null, null, bnpl)).meanMicros() / 1000));
+        }
+        return row;
+    }
+
+    private static void verify(AnalyticsDimension dimension, Map<String, double[]> expected,
+                               List<TransactionAnalyticsDTO.Group> groups) {
+        if (groups.size() != expected.size()) {
+            throw new IllegalStateException(dimension + ": " + groups.size() + " groups, SQL has " + expected.size());
+        }
+        for (TransactionAnalyticsDTO.Group group : groups) {
+            double[] sql = expected.get(group.getKey());
+            if (sql == null || sql[0] != group.getTransactionCount() || Math.abs(sql[1] - group.getTotalSpend()) > 0.01) {
+                throw new IllegalStateException(dimension + " group " + group.getKey() + " differs from SQL");
+            }
+        }
+    }
+}
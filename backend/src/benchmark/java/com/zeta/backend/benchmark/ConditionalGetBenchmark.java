@@ -0,0 +1,146 @@
+package com.zeta.backend.benchmark;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.search.Search;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Conditional GETs of the polled card and installment reads: latency and SQL statements per
+ * request for a plain GET (200) against a GET carrying the previous ETag (304), then checks
+ * that a new transaction on the card changes the ETags of the reads it affects.
+ *
+ * mvn -Pbenchmark compile exec:java -Dbenchmark.mainClass=com.zeta.backend.benchmark.ConditionalGetBenchmark
+ */
+public class ConditionalGetBenchmark {
+
+    private static final String PASSWORD = "bench-password";
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+
+    public static void main(String[] args) throws Exception {
+        int users = BenchmarkSupport.intProperty("bench.users", 1_000);
+        int transactionCount = BenchmarkSupport.intProperty("bench.transactions", 100_000);
+        int iterations = BenchmarkSupport.intProperty("bench.iterations", 500);
+
+        try (ConfigurableApplicationContext context = BenchmarkSupport.startContext("etagbench",
+                "aggregates.spending.backfill-on-startup=false")) {
+            DataSource dataSource = context.getBean(DataSource.class);
+            new BenchmarkDataSeeder(dataSource).seed(users, transactionCount);
+            JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+            jdbc.update("UPDATE user_profiles SET password = ? WHERE user_id = 1", new BCryptPasswordEncoder().encode(PASSWORD));
+            long bnplTransactionId = jdbc.queryForObject(
+                    "SELECT MIN(id) FROM transactions WHERE card_id = 1 AND is_bnpl = TRUE", Long.class);
+
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            HttpClient client = HttpClient.newHttpClient();
+            String token = login(client, baseUrl);
+            MeterRegistry registry = context.getBean(MeterRegistry.class);
+
+            Map<String, String> endpoints = new LinkedHashMap<>();
+            endpoints.put("/api/cards/me", "/api/cards/me");
+            endpoints.put("/api/transactions/card/{cardId}", "/api/transactions/card/1");
+            endpoints.put("/api/bnpl/installments/card/{cardId}/overdue", "/api/bnpl/installments/card/1/overdue");
+            endpoints.put("/api/bnpl/installments/transaction/{transactionId}/pending",
+                    "/api/bnpl/installments/transaction/" + bnplTransactionId + "/pending");
+
+            List<List<String>> rows = new ArrayList<>();
+            Map<String, String> etags = new LinkedHashMap<>();
+            for (Map.Entry<String, String> endpoint : endpoints.entrySet()) {
+                String uri = endpoint.getKey();
+                HttpRequest plain = get(baseUrl + endpoint.getValue(), token, null);
+                HttpResponse<byte[]> first = client.send(plain, HttpResponse.BodyHandlers.ofByteArray());
+                String etag = first.headers().firstValue("ETag")
+                        .orElseThrow(() -> new IllegalStateException(uri + " returned no ETag"));
+                etags.put(endpoint.getValue(), etag);
+                HttpRequest conditional = get(baseUrl + endpoint.getValue(), token, etag);
+                if (client.send(conditional, HttpResponse.BodyHandlers.discarding()).statusCode() != 304) {
+                    throw new IllegalStateException(uri + " did not answer 304 to its own ETag");
+                }
+
+                double[] full = measure(client, plain, registry, uri, iterations, 200);
+                double[] notModified = measure(client, conditional, registry, uri, iterations, 304);
+                rows.add(List.of(uri, String.valueOf(first.body().length),
+                        BenchmarkSupport.format(full[0]), BenchmarkSupport.format(full[1]),
+                        BenchmarkSupport.format(notModified[0]), BenchmarkSupport.format(notModified[1])));
+            }
+            BenchmarkSupport.printTable(List.of("endpoint", "body bytes", "200 mean us", "200 SQL/req",
+                    "304 mean us", "304 SQL/req"), rows);
+
+            // a new transaction on card 1 must invalidate the card list and the card history;
+            // the seeder writes ids directly, so the sequence is moved past them first
+            jdbc.execute("ALTER SEQUENCE transactions_seq RESTART WITH " + (transactionCount + 1_000));
+            String body = "{\"cardNumber\":\"" + BenchmarkDataSeeder.cardNumber(1) + "\",\"cvv\":\"" + BenchmarkDataSeeder.cvv(1)
+                    + "\",\"expiryMonth\":\"10\",\"expiryYear\":\"31\",\"amount\":1.0,\"category\":\"Food\",\"merchantName\":\"Bench Store\"}";
+            HttpResponse<String> created = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/transactions"))
+                    .header("Content-Type", "application/json").header("Authorization", "Bearer " + token)
+                    .POST(HttpRequest.BodyPublishers.ofString(body)).build(), HttpResponse.BodyHandlers.ofString());
+            if (created.statusCode() != 200) {
+                throw new IllegalStateException("Transaction failed: " + created.body());
+            }
+            for (String path : List.of("/api/cards/me", "/api/transactions/card/1")) {
+                int status = client.send(get(baseUrl + path, token, etags.get(path)), HttpResponse.BodyHandlers.discarding()).statusCode();
+                if (status != 200) {
+                    throw new IllegalStateException(path + " answered " + status + " to an ETag from before the write");
+                }
+            }
+            System.out.println("ETags of the card list and history changed after a new transaction");
+        }
+    }
+
+    // {mean latency in microseconds, SQL statements per request}
+    private static double[] measure(HttpClient client, HttpRequest request, MeterRegistry registry, String uri,
+                                    int iterations, int expectedStatus) {
+        double statementsBefore = statements(registry, uri);
+        BenchmarkSupport.Timing timing = BenchmarkSupport.time(0, iterations, () -> {
+            try {
+                int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                if (status != expectedStatus) {
+                    throw new IllegalStateException(uri + " answered " + status + ", expected " + expectedStatus);
+                }
+                return status;
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        return new double[]{timing.meanMicros(), (statements(registry, uri) - statementsBefore) / iterations};
+    }
+
+    private static double statements(MeterRegistry registry, String uri) {
+        return Search.in(registry).name("http.server.requests.sql.statements").tag("uri", uri)
+                .summaries().stream().mapToDouble(DistributionSummary::totalAmount).sum();
+    }
+
+    private static HttpRequest get(String url, String token, String etag) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url)).header("Authorization", "Bearer " + token);
+        if (etag != null) {
+            builder.header("If-None-Match", etag);
+        }
+        return builder.GET().build();
+    }
+
+    private static String login(HttpClient client, String baseUrl) throws Exception {
+        String body = "{\"email\":\"" + BenchmarkDataSeeder.email(1) + "\",\"password\":\"" + PASSWORD + "\"}";
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/profile/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body)).build(), HttpResponse.BodyHandlers.ofString());
+        Matcher matcher = TOKEN.matcher(response.body());
+        if (!matcher.find()) {
+            throw new IllegalStateException("Login failed: " + response.body());
+        }
+        return matcher.group(1);
+    }
+}
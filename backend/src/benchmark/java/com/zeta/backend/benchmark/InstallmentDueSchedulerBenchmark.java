@@ -0,0 +1,122 @@
+package com.zeta.backend.benchmark;
+
+import com.zeta.backend.repository.BNPLInstallmentRepository;
+import com.zeta.backend.service.implementation.InstallmentDueScheduler;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Daily due-date tick of InstallmentDueScheduler over a seeded database, against the same
+ * projection read straight from the installments table (unpaid rows due on the day's reminder
+ * date and rows that became overdue since the previous tick), for bench.days consecutive days.
+ *
+ * Some indexed installments are marked paid directly in the database beforehand, as a writer that
+ * bypasses the scheduler would. Each day the installments in the published events must equal the
+ * ones the queries return.
+ *
+ * mvn -Pbenchmark compile exec:java -Dbenchmark.mainClass=com.zeta.backend.benchmark.InstallmentDueSchedulerBenchmark
+ */
+public class InstallmentDueSchedulerBenchmark {
+
+    private static final int REMINDER_DAYS = 3;
+    private static final int CATCH_UP_DAYS = 1;
+
+    public static void main(String[] args) throws Exception {
+        int users = BenchmarkSupport.intProperty("bench.users", 10_000);
+        int transactionCount = BenchmarkSupport.intProperty("bench.transactions", 100_000);
+        int days = BenchmarkSupport.intProperty("bench.days", 90);
+
+        try (ConfigurableApplicationContext context = BenchmarkSupport.startContext("duebench",
+                "aggregates.spending.backfill-on-startup=false",
+                "latefees.accrual.on-startup=false",
+                "installments.due.reminder-days=" + REMINDER_DAYS,
+                "installments.due.catch-up-days=" + CATCH_UP_DAYS)) {
+            DataSource dataSource = context.getBean(DataSource.class);
+            new BenchmarkDataSeeder(dataSource).seed(users, transactionCount);
+            JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+            InstallmentDueScheduler scheduler = context.getBean(InstallmentDueScheduler.class);
+            BNPLInstallmentRepository repository = context.getBean(BNPLInstallmentRepository.class);
+
+            LocalDate today = LocalDate.now();
+            long loadStart = System.nanoTime();
+            int indexed = scheduler.load(today);
+            double loadMillis = (System.nanoTime() - loadStart) / 1e6;
+            int paidBehind = jdbc.update("UPDATE bnpl_installments SET is_paid = TRUE"
+                    + " WHERE is_paid = FALSE AND MOD(id, 97) = 0 AND due_date >= ?", today.minusDays(CATCH_UP_DAYS));
+            System.out.printf("Indexed %d unpaid installments in %s ms; %d of them then paid behind the index%n",
+                    indexed, BenchmarkSupport.format(loadMillis), paidBehind);
+
+            Set<Long> published = new TreeSet<>();
+            context.addApplicationListener((ApplicationListener<PayloadApplicationEvent<?>>) event -> {
+                if (event.getPayload() instanceof InstallmentDueScheduler.InstallmentsDueSoonEvent dueSoon) {
+                    dueSoon.getInstallments().forEach(row -> published.add(row.getInstallmentId()));
+                } else if (event.getPayload() instanceof InstallmentDueScheduler.InstallmentsOverdueEvent overdue) {
+                    // overdue ids are negated to keep the two kinds apart
+                    overdue.getInstallments().forEach(row -> published.add(-row.getInstallmentId()));
+                }
+            });
+
+            double tickMillis = 0;
+            double scanMillis = 0;
+            long events = 0;
+            LocalDate overdueFrom = today.minusDays(CATCH_UP_DAYS);
+            for (int d = 0; d < days; d++) {
+                LocalDate date = today.plusDays(d);
+                published.clear();
+                // the path that runs second finds the day's rows in H2's cache, so they take turns
+                Set<Long> scanned = null;
+                if (d % 2 == 0) {
+                    long start = System.nanoTime();
+                    scanned = scan(repository, overdueFrom, date);
+                    scanMillis += (System.nanoTime() - start) / 1e6;
+                }
+                long start = System.nanoTime();
+                scheduler.tick(date);
+                tickMillis += (System.nanoTime() - start) / 1e6;
+                if (d % 2 == 1) {
+                    start = System.nanoTime();
+                    scanned = scan(repository, overdueFrom, date);
+                    scanMillis += (System.nanoTime() - start) / 1e6;
+                }
+                if (!published.equals(scanned)) {
+                    throw new IllegalStateException("Tick for " + date + " published " + published.size()
+                            + " installments, the queries return " + scanned.size());
+                }
+                events += published.size();
+                overdueFrom = date;
+            }
+            System.out.printf("Every tick published exactly the installments the queries return (%d over %d days)%n",
+                    events, days);
+
+            List<List<String>> rows = new ArrayList<>();
+            rows.add(List.of("due index tick", String.valueOf(days), String.valueOf(events),
+                    BenchmarkSupport.format(tickMillis / days), String.valueOf(scheduler.indexedInstallments())));
+            rows.add(List.of("range queries, no index", String.valueOf(days), String.valueOf(events),
+                    BenchmarkSupport.format(scanMillis / days), "-"));
+            BenchmarkSupport.printTable(List.of("path", "days", "installments published", "ms/day",
+                    "indexed after"), rows);
+        }
+    }
+
+    // Installments a tick for the date publishes, read without the index: due on the reminder day, and
+    // newly overdue (negated)
+    private static Set<Long> scan(BNPLInstallmentRepository repository, LocalDate overdueFrom, LocalDate date) {
+        Set<Long> ids = new TreeSet<>();
+        LocalDate reminderDay = date.plusDays(REMINDER_DAYS);
+        repository.findUnpaidDueRowsBetween(reminderDay, reminderDay).forEach(row -> ids.add(row.getInstallmentId()));
+        if (overdueFrom.isBefore(date)) {
+            repository.findUnpaidDueRowsBetween(overdueFrom, date.minusDays(1))
+                    .forEach(row -> ids.add(-row.getInstallmentId()));
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,86 @@
+package com.zeta.backend.benchmark;
+
+import com.zeta.backend.repository.BNPLInstallmentRepository;
+import com.zeta.backend.service.implementation.LateFeeAccrualJob;
+import com.zeta.backend.service.implementation.LateFeeCalculatorService;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Nightly late fee accrual over a seeded database: after a warm-up run, a full run at several
+ * parallelism levels (each for a later date, so every overdue installment is walked again), a same-day rerun, and
+ * a check of every stored fee against LateFeeCalculatorService.
+ *
+ * mvn -Pbenchmark compile exec:java -Dbenchmark.mainClass=com.zeta.backend.benchmark.LateFeeAccrualBenchmark
+ */
+public class LateFeeAccrualBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int users = BenchmarkSupport.intProperty("bench.users", 10_000);
+        int transactionCount = BenchmarkSupport.intProperty("bench.transactions", 100_000);
+        int chunkSize = BenchmarkSupport.intProperty("bench.chunkSize", 500);
+        int maxParallelism = BenchmarkSupport.intProperty("bench.parallelism", 4);
+
+        try (ConfigurableApplicationContext context = BenchmarkSupport.startContext("accrualbench",
+                "aggregates.spending.backfill-on-startup=false",
+                "latefees.accrual.on-startup=false")) {
+            DataSource dataSource = context.getBean(DataSource.class);
+            BenchmarkDataSeeder seeder = new BenchmarkDataSeeder(dataSource);
+            seeder.seed(users, transactionCount);
+            JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+            LateFeeCalculatorService calculator = context.getBean(LateFeeCalculatorService.class);
+            BNPLInstallmentRepository repository = context.getBean(BNPLInstallmentRepository.class);
+            System.out.printf("Seeded %d installments, %d unpaid and overdue%n", seeder.getInstallments(),
+                    jdbc.queryForObject("SELECT COUNT(*) FROM bnpl_installments WHERE is_paid = FALSE"
+                            + " AND due_date < CURRENT_DATE", Long.class));
+
+            List<List<String>> rows = new ArrayList<>();
+            // first run warms up the JIT and the query plans
+            context.getBean(LateFeeAccrualJob.class).accrue(LocalDate.now());
+            LocalDate date = LocalDate.now().plusDays(1);
+            for (int parallelism = 1; parallelism <= maxParallelism; parallelism *= 2, date = date.plusDays(1)) {
+                LateFeeAccrualJob job = new LateFeeAccrualJob(calculator, repository, false, chunkSize, parallelism);
+                rows.add(accrue("full", job, date, parallelism, jdbc));
+            }
+            date = date.minusDays(1);
+            rows.add(accrue("same-day rerun", new LateFeeAccrualJob(calculator, repository, false, chunkSize,
+                    maxParallelism), date, maxParallelism, jdbc));
+            BenchmarkSupport.printTable(List.of("run", "parallelism", "walked", "changed", "seconds",
+                    "installments/s"), rows);
+            verify(jdbc, calculator, date);
+        }
+    }
+
+    private static List<String> accrue(String run, LateFeeAccrualJob job, LocalDate date, int parallelism,
+                                       JdbcTemplate jdbc) {
+        long walked = jdbc.queryForObject("SELECT COUNT(*) FROM bnpl_installments WHERE is_paid = FALSE AND due_date < ?"
+                + " AND (late_fee_accrued_on IS NULL OR late_fee_accrued_on < ?)", Long.class, date, date);
+        long start = System.nanoTime();
+        long changed = job.accrue(date);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        return List.of(run + " (" + date + ")", String.valueOf(parallelism), String.valueOf(walked),
+                String.valueOf(changed), BenchmarkSupport.format(seconds), BenchmarkSupport.format(walked / seconds));
+    }
+
+    // Every overdue unpaid installment carries the fee the calculator gives for the date
+    private static void verify(JdbcTemplate jdbc, LateFeeCalculatorService calculator, LocalDate date) {
+        List<String> mismatches = jdbc.query("SELECT id, amount, due_date, late_fee, late_fee_accrued_on"
+                        + " FROM bnpl_installments WHERE is_paid = FALSE AND due_date < ?",
+                (rs, row) -> {
+                    double expected = calculator.calculateLateFee(rs.getLong(1), rs.getDouble(2),
+                            rs.getDate(3).toLocalDate(), false, date);
+                    boolean matches = rs.getObject(4) != null && Math.abs(rs.getDouble(4) - expected) < 0.005
+                            && date.equals(rs.getDate(5).toLocalDate());
+                    return matches ? null : "installment " + rs.getLong(1) + ": " + rs.getObject(4) + " vs " + expected;
+                }, date).stream().filter(m -> m != null).toList();
+        if (!mismatches.isEmpty()) {
+            throw new IllegalStateException(mismatches.size() + " stored fees differ, e.g. " + mismatches.get(0));
+        }
+        System.out.println("Every stored fee matches LateFeeCalculatorService as of " + date);
+    }
+}
@@ -0,0 +1,188 @@
+package com.zeta.backend.benchmark;
+
+import com.zeta.backend.model.BNPLInstallment;
+import com.zeta.backend.repository.BNPLInstallmentRepository;
+import com.zeta.backend.service.implementation.LateFeeCalculatorService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.lang.management.ManagementFactory;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Per-card late fee totals summed by the database (LateFeeCalculatorService.calculateTotalLateFeeByCardId)
+ * against loading the overdue installment entities and summing LateFeeCalculatorService.calculateLateFee
+ * in Java, for a delinquent card with bench.overdue overdue installments and for ordinary cards.
+ *
+ * Equivalence checks, at dates 60 days back, today and 60 days ahead: the database expression
+ * (BNPLInstallmentRepository.LATE_FEE) gives exactly the calculator's fee for every unpaid overdue
+ * installment; every card's total and the statement batch's per-card totals match the Java sums.
+ *
+ * mvn -Pbenchmark compile exec:java -Dbenchmark.mainClass=com.zeta.backend.benchmark.LateFeeAggregateBenchmark
+ */
+public class LateFeeAggregateBenchmark {
+
+    private static final long DELINQUENT_CARD = 1;
+
+    public static void main(String[] args) throws Exception {
+        int users = BenchmarkSupport.intProperty("bench.users", 2_000);
+        int transactionCount = BenchmarkSupport.intProperty("bench.transactions", 20_000);
+        int overdue = BenchmarkSupport.intProperty("bench.overdue", 10_000);
+        int iterations = BenchmarkSupport.intProperty("bench.iterations", 200);
+
+        try (ConfigurableApplicationContext context = BenchmarkSupport.startContext("latefeeaggbench",
+                "aggregates.spending.backfill-on-startup=false",
+                "latefees.accrual.on-startup=false")) {
+            DataSource dataSource = context.getBean(DataSource.class);
+            BenchmarkDataSeeder seeder = new BenchmarkDataSeeder(dataSource);
+            seeder.seed(users, transactionCount);
+            addOverdueInstallments(dataSource, seeder, overdue);
+
+            LateFeeCalculatorService calculator = context.getBean(LateFeeCalculatorService.class);
+            BNPLInstallmentRepository repository = context.getBean(BNPLInstallmentRepository.class);
+            EntityManagerFactory entityManagerFactory = context.getBean(EntityManagerFactory.class);
+            JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+            List<Long> cardIds = jdbc.queryForList("SELECT card_id FROM card ORDER BY card_id", Long.class);
+
+            LocalDate today = LocalDate.now();
+            for (LocalDate date : List.of(today.minusDays(60), today, today.plusDays(60))) {
+                int rows = verifyRows(entityManagerFactory, calculator, date);
+                verifyCards(repository, calculator, cardIds, date);
+                System.out.printf("As of %s: database fee equals the calculator's for %d installments and %d cards%n",
+                        date, rows, cardIds.size());
+            }
+
+            long ordinaryCard = cardIds.get(cardIds.size() / 2);
+            List<List<String>> results = new ArrayList<>();
+            // a different date on each call: H2 hands back the previous result of an identical query
+            // when no table changed since, which a live database rarely sees
+            int[] call = {0};
+            for (long cardId : List.of(DELINQUENT_CARD, ordinaryCard)) {
+                int rows = repository.findOverdueByCardId(cardId, today).size();
+                String card = "card " + cardId + " (" + rows + " overdue)";
+                BenchmarkSupport.Timing java = BenchmarkSupport.time(iterations / 10, iterations,
+                        () -> javaTotal(repository, calculator, cardId, today.minusDays(call[0]++ % 7)));
+                BenchmarkSupport.Timing database = BenchmarkSupport.time(iterations / 10, iterations,
+                        () -> calculator.calculateTotalLateFeeByCardId(cardId, today.minusDays(call[0]++ % 7)));
+                results.add(List.of(card, "entities + Java sum", BenchmarkSupport.format(java.meanMicros()),
+                        BenchmarkSupport.format(java.p95Micros()),
+                        BenchmarkSupport.format(allocatedKb(() -> javaTotal(repository, calculator, cardId, today)))));
+                results.add(List.of(card, "database aggregate", BenchmarkSupport.format(database.meanMicros()),
+                        BenchmarkSupport.format(database.p95Micros()),
+                        BenchmarkSupport.format(allocatedKb(() -> calculator.calculateTotalLateFeeByCardId(cardId, today)))));
+            }
+            BenchmarkSupport.printTable(List.of("card", "path", "mean us", "p95 us", "allocated KB/call"), results);
+        }
+    }
+
+    // Heap allocated by the calling thread over 20 calls, per call
+    private static double allocatedKb(Runnable call) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < 20; i++) {
+            call.run();
+        }
+        return (threads.getCurrentThreadAllocatedBytes() - before) / 20 / 1024.0;
+    }
+
+    // BNPL purchases on the delinquent card whose installments are all overdue and unpaid
+    private static void addOverdueInstallments(DataSource dataSource, BenchmarkDataSeeder seeder, int count)
+            throws Exception {
+        SplittableRandom random = new SplittableRandom(7);
+        LocalDate today = LocalDate.now();
+        long transactionId = seeder.getTransactions();
+        long installmentId = seeder.getInstallments();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement txn = connection.prepareStatement(
+                     "INSERT INTO transactions (id, card_id, merchant_name, amount, transaction_date, category, is_bnpl, status)"
+                             + " VALUES (?, ?, 'Overdue Store', ?, ?, 'Electronics', TRUE, 'Pending')");
+             PreparedStatement inst = connection.prepareStatement(
+                     "INSERT INTO bnpl_installments (id, transaction_id, installment_number, amount, due_date, is_paid)"
+                             + " VALUES (?, ?, ?, ?, ?, FALSE)")) {
+            connection.setAutoCommit(false);
+            for (int i = 0; i < count; i += 3) {
+                double amount = 100 + random.nextInt(20_000) + random.nextInt(100) / 100.0;
+                LocalDate purchased = today.minusDays(95 + random.nextInt(600));
+                txn.setLong(1, ++transactionId);
+                txn.setLong(2, DELINQUENT_CARD);
+                txn.setDouble(3, amount);
+                txn.setDate(4, Date.valueOf(purchased));
+                txn.addBatch();
+                for (int n = 1; n <= Math.min(3, count - i); n++) {
+                    inst.setLong(1, ++installmentId);
+                    inst.setLong(2, transactionId);
+                    inst.setInt(3, n);
+                    inst.setDouble(4, Math.round(amount / 3 * 100.0) / 100.0);
+                    inst.setDate(5, Date.valueOf(purchased.plusMonths(n)));
+                    inst.addBatch();
+                }
+            }
+            txn.executeBatch();
+            inst.executeBatch();
+            connection.commit();
+        }
+    }
+
+    // The database expression against the calculator, row by row
+    private static int verifyRows(EntityManagerFactory entityManagerFactory, LateFeeCalculatorService calculator,
+                                  LocalDate date) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            List<Object[]> rows = entityManager.createQuery("SELECT b.id, b.amount, b.dueDate, "
+                            + BNPLInstallmentRepository.LATE_FEE
+                            + " FROM BNPLInstallment b WHERE b.isPaid = false AND b.dueDate < :date", Object[].class)
+                    .setParameter("date", date)
+                    .getResultList();
+            for (Object[] row : rows) {
+                double expected = calculator.calculateLateFee((Long) row[0], (Double) row[1], (LocalDate) row[2],
+                        false, date);
+                double actual = ((Number) row[3]).doubleValue();
+                if (expected != actual) {
+                    throw new IllegalStateException("Installment " + row[0] + " (" + row[1] + " due " + row[2] + ") as of "
+                            + date + ": database "
+                            + actual + ", calculator " + expected);
+                }
+            }
+            return rows.size();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    // Every card's database total, and the statement batch's per-card totals, against the Java sums
+    private static void verifyCards(BNPLInstallmentRepository repository, LateFeeCalculatorService calculator,
+                                    List<Long> cardIds, LocalDate date) {
+        Map<Long, Double> byRange = calculator.calculateTotalLateFeesByCardIdBetween(
+                cardIds.get(0), cardIds.get(cardIds.size() - 1), date);
+        for (Long cardId : cardIds) {
+            double expected = javaTotal(repository, calculator, cardId, date);
+            double single = calculator.calculateTotalLateFeeByCardId(cardId, date);
+            double ranged = byRange.getOrDefault(cardId, 0.0);
+            if (expected != single || expected != ranged) {
+                throw new IllegalStateException("Card " + cardId + " as of " + date + ": Java " + expected
+                        + ", database " + single + ", statement batch " + ranged);
+            }
+        }
+    }
+
+    // The previous calculateTotalLateFeeByCardId: overdue entities, fees summed in Java, rounded to cents
+    private static double javaTotal(BNPLInstallmentRepository repository, LateFeeCalculatorService calculator,
+                                    Long cardId, LocalDate date) {
+        double total = 0;
+        for (BNPLInstallment installment : repository.findOverdueByCardId(cardId, date)) {
+            total += calculator.calculateLateFee(installment.getId(), installment.getAmount(),
+                    installment.getDueDate(), installment.getIsPaid(), date);
+        }
+        return Math.round(total * 100.0) / 100.0;
+    }
+}
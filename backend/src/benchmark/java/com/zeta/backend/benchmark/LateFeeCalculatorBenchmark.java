@@ -0,0 +1,69 @@
+package com.zeta.backend.benchmark;
+
+import com.zeta.backend.model.BNPLInstallment;
+import com.zeta.backend.service.implementation.LateFeeCalculatorService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LateFeeCalculatorService.calculateLateFeeForInstallment for an overdue, a not yet due and
+ * a paid installment. Logging runs at WARN, so the per-call INFO line is not formatted.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LateFeeCalculatorBenchmark {
+
+    private LateFeeCalculatorService lateFeeCalculatorService;
+    private BNPLInstallment overdue;
+    private BNPLInstallment upcoming;
+    private BNPLInstallment paid;
+
+    @Setup
+    public void setUp() {
+        BenchmarkSupport.quietLogging();
+        lateFeeCalculatorService = new LateFeeCalculatorService(null, null);
+        overdue = installment(LocalDate.now().minusDays(17), false);
+        upcoming = installment(LocalDate.now().plusDays(12), false);
+        paid = installment(LocalDate.now().minusDays(40), true);
+    }
+
+    @Benchmark
+    public double overdueInstallment() {
+        return lateFeeCalculatorService.calculateLateFeeForInstallment(overdue);
+    }
+
+    @Benchmark
+    public double upcomingInstallment() {
+        return lateFeeCalculatorService.calculateLateFeeForInstallment(upcoming);
+    }
+
+    @Benchmark
+    public double paidInstallment() {
+        return lateFeeCalculatorService.calculateLateFeeForInstallment(paid);
+    }
+
+    private static BNPLInstallment installment(LocalDate dueDate, boolean isPaid) {
+        return BNPLInstallment.builder()
+                .id(1L)
+                .installmentNumber(1)
+                .amount(3333.33)
+                .dueDate(dueDate)
+                .isPaid(isPaid)
+                .build();
+    }
+}
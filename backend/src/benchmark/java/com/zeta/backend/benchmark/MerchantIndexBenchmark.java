@@ -0,0 +1,139 @@
+package com.zeta.backend.benchmark;
+
+import com.zeta.backend.service.implementation.MerchantSuggestionService;
+import com.zeta.backend.util.MerchantPrefixIndex;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Merchant autocomplete: one user's top-10 prefix lookups from MerchantSuggestionService's
+ * in-memory indexes against the equivalent LIKE 'x%' / GROUP BY query over that user's rows of a
+ * seeded transactions table, then one index alone over a large synthetic vocabulary (build time,
+ * heap, lookup and update cost).
+ * Rankings are checked against a brute-force sort after random increments and decrements.
+ *
+ * mvn -Pbenchmark compile exec:java -Dbenchmark.mainClass=com.zeta.backend.benchmark.MerchantIndexBenchmark
+ */
+public class MerchantIndexBenchmark {
+
+    private static final String[] SYLLABLES = {"ka", "lo", "mi", "ne", "ra", "so", "tu", "va", "ze", "bri",
+            "cor", "dan", "el", "fin", "gro", "hex", "in", "jo", "mart", "shop"};
+
+    public static void main(String[] args) throws Exception {
+        int users = BenchmarkSupport.intProperty("bench.users", 50_000);
+        int transactionCount = BenchmarkSupport.intProperty("bench.transactions", 1_000_000);
+        int vocabulary = BenchmarkSupport.intProperty("bench.merchants", 1_000_000);
+        int iterations = BenchmarkSupport.intProperty("bench.iterations", 200);
+
+        try (ConfigurableApplicationContext context = BenchmarkSupport.startContext("merchbench",
+                "aggregates.spending.backfill-on-startup=false")) {
+            DataSource dataSource = context.getBean(DataSource.class);
+            new BenchmarkDataSeeder(dataSource).seed(users, transactionCount);
+            MerchantSuggestionService service = context.getBean(MerchantSuggestionService.class);
+            long start = System.currentTimeMillis();
+            service.build();
+            System.out.printf("Built indexes over %d transactions in %d ms%n", transactionCount,
+                    System.currentTimeMillis() - start);
+
+            JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+            String email = BenchmarkDataSeeder.email(1);
+            List<List<String>> rows = new ArrayList<>();
+            for (String prefix : List.of("m", "merchant 1", "merchant 12", "merchant 123")) {
+                BenchmarkSupport.Timing sql = BenchmarkSupport.time(5, Math.min(iterations, 20), () ->
+                        jdbc.queryForList("SELECT t.merchant_name, COUNT(*) AS c FROM transactions t"
+                                + " JOIN card c ON c.card_id = t.card_id JOIN user_profiles u ON u.user_id = c.user_id"
+                                + " WHERE u.email = ? AND LOWER(t.merchant_name) LIKE ? GROUP BY t.merchant_name"
+                                + " ORDER BY c DESC, t.merchant_name LIMIT 10", email, prefix + "%"));
+                BenchmarkSupport.Timing indexed = BenchmarkSupport.time(1_000, iterations * 50,
+                        () -> service.suggest(prefix, 10, email));
+                rows.add(List.of("'" + prefix + "'", BenchmarkSupport.format(sql.meanMicros()),
+                        BenchmarkSupport.format(indexed.meanMicros()), BenchmarkSupport.format(indexed.p95Micros())));
+            }
+            BenchmarkSupport.printTable(List.of("prefix", "LIKE query mean us", "index mean us", "index p95 us"), rows);
+        }
+
+        syntheticVocabulary(vocabulary, iterations);
+    }
+
+    private static void syntheticVocabulary(int vocabulary, int iterations) {
+        SplittableRandom random = new SplittableRandom(5);
+        Map<String, Long> counts = new HashMap<>();
+        List<String> names = new ArrayList<>(vocabulary);
+        for (int i = 0; i < vocabulary; i++) {
+            StringBuilder name = new StringBuilder();
+            int syllables = 2 + random.nextInt(3);
+            for (int s = 0; s < syllables; s++) {
+                name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            }
+            name.append(' ').append(i);
+            // heavy-tailed popularity, like real merchant traffic
+            names.add(Character.toUpperCase(name.charAt(0)) + name.substring(1));
+            counts.put(names.get(i), 1 + (long) (1_000_000 / Math.pow(1 + random.nextInt(vocabulary), 0.8)));
+        }
+
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long heapBefore = runtime.totalMemory() - runtime.freeMemory();
+        long start = System.currentTimeMillis();
+        MerchantPrefixIndex index = MerchantPrefixIndex.build(20, counts);
+        long buildMs = System.currentTimeMillis() - start;
+        System.gc();
+        long heapMb = (runtime.totalMemory() - runtime.freeMemory() - heapBefore) / (1024 * 1024);
+        System.out.printf("Synthetic index: %d names built in %d ms, ~%d MB heap%n", index.size(), buildMs, heapMb);
+
+        List<List<String>> rows = new ArrayList<>();
+        for (String prefix : List.of("k", "ka", "kal", "kalo", "kalomi")) {
+            BenchmarkSupport.Timing timing = BenchmarkSupport.time(1_000, iterations * 50, () -> index.suggest(prefix, 10));
+            rows.add(List.of("'" + prefix + "'", BenchmarkSupport.format(timing.meanMicros()),
+                    BenchmarkSupport.format(timing.p95Micros())));
+        }
+        BenchmarkSupport.Timing add = BenchmarkSupport.time(1_000, iterations * 50,
+                () -> { index.add(names.get(random.nextInt(vocabulary)), 1); return null; });
+        rows.add(List.of("add (new transaction)", BenchmarkSupport.format(add.meanMicros()),
+                BenchmarkSupport.format(add.p95Micros())));
+        BenchmarkSupport.printTable(List.of("top-10 lookup", "mean us", "p95 us"), rows);
+
+        verify(random);
+    }
+
+    // Random adds and removes on a small vocabulary, compared with a brute-force ranking after each step
+    private static void verify(SplittableRandom random) {
+        MerchantPrefixIndex index = new MerchantPrefixIndex(5);
+        Map<String, Long> expected = new HashMap<>();
+        String[] names = new String[300];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = SYLLABLES[random.nextInt(8)] + SYLLABLES[random.nextInt(8)] + (i % 7 == 0 ? "" : " " + i);
+        }
+        for (int step = 0; step < 20_000; step++) {
+            String name = names[random.nextInt(names.length)];
+            if (random.nextInt(4) == 0) {
+                index.remove(name, 1);
+                expected.computeIfPresent(name, (n, c) -> c > 1 ? c - 1 : null);
+            } else {
+                index.add(name, 1);
+                expected.merge(name, 1L, Long::sum);
+            }
+            String prefix = name.substring(0, 1 + random.nextInt(Math.min(4, name.length())));
+            List<String> actual = index.suggest(prefix, 5);
+            List<String> brute = expected.entrySet().stream()
+                    .filter(e -> e.getKey().toLowerCase(Locale.ROOT).startsWith(prefix))
+                    .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder())
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .limit(5).map(Map.Entry::getKey).collect(Collectors.toList());
+            if (!actual.equals(brute)) {
+                throw new IllegalStateException("Prefix '" + prefix + "' at step " + step + ": " + actual + " vs " + brute);
+            }
+        }
+        System.out.println("Index rankings match brute force after 20000 random adds/removes");
+    }
+}
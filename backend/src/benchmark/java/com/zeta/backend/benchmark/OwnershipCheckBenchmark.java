@@ -0,0 +1,168 @@
+package com.zeta.backend.benchmark;
+
+import com.zeta.backend.model.BNPLInstallment;
+import com.zeta.backend.repository.BNPLInstallmentRepository;
+import com.zeta.backend.repository.CardRepository;
+import com.zeta.backend.repository.TransactionRepository;
+import com.zeta.backend.service.implementation.OwnershipService;
+import com.zeta.backend.util.SqlStatementCounter;
+import jakarta.persistence.EntityManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.BiFunction;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
+
+/**
+ * Ownership checks of cards, transactions and installments: walking the entity graph up to the
+ * card's user, as the services did, against OwnershipService with warm caches and with empty
+ * ones (a new instance per check). Checks run on random ids, a few of them missing, half by the
+ * owner and half by another user; the installment check includes loading the installment, as the
+ * payment does. Reports latency and SQL statements per check.
+ *
+ * Every check must reach the same decision (owner, other user, not found) on both paths.
+ *
+ * mvn -Pbenchmark compile exec:java -Dbenchmark.mainClass=com.zeta.backend.benchmark.OwnershipCheckBenchmark
+ */
+public class OwnershipCheckBenchmark {
+
+    private record Check(long id, String email) {
+    }
+
+    // Decision of a check: true owner, false another user's, null not found
+    private interface Path extends BiFunction<Long, String, Boolean> {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int users = BenchmarkSupport.intProperty("bench.users", 10_000);
+        int transactionCount = BenchmarkSupport.intProperty("bench.transactions", 100_000);
+        int iterations = BenchmarkSupport.intProperty("bench.iterations", 5_000);
+
+        try (ConfigurableApplicationContext context = BenchmarkSupport.startContext("ownershipbench",
+                "aggregates.spending.backfill-on-startup=false",
+                "latefees.accrual.on-startup=false")) {
+            DataSource dataSource = context.getBean(DataSource.class);
+            BenchmarkDataSeeder seeder = new BenchmarkDataSeeder(dataSource);
+            seeder.seed(users, transactionCount);
+            JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+            CardRepository cards = context.getBean(CardRepository.class);
+            TransactionRepository transactions = context.getBean(TransactionRepository.class);
+            BNPLInstallmentRepository installments = context.getBean(BNPLInstallmentRepository.class);
+            OwnershipService ownership = context.getBean(OwnershipService.class);
+            TransactionTemplate template = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+            template.setReadOnly(true);
+            EntityManager entityManager = context.getBean(EntityManager.class);
+
+            SplittableRandom random = new SplittableRandom(11);
+            Map<String, List<Check>> checks = new LinkedHashMap<>();
+            checks.put("card", checks(random, seeder, iterations, seeder.getCards(), id -> id));
+            checks.put("transaction", checks(random, seeder, iterations, seeder.getTransactions(),
+                    id -> jdbc.queryForObject("SELECT card_id FROM transactions WHERE id = ?", Long.class, id)));
+            checks.put("installment", checks(random, seeder, iterations, seeder.getInstallments(),
+                    id -> jdbc.queryForObject("SELECT t.card_id FROM bnpl_installments b"
+                            + " JOIN transactions t ON t.id = b.transaction_id WHERE b.id = ?", Long.class, id)));
+
+            Map<String, Path> graphWalks = Map.of(
+                    "card", (id, email) -> cards.findById(id)
+                            .map(card -> card.getUser().getEmail().equals(email)).orElse(null),
+                    "transaction", (id, email) -> transactions.findById(id)
+                            .map(transaction -> transaction.getCard().getUser().getEmail().equals(email)).orElse(null),
+                    "installment", (id, email) -> installments.findById(id)
+                            .map(installment -> installment.getTransaction().getCard().getUser().getEmail().equals(email))
+                            .orElse(null));
+
+            List<List<String>> rows = new ArrayList<>();
+            for (Map.Entry<String, List<Check>> kind : checks.entrySet()) {
+                Path graphWalk = graphWalks.get(kind.getKey());
+                Path warm = scalarPath(kind.getKey(), () -> ownership, installments);
+                Path cold = scalarPath(kind.getKey(), () -> new OwnershipService(cards, transactions, installments),
+                        installments);
+                verify(kind.getKey(), kind.getValue(), template, graphWalk, warm, cold);
+                rows.add(measure(kind.getKey(), "entity graph walk", kind.getValue(), template, entityManager, graphWalk));
+                rows.add(measure(kind.getKey(), "OwnershipService, cold", kind.getValue(), template, entityManager, cold));
+                rows.add(measure(kind.getKey(), "OwnershipService, warm", kind.getValue(), template, entityManager, warm));
+            }
+            BenchmarkSupport.printTable(List.of("check", "path", "mean us", "p95 us", "SQL statements/check"), rows);
+        }
+    }
+
+    // The checks as the services now make them
+    private static Path scalarPath(String kind, Supplier<OwnershipService> service,
+                                   BNPLInstallmentRepository installments) {
+        return switch (kind) {
+            case "card" -> (id, email) -> {
+                OwnershipService ownership = service.get();
+                return ownership.ownsCard(id, email) ? Boolean.TRUE : ownership.cardExists(id) ? Boolean.FALSE : null;
+            };
+            case "transaction" -> (id, email) -> {
+                OwnershipService ownership = service.get();
+                return ownership.transactionCardId(id).map(cardId -> ownership.ownsCard(cardId, email)).orElse(null);
+            };
+            default -> (id, email) -> {
+                OwnershipService ownership = service.get();
+                return installments.findById(id).map(BNPLInstallment::getTransaction)
+                        .flatMap(transaction -> ownership.transactionCardId(transaction.getId()))
+                        .map(cardId -> ownership.ownsCard(cardId, email)).orElse(null);
+            };
+        };
+    }
+
+    // Random ids up to 1% past the last one, checked by the owner or by a random user
+    private static List<Check> checks(SplittableRandom random, BenchmarkDataSeeder seeder, int count, int maxId,
+                                      LongFunction<Long> cardOf) {
+        List<Check> checks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long id = 1 + random.nextInt(maxId + maxId / 100);
+            long user = id <= maxId && random.nextBoolean()
+                    ? (cardOf.apply(id) + 1) / 2
+                    : 1 + random.nextInt(seeder.getUsers());
+            checks.add(new Check(id, BenchmarkDataSeeder.email(user)));
+        }
+        return checks;
+    }
+
+    private static void verify(String kind, List<Check> checks, TransactionTemplate template, Path... paths) {
+        int owner = 0;
+        int missing = 0;
+        for (Check check : checks) {
+            Boolean expected = template.execute(status -> paths[0].apply(check.id(), check.email()));
+            for (int p = 1; p < paths.length; p++) {
+                Path path = paths[p];
+                Boolean actual = template.execute(status -> path.apply(check.id(), check.email()));
+                if (expected == null ? actual != null : !expected.equals(actual)) {
+                    throw new IllegalStateException(kind + " " + check.id() + " by " + check.email()
+                            + ": graph walk " + expected + ", OwnershipService " + actual);
+                }
+            }
+            owner += Boolean.TRUE.equals(expected) ? 1 : 0;
+            missing += expected == null ? 1 : 0;
+        }
+        System.out.printf("%s checks: same decision on every path (%d owner, %d other user, %d not found)%n",
+                kind, owner, checks.size() - owner - missing, missing);
+    }
+
+    // Each check in its own read-only transaction with a cleared persistence context, as in a request
+    private static List<String> measure(String kind, String name, List<Check> checks, TransactionTemplate template,
+                                        EntityManager entityManager, Path path) {
+        int[] next = {0};
+        long statementsBefore = SqlStatementCounter.current();
+        BenchmarkSupport.Timing timing = BenchmarkSupport.time(0, checks.size(), () -> template.execute(status -> {
+            Check check = checks.get(next[0]++);
+            Boolean decision = path.apply(check.id(), check.email());
+            entityManager.clear();
+            return decision;
+        }));
+        double statements = (double) (SqlStatementCounter.current() - statementsBefore) / checks.size();
+        return List.of(kind, name, BenchmarkSupport.format(timing.meanMicros()),
+                BenchmarkSupport.format(timing.p95Micros()), BenchmarkSupport.format(statements));
+    }
+}
@@ -0,0 +1,117 @@
+package com.zeta.backend.benchmark;
+
+import com.zeta.backend.repository.BNPLInstallmentRepository;
+import com.zeta.backend.repository.CardRepository;
+import com.zeta.backend.repository.TransactionRepository;
+import com.zeta.backend.util.SqlStatementCounter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+
+/**
+ * Compares the list endpoints' former entity reads (managed entities with their EAGER
+ * Card / UserProfile / CardApplication graph) with the DTO constructor projections that
+ * replaced them. Per call it reports latency, SQL statements, entities Hibernate loaded,
+ * result rows and bytes allocated on the calling thread.
+ *
+ * mvn -Pbenchmark compile exec:java -Dbenchmark.mainClass=com.zeta.backend.benchmark.ProjectionBenchmark \
+ *     -Dbench.users=2000 -Dbench.transactions=100000
+ */
+public class ProjectionBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int users = BenchmarkSupport.intProperty("bench.users", 2_000);
+        int transactionCount = BenchmarkSupport.intProperty("bench.transactions", 100_000);
+        int iterations = BenchmarkSupport.intProperty("bench.iterations", 200);
+        int fullTableIterations = BenchmarkSupport.intProperty("bench.fullTableIterations", 5);
+
+        try (ConfigurableApplicationContext context = BenchmarkSupport.startContext("projbench",
+                "spring.jpa.properties.hibernate.generate_statistics=true",
+                "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN")) {
+            BenchmarkDataSeeder seeder = new BenchmarkDataSeeder(context.getBean(DataSource.class));
+            seeder.seed(users, transactionCount);
+            System.out.printf("Seeded %d users, %d cards, %d transactions, %d installments%n",
+                    seeder.getUsers(), seeder.getCards(), seeder.getTransactions(), seeder.getInstallments());
+
+            TransactionRepository transactions = context.getBean(TransactionRepository.class);
+            BNPLInstallmentRepository installments = context.getBean(BNPLInstallmentRepository.class);
+            CardRepository cards = context.getBean(CardRepository.class);
+            SplittableRandom random = new SplittableRandom(11);
+            Supplier<Long> cardId = () -> 1L + random.nextInt(seeder.getCards());
+            Supplier<Long> userId = () -> 1L + random.nextInt(seeder.getUsers());
+
+            Runner runner = new Runner(context);
+            List<List<String>> rows = new ArrayList<>();
+            rows.add(runner.measure("history by card", "entity", iterations,
+                    () -> transactions.findByCardId(cardId.get())));
+            rows.add(runner.measure("history by card", "projection", iterations,
+                    () -> transactions.findResponseDTOsByCardId(cardId.get())));
+            rows.add(runner.measure("all installments", "entity", fullTableIterations,
+                    installments::findAll));
+            rows.add(runner.measure("all installments", "projection", fullTableIterations,
+                    installments::findAllResponseDTOs));
+            rows.add(runner.measure("cards by user", "entity", iterations,
+                    () -> cards.findByApplicationUserUserId(userId.get())));
+            rows.add(runner.measure("cards by user", "projection", iterations,
+                    () -> cards.findCardDTOsByUserId(userId.get())));
+
+            BenchmarkSupport.printTable(List.of("endpoint read", "mode", "mean us", "p95 us",
+                    "SQL/call", "entities/call", "rows/call", "KB alloc/call"), rows);
+        }
+    }
+
+    private static final class Runner {
+
+        private final TransactionTemplate template;
+        private final EntityManager entityManager;
+        private final Statistics statistics;
+        private final com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        Runner(ConfigurableApplicationContext context) {
+            template = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+            template.setReadOnly(true);
+            entityManager = context.getBean(EntityManager.class);
+            statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+        }
+
+        // Each call runs in its own read-only transaction with a cleared persistence context
+        List<String> measure(String name, String mode, int iterations, Supplier<List<?>> query) {
+            Supplier<List<?>> call = () -> template.execute(status -> {
+                List<?> result = query.get();
+                entityManager.clear();
+                return result;
+            });
+            BenchmarkSupport.Timing timing = BenchmarkSupport.time(Math.min(iterations, 20), iterations, call);
+
+            // a separate pass for the counters, so bookkeeping stays out of the timings
+            statistics.clear();
+            long statements = SqlStatementCounter.current();
+            long allocated = threads.getCurrentThreadAllocatedBytes();
+            long resultRows = 0;
+            for (int i = 0; i < iterations; i++) {
+                resultRows += call.get().size();
+            }
+            allocated = threads.getCurrentThreadAllocatedBytes() - allocated;
+            statements = SqlStatementCounter.current() - statements;
+
+            return List.of(name, mode,
+                    BenchmarkSupport.format(timing.meanMicros()), BenchmarkSupport.format(timing.p95Micros()),
+                    BenchmarkSupport.format(statements / (double) iterations),
+                    BenchmarkSupport.format(statistics.getEntityLoadCount() / (double) iterations),
+                    BenchmarkSupport.format(resultRows / (double) iterations),
+                    BenchmarkSupport.format(allocated / 1024.0 / iterations));
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.zeta.backend.benchmark;
+
+import com.zeta.backend.dto.TransactionSearchCriteria;
+import com.zeta.backend.model.BNPLInstallment;
+import com.zeta.backend.model.Card;
+import com.zeta.backend.model.CardApplication;
+import com.zeta.backend.model.Transaction;
+import com.zeta.backend.repository.BNPLInstallmentRepository;
+import com.zeta.backend.repository.CardApplicationRepository;
+import com.zeta.backend.repository.CardRepository;
+import com.zeta.backend.repository.TransactionRepository;
+import com.zeta.backend.repository.TransactionSpecifications;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+
+/**
+ * Measures every finder in TransactionRepository, BNPLInstallmentRepository, CardRepository
+ * and CardApplicationRepository against a seeded database, first with the declared
+ * indexes dropped (only primary keys and H2's implicit foreign-key indexes remain) and
+ * then with them recreated from the entities' @Table(indexes = ...) definitions.
+ *
+ * mvn -Pbenchmark compile exec:java -Dbench.users=250000 -Dbench.transactions=2000000
+ */
+public class RepositoryQueryBenchmark {
+
+    private static final Class<?>[] INDEXED_ENTITIES = {
+            Transaction.class, BNPLInstallment.class, Card.class, CardApplication.class
+    };
+
+    public static void main(String[] args) throws Exception {
+        int users = BenchmarkSupport.intProperty("bench.users", 250_000);
+        int transactionCount = BenchmarkSupport.intProperty("bench.transactions", 2_000_000);
+        int iterations = BenchmarkSupport.intProperty("bench.iterations", 200);
+
+        try (ConfigurableApplicationContext context = BenchmarkSupport.startContext("repobench")) {
+            BenchmarkDataSeeder seeder = new BenchmarkDataSeeder(context.getBean(DataSource.class));
+            long seedStart = System.currentTimeMillis();
+            seeder.seed(users, transactionCount);
+            System.out.printf("Seeded %d users, %d cards, %d transactions, %d installments in %d ms%n",
+                    seeder.getUsers(), seeder.getCards(), seeder.getTransactions(), seeder.getInstallments(),
+                    System.currentTimeMillis() - seedStart);
+
+            JdbcTemplate jdbc = new JdbcTemplate(context.getBean(DataSource.class));
+            Map<String, Supplier<?>> queries = queries(context, seeder);
+
+            dropIndexes(jdbc);
+            jdbc.execute("ANALYZE");
+            Map<String, BenchmarkSupport.Timing> before = run(context, queries, iterations);
+
+            createIndexes(jdbc);
+            jdbc.execute("ANALYZE");
+            Map<String, BenchmarkSupport.Timing> after = run(context, queries, iterations);
+
+            List<List<String>> rows = new ArrayList<>();
+            for (String name : queries.keySet()) {
+                BenchmarkSupport.Timing b = before.get(name);
+                BenchmarkSupport.Timing a = after.get(name);
+                rows.add(List.of(name,
+                        BenchmarkSupport.format(b.meanMicros()), BenchmarkSupport.format(b.p95Micros()),
+                        BenchmarkSupport.format(a.meanMicros()), BenchmarkSupport.format(a.p95Micros()),
+                        BenchmarkSupport.format(b.meanMicros() / a.meanMicros()) + "x"));
+            }
+            BenchmarkSupport.printTable(
+                    List.of("query", "before mean us", "before p95 us", "after mean us", "after p95 us", "speedup"), rows);
+        }
+    }
+
+    private static Map<String, Supplier<?>> queries(ConfigurableApplicationContext context, BenchmarkDataSeeder seeder) {
+        TransactionRepository transactions = context.getBean(TransactionRepository.class);
+        BNPLInstallmentRepository installments = context.getBean(BNPLInstallmentRepository.class);
+        CardRepository cards = context.getBean(CardRepository.class);
+        CardApplicationRepository applications = context.getBean(CardApplicationRepository.class);
+        SplittableRandom random = new SplittableRandom(7);
+        LocalDate today = LocalDate.now();
+
+        Supplier<Long> cardId = () -> 1L + random.nextInt(seeder.getCards());
+        Supplier<Long> userId = () -> 1L + random.nextInt(seeder.getUsers());
+        // every fourth transaction is BNPL and owns installments
+        Supplier<Long> bnplTransactionId = () -> 4L * (1 + random.nextInt(seeder.getTransactions() / 4));
+
+        Map<String, Supplier<?>> queries = new LinkedHashMap<>();
+        queries.put("TransactionRepository.countByCardId", () -> transactions.countByCardId(cardId.get()));
+        queries.put("TransactionRepository.findByCardId", () -> transactions.findByCardId(cardId.get()));
+        queries.put("TransactionRepository.findByIsBNPLTrue", transactions::findByIsBNPLTrue);
+        // keyset history: the first page and a page ~600 days deep should cost the same
+        queries.put("TransactionRepository.findHistoryPage",
+                () -> transactions.findHistoryPage(cardId.get(), PageRequest.ofSize(51)));
+        queries.put("TransactionRepository.findHistoryPageAfter (deep)",
+                () -> transactions.findHistoryPageAfter(cardId.get(), today.minusDays(600), Long.MAX_VALUE,
+                        PageRequest.ofSize(51)));
+        // search endpoint shapes: category + date range, and amount range sorted by amount
+        Sort newestFirst = Sort.by(Sort.Direction.DESC, "transactionDate", "id");
+        queries.put("TransactionRepository.searchResponseDTOs (category, dates)",
+                () -> transactions.searchResponseDTOs(TransactionSpecifications.matching(cardId.get(),
+                        TransactionSearchCriteria.builder().category("Travel")
+                                .from(today.minusDays(180)).to(today).build()),
+                        PageRequest.of(0, 20, newestFirst)));
+        queries.put("TransactionRepository.searchResponseDTOs (amount range)",
+                () -> transactions.searchResponseDTOs(TransactionSpecifications.matching(cardId.get(),
+                        TransactionSearchCriteria.builder().minAmount(5_000.0).maxAmount(6_000.0).build()),
+                        PageRequest.of(0, 20, Sort.by("amount", "id"))));
+        queries.put("BNPLInstallmentRepository.findByTransactionId",
+                () -> installments.findByTransactionId(bnplTransactionId.get()));
+        queries.put("BNPLInstallmentRepository.getNextUnpaidInstallment",
+                () -> installments.getNextUnpaidInstallment(bnplTransactionId.get()));
+        queries.put("BNPLInstallmentRepository.findUnpaidByTransactionId",
+                () -> installments.findUnpaidByTransactionId(bnplTransactionId.get()));
+        queries.put("BNPLInstallmentRepository.findOverdueByCardId",
+                () -> installments.findOverdueByCardId(cardId.get(), today));
+        queries.put("BNPLInstallmentRepository.findByTransaction_IdAndIsPaidFalse",
+                () -> installments.findByTransaction_IdAndIsPaidFalse(bnplTransactionId.get()));
+        queries.put("BNPLInstallmentRepository.findByTransaction_Card_CardIdAndIsPaidFalseAndDueDateBefore",
+                () -> installments.findByTransaction_Card_CardIdAndIsPaidFalseAndDueDateBefore(cardId.get(), today));
+        queries.put("BNPLInstallmentRepository.findCardIdById",
+                () -> installments.findCardIdById(bnplTransactionId.get()));
+        queries.put("CardRepository.findByApplicationUserUserId", () -> cards.findByApplicationUserUserId(userId.get()));
+        queries.put("CardRepository.findCardIdsByOwnerEmail",
+                () -> cards.findCardIdsByOwnerEmail(BenchmarkDataSeeder.email(userId.get())));
+        queries.put("CardRepository.findByCardNumberAndCvvAndExpiryMonthAndExpiryYearAndUserEmail", () -> {
+            long id = cardId.get();
+            return cards.findByCardNumberAndCvvAndExpiryMonthAndExpiryYearAndUserEmail(
+                    BenchmarkDataSeeder.cardNumber(id), BenchmarkDataSeeder.cvv(id), "10", "31",
+                    BenchmarkDataSeeder.email((id + 1) / 2));
+        });
+        queries.put("CardApplicationRepository.existsByUserUserIdAndCardTypeAndRequestedLimit",
+                () -> applications.existsByUserUserIdAndCardTypeAndRequestedLimit(userId.get(), "VISA", 70_000.0));
+        queries.put("CardApplicationRepository.findByUserUserId", () -> applications.findByUserUserId(userId.get()));
+        return queries;
+    }
+
+    // Each call runs in its own read-only transaction with a cleared persistence context
+    private static Map<String, BenchmarkSupport.Timing> run(ConfigurableApplicationContext context,
+                                                           Map<String, Supplier<?>> queries, int iterations) {
+        TransactionTemplate template = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        template.setReadOnly(true);
+        EntityManager entityManager = context.getBean(EntityManager.class);
+
+        Map<String, BenchmarkSupport.Timing> results = new LinkedHashMap<>();
+        queries.forEach((name, query) -> {
+            // full-table loads are measured with a handful of runs only
+            int runs = name.endsWith("findByIsBNPLTrue") ? 3 : iterations;
+            results.put(name, BenchmarkSupport.time(Math.min(runs, 20), runs, () -> template.execute(status -> {
+                Object result = query.get();
+                entityManager.clear();
+                return result;
+            })));
+        });
+        return results;
+    }
+
+    /**
+     * H2 reuses a declared index for a foreign key whose column is its prefix, so foreign keys
+     * are dropped first and recreated afterwards; H2 then backs them with its own implicit
+     * indexes, which is exactly the schema the application had before indexes were declared.
+     */
+    private static void dropIndexes(JdbcTemplate jdbc) {
+        List<Map<String, Object>> foreignKeys = jdbc.queryForList("""
+                SELECT tc.TABLE_NAME, tc.CONSTRAINT_NAME, fk.COLUMN_NAME,
+                       pk.TABLE_NAME AS REF_TABLE, pk.COLUMN_NAME AS REF_COLUMN
+                FROM INFORMATION_SCHEMA.TABLE_CONSTRAINTS tc
+                JOIN INFORMATION_SCHEMA.KEY_COLUMN_USAGE fk ON fk.CONSTRAINT_NAME = tc.CONSTRAINT_NAME
+                JOIN INFORMATION_SCHEMA.REFERENTIAL_CONSTRAINTS rc ON rc.CONSTRAINT_NAME = tc.CONSTRAINT_NAME
+                JOIN INFORMATION_SCHEMA.KEY_COLUMN_USAGE pk ON pk.CONSTRAINT_NAME = rc.UNIQUE_CONSTRAINT_NAME
+                WHERE tc.CONSTRAINT_TYPE = 'FOREIGN KEY' AND tc.TABLE_SCHEMA = 'PUBLIC'
+                """);
+        foreignKeys.forEach(fk -> jdbc.execute("ALTER TABLE " + fk.get("TABLE_NAME")
+                + " DROP CONSTRAINT " + fk.get("CONSTRAINT_NAME")));
+
+        for (Class<?> entity : INDEXED_ENTITIES) {
+            for (Index index : entity.getAnnotation(Table.class).indexes()) {
+                jdbc.execute("DROP INDEX IF EXISTS " + index.name());
+            }
+        }
+
+        foreignKeys.forEach(fk -> jdbc.execute("ALTER TABLE " + fk.get("TABLE_NAME")
+                + " ADD CONSTRAINT " + fk.get("CONSTRAINT_NAME")
+                + " FOREIGN KEY (" + fk.get("COLUMN_NAME") + ") REFERENCES "
+                + fk.get("REF_TABLE") + " (" + fk.get("REF_COLUMN") + ")"));
+    }
+
+    private static void createIndexes(JdbcTemplate jdbc) {
+        for (Class<?> entity : INDEXED_ENTITIES) {
+            Table table = entity.getAnnotation(Table.class);
+            for (Index index : table.indexes()) {
+                jdbc.execute("CREATE INDEX " + index.name() + " ON " + table.name() + " (" + index.columnList() + ")");
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.zeta.backend.benchmark;
+
+import com.zeta.backend.repository.BNPLInstallmentRepository;
+import com.zeta.backend.repository.TransactionRepository;
+import com.zeta.backend.service.implementation.CardSpendingRebuildJob;
+import com.zeta.backend.service.implementation.CardSpendingService;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+
+/**
+ * Backfills the per-card spending aggregates of a seeded database with CardSpendingRebuildJob,
+ * checks the aggregated counts against a recount, and compares reading a card's totals from
+ * the aggregate rows with recomputing them from the transactions and installments tables.
+ *
+ * mvn -Pbenchmark compile exec:java -Dbenchmark.mainClass=com.zeta.backend.benchmark.SpendingSummaryBenchmark
+ */
+public class SpendingSummaryBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int users = BenchmarkSupport.intProperty("bench.users", 2_000);
+        int transactionCount = BenchmarkSupport.intProperty("bench.transactions", 400_000);
+        int iterations = BenchmarkSupport.intProperty("bench.iterations", 300);
+
+        try (ConfigurableApplicationContext context = BenchmarkSupport.startContext("spendbench")) {
+            BenchmarkDataSeeder seeder = new BenchmarkDataSeeder(context.getBean(DataSource.class));
+            seeder.seed(users, transactionCount);
+            System.out.printf("Seeded %d cards, %d transactions (%d per card), %d installments%n",
+                    seeder.getCards(), seeder.getTransactions(), seeder.getTransactions() / seeder.getCards(),
+                    seeder.getInstallments());
+
+            CardSpendingService spending = context.getBean(CardSpendingService.class);
+            TransactionRepository transactions = context.getBean(TransactionRepository.class);
+            BNPLInstallmentRepository installments = context.getBean(BNPLInstallmentRepository.class);
+
+            long start = System.currentTimeMillis();
+            int rebuilt = context.getBean(CardSpendingRebuildJob.class).backfillMissing();
+            System.out.printf("Backfilled %d cards in %d ms%n", rebuilt, System.currentTimeMillis() - start);
+
+            TransactionTemplate template = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+            template.setReadOnly(true);
+            SplittableRandom random = new SplittableRandom(3);
+            Supplier<Long> cardId = () -> 1L + random.nextInt(seeder.getCards());
+
+            // the aggregate must agree with a recount for every sampled card
+            for (int i = 0; i < 200; i++) {
+                long id = cardId.get();
+                long counted = transactions.countByCardId(id);
+                long aggregated = spending.getTransactionCount(id);
+                if (counted != aggregated) {
+                    throw new IllegalStateException("Card " + id + ": counted " + counted + ", aggregated " + aggregated);
+                }
+            }
+
+            BenchmarkSupport.Timing raw = BenchmarkSupport.time(50, iterations, () -> template.execute(status -> {
+                long id = cardId.get();
+                return List.of(transactions.countByCardId(id), transactions.sumSpendByCategory(id),
+                        transactions.sumSpendByMonth(id), installments.sumUnpaidAmountByCardId(id));
+            }));
+            BenchmarkSupport.Timing aggregate = BenchmarkSupport.time(50, iterations, () -> template.execute(status -> {
+                long id = cardId.get();
+                return spending.getSpendingSummary(id, BenchmarkDataSeeder.email((id + 1) / 2));
+            }));
+
+            List<List<String>> rows = new ArrayList<>();
+            rows.add(List.of("recompute from rows", BenchmarkSupport.format(raw.meanMicros()),
+                    BenchmarkSupport.format(raw.p95Micros())));
+            rows.add(List.of("aggregate rows", BenchmarkSupport.format(aggregate.meanMicros()),
+                    BenchmarkSupport.format(aggregate.p95Micros())));
+            BenchmarkSupport.printTable(List.of("card totals", "mean us", "p95 us"), rows);
+        }
+    }
+}
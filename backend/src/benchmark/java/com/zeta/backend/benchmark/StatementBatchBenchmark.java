@@ -0,0 +1,110 @@
+package com.zeta.backend.benchmark;
+
+import com.zeta.backend.repository.CardRepository;
+import com.zeta.backend.repository.StatementChunkRepository;
+import com.zeta.backend.repository.StatementRunRepository;
+import com.zeta.backend.service.implementation.StatementBatchJob;
+import com.zeta.backend.service.implementation.StatementService;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs the monthly statement batch for last month over a seeded database at several
+ * parallelism levels, checks a sample of statements against direct SQL, then deletes every
+ * other chunk (as if the run had died part way) and checks that a restart writes exactly
+ * the missing statements.
+ *
+ * MAVEN_OPTS=-Xmx4g mvn -Pbenchmark compile exec:java \
+ *     -Dbenchmark.mainClass=com.zeta.backend.benchmark.StatementBatchBenchmark -Dbench.users=500000
+ */
+public class StatementBatchBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int users = BenchmarkSupport.intProperty("bench.users", 100_000);
+        int transactionCount = BenchmarkSupport.intProperty("bench.transactions", 1_000_000);
+        int chunkSize = BenchmarkSupport.intProperty("bench.chunkSize", 500);
+        int maxParallelism = BenchmarkSupport.intProperty("bench.parallelism", 4);
+
+        try (ConfigurableApplicationContext context = BenchmarkSupport.startContext("stmtbench",
+                "aggregates.spending.backfill-on-startup=false")) {
+            DataSource dataSource = context.getBean(DataSource.class);
+            BenchmarkDataSeeder seeder = new BenchmarkDataSeeder(dataSource);
+            seeder.seed(users, transactionCount);
+            System.out.printf("Seeded %d cards, %d transactions, %d installments; %d available processors%n",
+                    seeder.getCards(), seeder.getTransactions(), seeder.getInstallments(),
+                    Runtime.getRuntime().availableProcessors());
+
+            JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+            YearMonth month = YearMonth.now().minusMonths(1);
+
+            List<List<String>> rows = new ArrayList<>();
+            for (int parallelism = 1; parallelism <= maxParallelism; parallelism *= 2) {
+                jdbc.execute("DELETE FROM card_statements");
+                jdbc.execute("DELETE FROM statement_chunks");
+                jdbc.execute("DELETE FROM statement_runs");
+                StatementBatchJob job = job(context, chunkSize, parallelism);
+
+                long start = System.nanoTime();
+                long written = job.generate(month);
+                double seconds = (System.nanoTime() - start) / 1e9;
+                if (written != seeder.getCards()) {
+                    throw new IllegalStateException("Wrote " + written + " statements for " + seeder.getCards() + " cards");
+                }
+                rows.add(List.of(String.valueOf(parallelism), BenchmarkSupport.format(seconds),
+                        BenchmarkSupport.format(written / seconds),
+                        BenchmarkSupport.format(1_000_000 / (written / seconds) / 60)));
+            }
+            BenchmarkSupport.printTable(List.of("parallelism", "seconds", "cards/s", "projected min per 1M cards"), rows);
+
+            verifySample(jdbc, month, seeder.getCards());
+
+            // simulate a run that died after committing only the even chunks
+            int deleted = jdbc.update("DELETE FROM card_statements WHERE MOD((card_id - 1) / ?, 2) = 1", chunkSize);
+            jdbc.update("DELETE FROM statement_chunks WHERE MOD(chunk_index, 2) = 1");
+            jdbc.update("UPDATE statement_runs SET completed_at = NULL");
+            long start = System.nanoTime();
+            long rewritten = job(context, chunkSize, maxParallelism).generate(month);
+            long total = jdbc.queryForObject("SELECT COUNT(*) FROM card_statements", Long.class);
+            System.out.printf("Restart after losing %d statements: wrote %d in %.2f s, %d statements in total%n",
+                    deleted, rewritten, (System.nanoTime() - start) / 1e9, total);
+            if (rewritten != deleted || total != seeder.getCards()) {
+                throw new IllegalStateException("Restart did not resume from the completed chunks");
+            }
+        }
+    }
+
+    private static StatementBatchJob job(ConfigurableApplicationContext context, int chunkSize, int parallelism) {
+        return new StatementBatchJob(context.getBean(StatementService.class),
+                context.getBean(StatementRunRepository.class), context.getBean(StatementChunkRepository.class),
+                context.getBean(CardRepository.class), chunkSize, parallelism);
+    }
+
+    // Period spend and installments due of sampled cards must match a direct per-card query
+    private static void verifySample(JdbcTemplate jdbc, YearMonth month, int cards) {
+        for (long cardId = 1; cardId <= cards; cardId += Math.max(1, cards / 200)) {
+            Map<String, Object> statement = jdbc.queryForMap(
+                    "SELECT transaction_count, total_spend, installments_due_count FROM card_statements"
+                            + " WHERE card_id = ? AND period_start = ?", cardId, month.atDay(1));
+            Map<String, Object> expected = jdbc.queryForMap(
+                    "SELECT COUNT(*) AS c, COALESCE(SUM(amount), 0) AS s FROM transactions"
+                            + " WHERE card_id = ? AND transaction_date BETWEEN ? AND ?",
+                    cardId, month.atDay(1), month.atEndOfMonth());
+            long due = jdbc.queryForObject("SELECT COUNT(*) FROM bnpl_installments b JOIN transactions t"
+                            + " ON t.id = b.transaction_id WHERE t.card_id = ? AND b.due_date BETWEEN ? AND ?",
+                    Long.class, cardId, month.atDay(1), month.atEndOfMonth());
+            if (((Number) statement.get("TRANSACTION_COUNT")).longValue() != ((Number) expected.get("C")).longValue()
+                    || Math.abs(((Number) statement.get("TOTAL_SPEND")).doubleValue()
+                    - ((Number) expected.get("S")).doubleValue()) > 0.01
+                    || ((Number) statement.get("INSTALLMENTS_DUE_COUNT")).longValue() != due) {
+                throw new IllegalStateException("Statement of card " + cardId + " differs: " + statement + " vs " + expected);
+            }
+        }
+        System.out.println("Sampled statements match direct queries");
+    }
+}
@@ -0,0 +1,172 @@
+package com.zeta.backend.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zeta.backend.service.IBNPLPaymentService;
+import com.zeta.backend.service.ITransactionService;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import javax.sql.DataSource;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * List responses built as a List and serialized by Jackson in one go against the streamed
+ * JSON array writer, for all transactions and all installments: time to first byte, total
+ * time, and the live heap while the response is being written (sampled with a class histogram
+ * at the first byte and every few MB). Bodies go through an 8 KB buffer, as Tomcat's response buffer
+ * would, into a sink that discards them. Also checks both paths write identical bytes.
+ * H2 runs with lazy query execution so the heap figures are those of the application.
+ *
+ * MAVEN_OPTS=-Xmx2g mvn -Pbenchmark compile exec:java -Dbenchmark.mainClass=com.zeta.backend.benchmark.StreamingJsonBenchmark
+ */
+public class StreamingJsonBenchmark {
+
+    private static final int RESPONSE_BUFFER = 8 * 1024;
+    private static final long HEAP_SAMPLE_BYTES = 2L * 1024 * 1024;
+    private static final Pattern HISTOGRAM_TOTAL = Pattern.compile("Total\\s+\\d+\\s+(\\d+)");
+
+    public static void main(String[] args) throws Exception {
+        int users = BenchmarkSupport.intProperty("bench.users", 10_000);
+        int transactionCount = BenchmarkSupport.intProperty("bench.transactions", 100_000);
+        int iterations = BenchmarkSupport.intProperty("bench.iterations", 5);
+
+        // lazy execution makes H2 fetch rows as the cursor advances, like a database server, instead of
+        // materializing the whole result in this heap before the first row is returned
+        try (ConfigurableApplicationContext context = BenchmarkSupport.startContext("streamingbench",
+                "aggregates.spending.backfill-on-startup=false",
+                "spring.datasource.hikari.connection-init-sql=SET LAZY_QUERY_EXECUTION TRUE")) {
+            BenchmarkDataSeeder seeder = new BenchmarkDataSeeder(context.getBean(DataSource.class));
+            seeder.seed(users, transactionCount);
+            ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+            ITransactionService transactionService = context.getBean(ITransactionService.class);
+            IBNPLPaymentService bnplPaymentService = context.getBean(IBNPLPaymentService.class);
+
+            List<List<String>> rows = new ArrayList<>();
+            rows.addAll(compare("all transactions (" + seeder.getTransactions() + ")", iterations,
+                    out -> objectMapper.writeValue(out, transactionService.getAllTransactions()),
+                    transactionService::streamAllTransactions));
+            rows.addAll(compare("all installments (" + seeder.getInstallments() + ")", iterations,
+                    out -> objectMapper.writeValue(out, bnplPaymentService.getAllInstallments()),
+                    bnplPaymentService::streamAllInstallments));
+            BenchmarkSupport.printTable(List.of("response", "path", "body MB", "first byte ms", "total ms",
+                    "live heap MB"), rows);
+            System.out.println("List and streamed bodies are identical");
+        }
+    }
+
+    private static List<List<String>> compare(String name, int iterations, StreamingResponseBody listBody,
+                                              Supplier<StreamingResponseBody> streamedBody) throws IOException {
+        double megabytes = verify(name, listBody, streamedBody.get()) / (1024.0 * 1024.0);
+        return List.of(
+                measure(name, "List + writeValue", megabytes, iterations, () -> listBody),
+                measure(name, "streamed array", megabytes, iterations, streamedBody));
+    }
+
+    // Size of the body; kept apart so the compared copies are unreachable when the heap is sampled
+    private static int verify(String name, StreamingResponseBody listBody, StreamingResponseBody streamedBody)
+            throws IOException {
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        listBody.writeTo(expected);
+        ByteArrayOutputStream actual = new ByteArrayOutputStream();
+        streamedBody.writeTo(actual);
+        if (!Arrays.equals(expected.toByteArray(), actual.toByteArray())) {
+            throw new IllegalStateException(name + ": streamed body differs from the List body");
+        }
+        return expected.size();
+    }
+
+    private static List<String> measure(String name, String path, double megabytes, int iterations,
+                                        Supplier<StreamingResponseBody> body) throws IOException {
+        double firstByte = 0;
+        double total = 0;
+        for (int i = 0; i < iterations + 1; i++) {
+            Sink sink = new Sink(false);
+            long start = System.nanoTime();
+            write(body.get(), sink);
+            long end = System.nanoTime();
+            if (i > 0) { // first run is warm-up
+                firstByte += (sink.firstByteNanos - start) / 1e6;
+                total += (end - start) / 1e6;
+            }
+        }
+
+        // whatever the database layer keeps between requests is not part of a response's footprint,
+        // so the baseline is the smaller of the heap before and after the sampled response
+        long before = liveHeap();
+        Sink sampling = new Sink(true);
+        write(body.get(), sampling);
+        long baseline = Math.min(before, liveHeap());
+
+        return List.of(name, path, BenchmarkSupport.format(megabytes),
+                BenchmarkSupport.format(firstByte / iterations), BenchmarkSupport.format(total / iterations),
+                BenchmarkSupport.format(Math.max(0, sampling.peak - baseline) / (1024.0 * 1024.0)));
+    }
+
+    private static void write(StreamingResponseBody body, Sink sink) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(sink, RESPONSE_BUFFER)) {
+            body.writeTo(out);
+        }
+    }
+
+    // Bytes of reachable objects, from a class histogram (which runs a full GC first); used-heap
+    // figures drift by whole G1 regions. Finalizable garbage of earlier runs is released beforehand.
+    @SuppressWarnings("removal")
+    private static long liveHeap() {
+        System.gc();
+        System.runFinalization();
+        try {
+            String histogram = (String) ManagementFactory.getPlatformMBeanServer().invoke(
+                    new ObjectName("com.sun.management:type=DiagnosticCommand"), "gcClassHistogram",
+                    new Object[]{null}, new String[]{String[].class.getName()});
+            Matcher total = HISTOGRAM_TOTAL.matcher(histogram);
+            if (!total.find()) {
+                throw new IllegalStateException("No total in class histogram");
+            }
+            return Long.parseLong(total.group(1));
+        } catch (JMException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Discards the body, noting when the first byte arrives and optionally sampling the live heap
+    private static final class Sink extends OutputStream {
+        private final boolean sampleHeap;
+        private long firstByteNanos;
+        private long written;
+        private long nextSample;
+        private long peak;
+
+        private Sink(boolean sampleHeap) {
+            this.sampleHeap = sampleHeap;
+        }
+
+        @Override
+        public void write(int b) {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            if (written == 0) {
+                firstByteNanos = System.nanoTime();
+            }
+            if (sampleHeap && written >= nextSample) {
+                peak = Math.max(peak, liveHeap());
+                nextSample += HEAP_SAMPLE_BYTES;
+            }
+            written += len;
+        }
+    }
+}
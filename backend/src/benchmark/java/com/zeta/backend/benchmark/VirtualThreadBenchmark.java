@@ -0,0 +1,171 @@
+package com.zeta.backend.benchmark;
+
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compares throughput and tail latency of POST /api/transactions and POST /api/profile/login
+ * with Tomcat on its platform thread pool and with spring.threads.virtual.enabled=true.
+ * Each mode gets a fresh application context and database; a fixed number of client
+ * threads issue requests back to back for the configured duration.
+ *
+ * Virtual threads need a Java 21 runtime, so run Maven itself on JDK 21:
+ * JAVA_HOME=/path/to/jdk21 mvn -Pbenchmark compile exec:java \
+ *     -Dbenchmark.mainClass=com.zeta.backend.benchmark.VirtualThreadBenchmark -Dbench.concurrency=400
+ */
+public class VirtualThreadBenchmark {
+
+    private static final String PASSWORD = "bench-password";
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+
+    public static void main(String[] args) throws Exception {
+        int users = BenchmarkSupport.intProperty("bench.users", 200);
+        int concurrency = BenchmarkSupport.intProperty("bench.concurrency", 400);
+        int seconds = BenchmarkSupport.intProperty("bench.seconds", 20);
+        int warmupSeconds = BenchmarkSupport.intProperty("bench.warmupSeconds", 5);
+
+        if (Runtime.version().feature() < 21) {
+            System.out.println("WARNING: running on Java " + Runtime.version().feature()
+                    + "; the virtual mode falls back to platform threads below Java 21");
+        }
+
+        List<List<String>> rows = new ArrayList<>();
+        for (boolean virtual : new boolean[]{false, true}) {
+            String mode = virtual ? "virtual" : "platform";
+            try (ConfigurableApplicationContext context = BenchmarkSupport.startContext("vtbench_" + mode,
+                    "spring.threads.virtual.enabled=" + virtual)) {
+                DataSource dataSource = context.getBean(DataSource.class);
+                new BenchmarkDataSeeder(dataSource).seed(users, 0);
+                new JdbcTemplate(dataSource).update("UPDATE user_profiles SET password = ?",
+                        new BCryptPasswordEncoder().encode(PASSWORD));
+
+                String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+                HttpClient client = HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_1_1)
+                        .connectTimeout(Duration.ofSeconds(10))
+                        .build();
+
+                String[] tokens = new String[users + 1];
+                for (int u = 1; u <= users; u++) {
+                    tokens[u] = login(client, baseUrl, u);
+                }
+
+                IntFunction<HttpRequest> transaction = seed -> {
+                    long cardId = 1 + Math.floorMod(seed, users * 2);
+                    long userId = (cardId + 1) / 2;
+                    String body = "{\"cardNumber\":\"" + BenchmarkDataSeeder.cardNumber(cardId)
+                            + "\",\"cvv\":\"" + BenchmarkDataSeeder.cvv(cardId)
+                            + "\",\"expiryMonth\":\"10\",\"expiryYear\":\"31\",\"amount\":1.0"
+                            + ",\"category\":\"Food\",\"merchantName\":\"Bench Store\"}";
+                    return HttpRequest.newBuilder(URI.create(baseUrl + "/api/transactions"))
+                            .header("Content-Type", "application/json")
+                            .header("Authorization", "Bearer " + tokens[(int) userId])
+                            .POST(HttpRequest.BodyPublishers.ofString(body))
+                            .build();
+                };
+                IntFunction<HttpRequest> login = seed -> loginRequest(baseUrl, 1 + Math.floorMod(seed, users));
+
+                for (String endpoint : List.of("POST /api/transactions", "POST /api/profile/login")) {
+                    IntFunction<HttpRequest> requests = endpoint.contains("login") ? login : transaction;
+                    load(client, requests, concurrency, warmupSeconds);
+                    LoadResult result = load(client, requests, concurrency, seconds);
+                    rows.add(List.of(endpoint, mode, String.valueOf(concurrency),
+                            BenchmarkSupport.format(result.throughput()),
+                            BenchmarkSupport.format(result.p50Millis()),
+                            BenchmarkSupport.format(result.p99Millis()),
+                            String.valueOf(result.errors())));
+                }
+            }
+        }
+        BenchmarkSupport.printTable(
+                List.of("endpoint", "mode", "clients", "req/s", "p50 ms", "p99 ms", "errors"), rows);
+    }
+
+    private static String login(HttpClient client, String baseUrl, long userId) throws Exception {
+        HttpResponse<String> response = client.send(loginRequest(baseUrl, userId), HttpResponse.BodyHandlers.ofString());
+        Matcher matcher = TOKEN.matcher(response.body());
+        if (!matcher.find()) {
+            throw new IllegalStateException("Login failed for user " + userId + ": " + response.body());
+        }
+        return matcher.group(1);
+    }
+
+    private static HttpRequest loginRequest(String baseUrl, long userId) {
+        String body = "{\"email\":\"" + BenchmarkDataSeeder.email(userId) + "\",\"password\":\"" + PASSWORD + "\"}";
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/api/profile/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    // Closed-loop load: every client thread sends its next request as soon as the previous one returns
+    private static LoadResult load(HttpClient client, IntFunction<HttpRequest> requests,
+                                   int concurrency, int seconds) throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        AtomicLong errors = new AtomicLong();
+
+        List<Future<long[]>> perClient = new ArrayList<>(concurrency);
+        for (int c = 0; c < concurrency; c++) {
+            SplittableRandom random = new SplittableRandom(c);
+            perClient.add(clients.submit(() -> {
+                long[] latencies = new long[1024];
+                int count = 0;
+                while (System.nanoTime() < deadline) {
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(requests.apply(random.nextInt()),
+                                HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() >= 400) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (IOException e) {
+                        errors.incrementAndGet();
+                    }
+                    if (count == latencies.length) {
+                        latencies = Arrays.copyOf(latencies, count * 2);
+                    }
+                    latencies[count++] = System.nanoTime() - start;
+                }
+                return Arrays.copyOf(latencies, count);
+            }));
+        }
+        List<long[]> collected = new ArrayList<>(concurrency);
+        for (Future<long[]> future : perClient) {
+            collected.add(future.get());
+        }
+        clients.shutdown();
+
+        long[] all = collected.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        if (all.length == 0) {
+            return new LoadResult(0, 0, 0, errors.get());
+        }
+        return new LoadResult(all.length / (double) seconds,
+                all[(int) Math.ceil(all.length * 0.50) - 1] / 1_000_000.0,
+                all[(int) Math.ceil(all.length * 0.99) - 1] / 1_000_000.0,
+                errors.get());
+    }
+
+    private record LoadResult(double throughput, double p50Millis, double p99Millis, long errors) {
+    }
+}
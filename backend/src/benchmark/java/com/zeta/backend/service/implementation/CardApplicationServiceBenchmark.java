@@ -0,0 +1,43 @@
+package com.zeta.backend.service.implementation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Luhn card number generation in CardApplicationService.generateValidCardNumber. Lives in the
+ * service package because the method is package-private.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CardApplicationServiceBenchmark {
+
+    @Param({"VISA", "AMEX"})
+    public String cardType;
+
+    private CardApplicationService cardApplicationService;
+
+    @Setup
+    public void setUp() {
+        cardApplicationService = new CardApplicationService(null, null, null, null);
+    }
+
+    @Benchmark
+    public String generateValidCardNumber() {
+        return cardApplicationService.generateValidCardNumber(cardType);
+    }
+}
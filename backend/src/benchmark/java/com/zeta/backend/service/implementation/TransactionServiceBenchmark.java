@@ -0,0 +1,67 @@
+package com.zeta.backend.service.implementation;
+
+import com.zeta.backend.dto.TransactionResponseDTO;
+import com.zeta.backend.model.BNPLInstallment;
+import com.zeta.backend.model.Transaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TransactionService DTO mapping and BNPL schedule building (the in-memory part of
+ * createInstallments, without the saveAll). Lives in the service package because both
+ * methods are package-private.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransactionServiceBenchmark {
+
+    @Param({"3", "6", "12"})
+    public int installmentCount;
+
+    private TransactionService transactionService;
+    private Transaction transaction;
+    private LocalDate firstDueDate;
+
+    @Setup
+    public void setUp() {
+        transactionService = new TransactionService(null, null, null, null, null, null, null, null, null, null, null, null, Optional.empty(), Optional.empty());
+        transaction = new Transaction();
+        transaction.setId(42L);
+        transaction.setCardId(7L);
+        transaction.setAmount(12_999.99);
+        transaction.setCategory("Electronics");
+        transaction.setMerchantName("Bench Store");
+        transaction.setTransactionDate(LocalDate.now());
+        transaction.setIsBNPL(true);
+        transaction.setStatus("Pending");
+        firstDueDate = LocalDate.now().plusMonths(1);
+    }
+
+    @Benchmark
+    public TransactionResponseDTO mapToResponseDTO() {
+        return transactionService.mapToResponseDTO(transaction);
+    }
+
+    @Benchmark
+    public List<BNPLInstallment> buildInstallmentSchedule() {
+        return transactionService.buildInstallmentSchedule(transaction, installmentCount, firstDueDate);
+    }
+}
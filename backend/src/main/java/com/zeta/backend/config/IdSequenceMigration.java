@@ -0,0 +1,83 @@
+package com.zeta.backend.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.enhanced.DatabaseStructure;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Migration path for tables whose ids moved from IDENTITY columns to pooled sequences
+ * (transactions, bnpl_installments, card).
+ *
+ * Schema update creates a missing sequence starting at 1, while a database that already holds
+ * rows has ids well past that. At startup, before anything inserts, every sequence-generated
+ * entity's sequence is moved past the highest id in its table. The pooled optimizer hands out
+ * the block (value - allocationSize, value], so the sequence has to reach max(id) + allocationSize.
+ * Sequences already ahead are left alone. The existing identity columns keep working: they
+ * generate by default, and Hibernate now always supplies the id.
+ *
+ * Reads the sequence position from H2's INFORMATION_SCHEMA.SEQUENCES. Runs once per start and
+ * can be switched off with ids.sequence-migration.enabled once every sequence is in place.
+ */
+@Component
+@Slf4j
+public class IdSequenceMigration {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+
+    public IdSequenceMigration(EntityManagerFactory entityManagerFactory,
+                               DataSource dataSource,
+                               @Value("${ids.sequence-migration.enabled:true}") boolean enabled) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.enabled = enabled;
+    }
+
+    @PostConstruct
+    public void migrate() {
+        if (enabled) {
+            alignSequences();
+        }
+    }
+
+    /**
+     * Moves every entity id sequence past the ids present in its table.
+     * Also used after ids were written directly (bulk loads with explicit ids).
+     */
+    public void alignSequences() {
+        entityManagerFactory.unwrap(SessionFactoryImplementor.class).getMappingMetamodel()
+                .forEachEntityDescriptor(persister -> {
+                    if (persister.getGenerator() instanceof SequenceStyleGenerator generator) {
+                        align(generator.getDatabaseStructure(), persister.getIdentifierTableName(),
+                                persister.getIdentifierColumnNames()[0]);
+                    }
+                });
+    }
+
+    private void align(DatabaseStructure sequence, String table, String idColumn) {
+        String sequenceName = sequence.getPhysicalName().render();
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(" + idColumn + ") FROM " + table, Long.class);
+        if (maxId == null) {
+            return;
+        }
+        long required = maxId + sequence.getIncrementSize();
+        Long next = jdbcTemplate.query("SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES"
+                        + " WHERE UPPER(SEQUENCE_NAME) = UPPER(?)",
+                rs -> rs.next() ? rs.getLong(1) : null, sequenceName);
+        if (next != null && next >= required) {
+            return;
+        }
+        jdbcTemplate.execute("ALTER SEQUENCE " + sequenceName + " RESTART WITH " + required);
+        log.info("Moved sequence {} from {} to {} past max {}.{} = {}",
+                sequenceName, next, required, table, idColumn, maxId);
+    }
+}
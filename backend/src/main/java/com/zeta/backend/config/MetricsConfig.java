@@ -0,0 +1,62 @@
+package com.zeta.backend.config;
+
+import com.zeta.backend.util.SqlStatementCounter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Wires SQL statement counting into Hibernate and records the statements executed per
+ * HTTP request as http.server.requests.sql.statements (tags: method, uri).
+ */
+@Configuration
+public class MetricsConfig {
+
+    private static final String STATEMENTS_AT_START = MetricsConfig.class.getName() + ".statementsAtStart";
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementCounterCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementCounter());
+    }
+
+    @Bean
+    public WebMvcConfigurer sqlStatementMetricsConfigurer(MeterRegistry meterRegistry) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new HandlerInterceptor() {
+                    @Override
+                    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                        request.setAttribute(STATEMENTS_AT_START, SqlStatementCounter.current());
+                        return true;
+                    }
+
+                    @Override
+                    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                                Object handler, Exception ex) {
+                        Object start = request.getAttribute(STATEMENTS_AT_START);
+                        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                        if (start == null) {
+                            return;
+                        }
+                        DistributionSummary.builder("http.server.requests.sql.statements")
+                                .description("SQL statements prepared per HTTP request")
+                                .tags("method", request.getMethod(), "uri", pattern == null ? "UNKNOWN" : pattern.toString())
+                                .publishPercentileHistogram()
+                                .register(meterRegistry)
+                                .record(SqlStatementCounter.current() - (Long) start);
+                    }
+                });
+            }
+        };
+    }
+}
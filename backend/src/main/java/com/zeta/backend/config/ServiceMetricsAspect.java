@@ -0,0 +1,74 @@
+package com.zeta.backend.config;
+
+import com.zeta.backend.util.SqlStatementCounter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Records a latency histogram, an error counter and the number of SQL statements for every
+ * public method of the transaction, BNPL payment, card, card application and user profile
+ * services. Ordered ahead of the transaction interceptor so statements flushed at commit are
+ * attributed to the method that caused them.
+ *
+ * Meters (tags: service, method):
+ * - service.method (timer; extra tags outcome, exception)
+ * - service.method.errors (counter; extra tag exception)
+ * - service.method.sql.statements (distribution summary)
+ */
+@Aspect
+@Component
+@Order(0)
+@RequiredArgsConstructor
+public class ServiceMetricsAspect {
+
+    private final MeterRegistry meterRegistry;
+
+    @Around("execution(public * com.zeta.backend.service.ITransactionService+.*(..))"
+            + " || execution(public * com.zeta.backend.service.IBNPLPaymentService+.*(..))"
+            + " || execution(public * com.zeta.backend.service.ICardService+.*(..))"
+            + " || execution(public * com.zeta.backend.service.ICardApplicationService+.*(..))"
+            + " || execution(public * com.zeta.backend.service.ICardSpendingService+.*(..))"
+            + " || execution(public * com.zeta.backend.service.IStatementService+.*(..))"
+            + " || execution(public * com.zeta.backend.service.implementation.TransactionAnalyticsService.aggregate(..))"
+            + " || execution(public * com.zeta.backend.service.implementation.UserProfileService.*(..))")
+    public Object measure(ProceedingJoinPoint joinPoint) throws Throwable {
+        String service = ClassUtils.getUserClass(joinPoint.getTarget()).getSimpleName();
+        String method = joinPoint.getSignature().getName();
+        long statementsBefore = SqlStatementCounter.current();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            Counter.builder("service.method.errors")
+                    .description("Exceptions thrown by service methods")
+                    .tags("service", service, "method", method, "exception", exception)
+                    .register(meterRegistry)
+                    .increment();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("service.method")
+                    .description("Service method latency")
+                    .tags("service", service, "method", method,
+                            "outcome", "none".equals(exception) ? "SUCCESS" : "ERROR", "exception", exception)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+            DistributionSummary.builder("service.method.sql.statements")
+                    .description("SQL statements prepared per service call")
+                    .tags("service", service, "method", method)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(SqlStatementCounter.current() - statementsBefore);
+        }
+    }
+}
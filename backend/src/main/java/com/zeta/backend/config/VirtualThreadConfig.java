@@ -0,0 +1,99 @@
+package com.zeta.backend.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Virtual-thread execution mode.
+ *
+ * With spring.threads.virtual.enabled=true Spring Boot runs Tomcat requests, the @Async
+ * task executor and the @Scheduled task scheduler on virtual threads. This needs a Java 21
+ * runtime; on older runtimes the property is ignored and a warning is logged.
+ *
+ * While the mode is active a JFR stream watches jdk.VirtualThreadPinned events, i.e. a
+ * virtual thread that blocked while holding a monitor (synchronized) and so kept its carrier
+ * thread busy, and logs the offending stack once per distinct frame.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+@Slf4j
+public class VirtualThreadConfig {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 8;
+
+    private final boolean pinningDetectionEnabled;
+    private final long pinningThresholdMs;
+    private final AtomicLong pinnedEvents = new AtomicLong();
+    private final Set<String> reportedSites = ConcurrentHashMap.newKeySet();
+
+    private RecordingStream recordingStream;
+
+    public VirtualThreadConfig(@Value("${threads.pinning-detection.enabled:true}") boolean pinningDetectionEnabled,
+                               @Value("${threads.pinning-detection.threshold-ms:20}") long pinningThresholdMs) {
+        this.pinningDetectionEnabled = pinningDetectionEnabled;
+        this.pinningThresholdMs = pinningThresholdMs;
+    }
+
+    @PostConstruct
+    public void start() {
+        int javaVersion = Runtime.version().feature();
+        if (javaVersion < 21) {
+            log.warn("spring.threads.virtual.enabled=true but the runtime is Java {}; "
+                    + "virtual threads need Java 21, requests stay on platform threads", javaVersion);
+            return;
+        }
+        log.info("Virtual-thread execution mode enabled for Tomcat, @Async and @Scheduled executors");
+
+        if (pinningDetectionEnabled) {
+            recordingStream = new RecordingStream();
+            recordingStream.enable(PINNED_EVENT)
+                    .withThreshold(Duration.ofMillis(pinningThresholdMs))
+                    .withStackTrace();
+            recordingStream.onEvent(PINNED_EVENT, this::onPinned);
+            recordingStream.startAsync();
+            log.info("Virtual-thread pinning detection on (threshold {} ms)", pinningThresholdMs);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (recordingStream != null) {
+            recordingStream.close();
+        }
+    }
+
+    public long getPinnedEventCount() {
+        return pinnedEvents.get();
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinnedEvents.incrementAndGet();
+        if (event.getStackTrace() == null) {
+            return;
+        }
+        List<RecordedFrame> frames = event.getStackTrace().getFrames();
+        String stack = frames.stream()
+                .limit(LOGGED_FRAMES)
+                .map(f -> f.getMethod().getType().getName() + "." + f.getMethod().getName() + ":" + f.getLineNumber())
+                .collect(Collectors.joining("\n\tat "));
+        // The same synchronized block tends to pin on every request; report each stack once
+        if (reportedSites.add(stack)) {
+            log.warn("Virtual thread pinned for {} ms:\n\tat {}", event.getDuration().toMillis(), stack);
+        }
+    }
+}
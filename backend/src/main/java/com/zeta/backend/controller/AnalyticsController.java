@@ -0,0 +1,56 @@
+package com.zeta.backend.controller;
+
+import com.zeta.backend.dto.TransactionAnalyticsDTO;
+import com.zeta.backend.enums.AnalyticsDimension;
+import com.zeta.backend.exception.BadRequestException;
+import com.zeta.backend.service.implementation.TransactionAnalyticsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Locale;
+
+@CrossOrigin(origins = "http://localhost:3000")
+@RestController
+@RequestMapping("/api/analytics")
+@ConditionalOnProperty(name = "analytics.columnar.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class AnalyticsController {
+
+    private final TransactionAnalyticsService transactionAnalyticsService;
+
+    /**
+     * Transaction count and spend grouped by category, merchant, month or card_type,
+     * optionally limited to a date range, one card and BNPL or regular transactions
+     */
+    @GetMapping("/transactions")
+    public ResponseEntity<TransactionAnalyticsDTO> aggregateTransactions(
+            @AuthenticationPrincipal String userEmail,
+            @RequestParam String groupBy,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long cardId,
+            @RequestParam(required = false) Boolean bnpl,
+            @RequestParam(required = false) Integer limit) {
+
+        AnalyticsDimension dimension;
+        try {
+            dimension = AnalyticsDimension.valueOf(groupBy.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Unsupported groupBy: " + groupBy + ", expected one of "
+                    + Arrays.toString(AnalyticsDimension.values()).toLowerCase(Locale.ROOT));
+        }
+        log.info("Aggregating transactions by {} (from {} to {}, card {}, bnpl {}) for user {}",
+                dimension, from, to, cardId, bnpl, userEmail);
+
+        return ResponseEntity.ok(transactionAnalyticsService.aggregate(
+                dimension, from, to, cardId, bnpl, limit, userEmail));
+    }
+}
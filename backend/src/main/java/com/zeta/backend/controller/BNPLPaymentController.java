@@ -3,15 +3,24 @@ package com.zeta.backend.controller;
 import com.zeta.backend.dto.BNPLInstallmentCreateDTO;
 import com.zeta.backend.dto.BNPLInstallmentResponseDTO;
 import com.zeta.backend.dto.BNPLInstallmentUpdateDTO;
+import com.zeta.backend.dto.BNPLPayoffResponseDTO;
 import com.zeta.backend.exception.BadRequestException;
 import com.zeta.backend.service.IBNPLPaymentService;
+import com.zeta.backend.service.implementation.IdempotencyService;
+import com.zeta.backend.service.implementation.ResourceVersionService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
 
 /**
@@ -27,10 +36,14 @@ import java.util.List;
 public class BNPLPaymentController {
 
     private final IBNPLPaymentService bnplPaymentService;
+    private final IdempotencyService idempotencyService;
+    private final ResourceVersionService resourceVersionService;
 
     /**
      * Processes a payment for an installment.
+     * Retries carrying the same Idempotency-Key get the original response back.
      * @param id ID of the installment to pay.
+     * @param idempotencyKey Optional client-generated key identifying this payment attempt.
      * @param amount Payment amount.
      * @return ResponseEntity with BNPLInstallmentResponseDTO.
      * @throws BadRequestException if amount is invalid.
@@ -40,11 +53,54 @@ public class BNPLPaymentController {
     public ResponseEntity<BNPLInstallmentResponseDTO> payInstallment(
             Authentication authentication,
             @PathVariable Long id,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @RequestParam Double amount) {
 
         String email = authentication.getName();
-        BNPLInstallmentResponseDTO response = bnplPaymentService.payInstallment(id, amount, email);
-        return ResponseEntity.ok(response);
+        return idempotencyService.execute(idempotencyKey, email, "POST /api/bnpl/installments/" + id + "/pay",
+                amount, BNPLInstallmentResponseDTO.class,
+                () -> ResponseEntity.ok(bnplPaymentService.payInstallment(id, amount, email)));
+    }
+
+
+    /**
+     * Pays all remaining installments of a transaction in one go.
+     * Retries carrying the same Idempotency-Key get the original response back.
+     * @param transactionId ID of the transaction to pay off.
+     * @param idempotencyKey Optional client-generated key identifying this payment attempt.
+     * @return ResponseEntity with BNPLPayoffResponseDTO.
+     * @throws BadRequestException if the transaction has no unpaid installments.
+     */
+    @PostMapping("/transaction/{transactionId}/payoff")
+    public ResponseEntity<BNPLPayoffResponseDTO> payOffTransaction(
+            Authentication authentication,
+            @PathVariable Long transactionId,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+
+        String email = authentication.getName();
+        return idempotencyService.execute(idempotencyKey, email,
+                "POST /api/bnpl/installments/transaction/" + transactionId + "/payoff", null, BNPLPayoffResponseDTO.class,
+                () -> ResponseEntity.ok(bnplPaymentService.payOffTransaction(transactionId, email)));
+    }
+
+    /**
+     * Pays all installments due on a card up to today, overdue ones included.
+     * Retries carrying the same Idempotency-Key get the original response back.
+     * @param cardId ID of the card to pay off.
+     * @param idempotencyKey Optional client-generated key identifying this payment attempt.
+     * @return ResponseEntity with BNPLPayoffResponseDTO.
+     * @throws BadRequestException if nothing is due on the card.
+     */
+    @PostMapping("/card/{cardId}/payoff")
+    public ResponseEntity<BNPLPayoffResponseDTO> payOffDueByCard(
+            Authentication authentication,
+            @PathVariable Long cardId,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+
+        String email = authentication.getName();
+        return idempotencyService.execute(idempotencyKey, email,
+                "POST /api/bnpl/installments/card/" + cardId + "/payoff", null, BNPLPayoffResponseDTO.class,
+                () -> ResponseEntity.ok(bnplPaymentService.payOffDueByCard(cardId, email)));
     }
 
 
@@ -56,10 +112,20 @@ public class BNPLPaymentController {
     @GetMapping("/transaction/{transactionId}/pending")
     public ResponseEntity<List<BNPLInstallmentResponseDTO>> getPendingInstallments(
             Authentication authentication,
-            @PathVariable Long transactionId) {
+            @PathVariable Long transactionId,
+            WebRequest request) {
         String email = authentication.getName(); // get logged-in user
+        // late fees in the response depend on the date
+        String etag = resourceVersionService.transactionETag(transactionId, email, LocalDate.now());
+        if (etag != null && request.checkNotModified(etag)) {
+            return null;
+        }
         List<BNPLInstallmentResponseDTO> installments = bnplPaymentService.getPendingInstallmentsByTransactionId(transactionId, email);
-        return ResponseEntity.ok(installments);
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .varyBy(HttpHeaders.AUTHORIZATION)
+                .body(installments);
     }
 
 
@@ -71,23 +137,33 @@ public class BNPLPaymentController {
     @GetMapping("/card/{cardId}/overdue")
     public ResponseEntity<List<BNPLInstallmentResponseDTO>> getOverdueInstallments(
             Authentication authentication,
-            @PathVariable Long cardId) {
+            @PathVariable Long cardId,
+            WebRequest request) {
         String email = authentication.getName(); // get logged-in user
+        // which installments are overdue, and their late fees, depend on the date
+        String etag = resourceVersionService.cardETag(cardId, email, LocalDate.now());
+        if (etag != null && request.checkNotModified(etag)) {
+            return null;
+        }
         List<BNPLInstallmentResponseDTO> installments = bnplPaymentService.getOverdueInstallmentsByCardId(cardId, email);
-        return ResponseEntity.ok(installments);
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .varyBy(HttpHeaders.AUTHORIZATION)
+                .body(installments);
     }
 
 
     /**
-     * Retrieves all installments in the system.
-     * @return ResponseEntity with List of BNPLInstallmentResponseDTOs.
+     * Retrieves all installments in the system, streamed as a JSON array.
+     * @return ResponseEntity with the streamed BNPLInstallmentResponseDTOs.
      */
     @GetMapping
-    public ResponseEntity<List<BNPLInstallmentResponseDTO>> getAllInstallments() {
+    public ResponseEntity<StreamingResponseBody> getAllInstallments() {
         log.info("Received request to fetch all installments");
-        List<BNPLInstallmentResponseDTO> installments = bnplPaymentService.getAllInstallments();
-        log.debug("Returning {} installments", installments.size());
-        return ResponseEntity.ok(installments);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(bnplPaymentService.streamAllInstallments());
     }
 
     /**
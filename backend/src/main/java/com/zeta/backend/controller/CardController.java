@@ -5,15 +5,19 @@ import com.zeta.backend.exception.CardNotFoundException;
 import com.zeta.backend.exception.InvalidCardLimitException;
 import com.zeta.backend.repository.UserProfileRepository;
 import com.zeta.backend.service.ICardService;
+import com.zeta.backend.service.implementation.ResourceVersionService;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -26,11 +30,16 @@ public class CardController {
 
     private final ICardService cardService;
     private final UserProfileRepository userRepository;
+    private final ResourceVersionService resourceVersionService;
 
     // ========================== GET MY CARDS ==========================
     @GetMapping("/me")
-    public ResponseEntity<List<CardDTO>> getMyCards(Authentication authentication) {
+    public ResponseEntity<List<CardDTO>> getMyCards(Authentication authentication, WebRequest request) {
         String email = authentication.getName();
+        String etag = resourceVersionService.userCardsETag(email);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
         log.info("Fetching cards for user: {}", email);
 
         Long userId = userRepository.findByEmail(email)
@@ -38,7 +47,11 @@ public class CardController {
                 .getUserId();
 
         List<CardDTO> cards = cardService.getCardDetailsByUserId(userId);
-        return ResponseEntity.ok(cards);
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .varyBy(HttpHeaders.AUTHORIZATION)
+                .body(cards);
     }
 
     // ========================== UPDATE CARD STATUS ==========================
@@ -4,11 +4,11 @@ import com.zeta.backend.exception.ResourceNotFoundException;
 import com.zeta.backend.model.BNPLInstallment;
 import com.zeta.backend.repository.BNPLInstallmentRepository;
 import com.zeta.backend.service.implementation.LateFeeCalculatorService;
+import com.zeta.backend.service.implementation.OwnershipService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 @CrossOrigin(origins = "http://localhost:3000")
@@ -20,6 +20,7 @@ public class LateFeeController {
 
     private final LateFeeCalculatorService lateFeeCalculatorService;
     private final BNPLInstallmentRepository bnplInstallmentRepository;
+    private final OwnershipService ownershipService;
 
     /**
      * Endpoint to get total late fee for a specific card
@@ -28,16 +29,17 @@ public class LateFeeController {
     @GetMapping("/{cardId}")
     public ResponseEntity<Double> getLateFeeForCard(
             @PathVariable Long cardId,
-            @AuthenticationPrincipal UserDetails userDetails) {
+            Authentication authentication) {
 
-        String currentUserEmail = userDetails.getUsername();
+        // JwtFilter authenticates with the email as principal, not a UserDetails
+        String currentUserEmail = authentication.getName();
         log.info("User {} requested total late fee for card ID {}", currentUserEmail, cardId);
 
         // Check card ownership
-        String cardOwnerEmail = bnplInstallmentRepository.findCardOwnerEmailByCardId(cardId)
-                .orElseThrow(() -> new ResourceNotFoundException("Card not found"));
-
-        if (!cardOwnerEmail.equals(currentUserEmail)) {
+        if (!ownershipService.ownsCard(cardId, currentUserEmail)) {
+            if (!ownershipService.cardExists(cardId)) {
+                throw new ResourceNotFoundException("Card not found");
+            }
             return ResponseEntity.status(403).build(); // Forbidden
         }
 
@@ -52,21 +54,22 @@ public class LateFeeController {
     @GetMapping("/installment/{installmentId}")
     public ResponseEntity<Double> getLateFeeForInstallment(
             @PathVariable Long installmentId,
-            @AuthenticationPrincipal UserDetails userDetails) {
+            Authentication authentication) {
 
-        String currentUserEmail = userDetails.getUsername();
+        String currentUserEmail = authentication.getName();
         log.info("User {} requested late fee for installment ID {}", currentUserEmail, installmentId);
 
         BNPLInstallment installment = bnplInstallmentRepository.findById(installmentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Installment not found"));
 
         // Check ownership
-        String ownerEmail = installment.getTransaction().getCard().getUser().getEmail();
-        if (!ownerEmail.equals(currentUserEmail)) {
+        // Resolved by query: the lazy transaction association is not loadable outside a transaction
+        Long cardId = ownershipService.installmentCardId(installmentId).orElse(null);
+        if (!ownershipService.ownsCard(cardId, currentUserEmail)) {
             return ResponseEntity.status(403).build();
         }
 
-        double fee = lateFeeCalculatorService.calculateLateFeeForInstallment(installment);
+        double fee = lateFeeCalculatorService.accruedLateFee(installment);
         return ResponseEntity.ok(fee);
     }
 }
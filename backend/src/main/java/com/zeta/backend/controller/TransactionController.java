@@ -1,17 +1,39 @@
 package com.zeta.backend.controller;
 
+import com.zeta.backend.dto.CardSpendingSummaryDTO;
+import com.zeta.backend.dto.CardStatementDTO;
+import com.zeta.backend.dto.MerchantSuggestionDTO;
+import com.zeta.backend.dto.TransactionBatchResponseDTO;
 import com.zeta.backend.dto.TransactionCreateDTO;
+import com.zeta.backend.dto.TransactionPageDTO;
 import com.zeta.backend.dto.TransactionResponseDTO;
+import com.zeta.backend.dto.TransactionSearchCriteria;
+import com.zeta.backend.dto.TransactionSearchResultDTO;
 import com.zeta.backend.dto.TransactionUpdateDTO;
+import com.zeta.backend.enums.ExportFormat;
 import com.zeta.backend.enums.InstallmentPlan;
+import com.zeta.backend.exception.BadRequestException;
 import com.zeta.backend.security.JwtUtil;
+import com.zeta.backend.service.ICardSpendingService;
+import com.zeta.backend.service.IStatementService;
 import com.zeta.backend.service.ITransactionService;
+import com.zeta.backend.service.implementation.IdempotencyService;
+import com.zeta.backend.service.implementation.MerchantSuggestionService;
+import com.zeta.backend.service.implementation.ResourceVersionService;
+import com.zeta.backend.service.implementation.TransactionExportService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -24,7 +46,13 @@ import java.util.Map;
 public class TransactionController {
 
     private final ITransactionService transactionService;
+    private final ICardSpendingService cardSpendingService;
+    private final IStatementService statementService;
     private final JwtUtil jwtUtil;
+    private final IdempotencyService idempotencyService;
+    private final TransactionExportService transactionExportService;
+    private final MerchantSuggestionService merchantSuggestionService;
+    private final ResourceVersionService resourceVersionService;
 
     /**
      * NEW: Validate card details before proceeding (called by frontend checkEligibility)
@@ -55,27 +83,32 @@ public class TransactionController {
     }
 
     /**
-     * Create a regular (non-BNPL) transaction
+     * Create a regular (non-BNPL) transaction.
+     * Retries carrying the same Idempotency-Key get the original response back.
      */
     @PostMapping
     public ResponseEntity<TransactionResponseDTO> createRegularTransaction(
             @RequestHeader("Authorization") String token,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @Valid @RequestBody TransactionCreateDTO dto) {
 
         String userEmail = jwtUtil.extractEmail(extractToken(token));
         log.info("Creating regular transaction for card ending in ****{} by user {}",
                 dto.getCardNumber().substring(dto.getCardNumber().length() - 4), userEmail);
 
-        TransactionResponseDTO response = transactionService.simulateRegularTransaction(dto, userEmail);
-        return ResponseEntity.ok(response);
+        return idempotencyService.execute(idempotencyKey, userEmail, "POST /api/transactions", dto,
+                TransactionResponseDTO.class,
+                () -> ResponseEntity.ok(transactionService.simulateRegularTransaction(dto, userEmail)));
     }
 
     /**
-     * Create a BNPL transaction
+     * Create a BNPL transaction.
+     * Retries carrying the same Idempotency-Key get the original response back.
      */
     @PostMapping("/bnpl")
     public ResponseEntity<TransactionResponseDTO> createBNPLTransaction(
             @RequestHeader("Authorization") String token,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @Valid @RequestBody TransactionCreateDTO dto,
             @RequestParam InstallmentPlan plan) {
 
@@ -83,33 +116,169 @@ public class TransactionController {
         log.info("Creating BNPL transaction for card ending in ****{} by user {} with plan: {}",
                 dto.getCardNumber().substring(dto.getCardNumber().length() - 4), userEmail, plan);
 
-        TransactionResponseDTO response = transactionService.simulateBNPLTransaction(dto, plan, userEmail);
+        return idempotencyService.execute(idempotencyKey, userEmail, "POST /api/transactions/bnpl",
+                List.of(dto, plan), TransactionResponseDTO.class,
+                () -> ResponseEntity.ok(transactionService.simulateBNPLTransaction(dto, plan, userEmail)));
+    }
+
+    /**
+     * Create a batch of regular transactions; invalid items are rejected individually
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<TransactionBatchResponseDTO> createTransactionBatch(
+            @RequestHeader("Authorization") String token,
+            @RequestBody List<TransactionCreateDTO> dtos) {
+
+        String userEmail = jwtUtil.extractEmail(extractToken(token));
+        log.info("Creating batch of {} transactions by user {}", dtos.size(), userEmail);
+
+        TransactionBatchResponseDTO response = transactionService.simulateRegularTransactionBatch(dtos, userEmail);
         return ResponseEntity.ok(response);
     }
 
     /**
-     * Get transaction history by card
+     * Get transaction history by card, streamed as a JSON array
      */
     @GetMapping("/card/{cardId}")
-    public ResponseEntity<List<TransactionResponseDTO>> getTransactionHistory(
+    public ResponseEntity<StreamingResponseBody> getTransactionHistory(
             @RequestHeader("Authorization") String token,
-            @PathVariable Long cardId) {
+            @PathVariable Long cardId,
+            WebRequest request) {
 
         String userEmail = jwtUtil.extractEmail(extractToken(token));
+        String etag = resourceVersionService.cardETag(cardId, userEmail, null);
+        if (etag != null && request.checkNotModified(etag)) {
+            return null;
+        }
         log.info("Fetching transaction history for card ID: {} by user {}", cardId, userEmail);
 
-        List<TransactionResponseDTO> transactions = transactionService.getTransactionHistoryByCardId(cardId, userEmail);
-        return ResponseEntity.ok(transactions);
+        StreamingResponseBody transactions = transactionService.streamTransactionHistoryByCardId(cardId, userEmail);
+        // checkNotModified has already set the ETag; headers of a streamed body are added, not merged
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .varyBy(HttpHeaders.AUTHORIZATION)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(transactions);
+    }
+
+    /**
+     * Get transaction history by card, one keyset page at a time (newest first)
+     */
+    @GetMapping("/card/{cardId}/history")
+    public ResponseEntity<TransactionPageDTO> getTransactionHistoryPage(
+            @RequestHeader("Authorization") String token,
+            @PathVariable Long cardId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+
+        String userEmail = jwtUtil.extractEmail(extractToken(token));
+        log.info("Fetching transaction history page for card ID: {} by user {}", cardId, userEmail);
+
+        return ResponseEntity.ok(transactionService.getTransactionHistoryPage(cardId, cursor, size, userEmail));
+    }
+
+    /**
+     * Running spending totals of a card (count, spend per category and month, outstanding BNPL principal)
+     */
+    @GetMapping("/card/{cardId}/summary")
+    public ResponseEntity<CardSpendingSummaryDTO> getSpendingSummary(
+            @RequestHeader("Authorization") String token,
+            @PathVariable Long cardId) {
+
+        String userEmail = jwtUtil.extractEmail(extractToken(token));
+        log.info("Fetching spending summary for card ID: {} by user {}", cardId, userEmail);
+
+        return ResponseEntity.ok(cardSpendingService.getSpendingSummary(cardId, userEmail));
+    }
+
+    /**
+     * Merchant names from the user's own transactions starting with the prefix (case-insensitive),
+     * most used first, for autocomplete
+     */
+    @GetMapping("/merchants/suggest")
+    public ResponseEntity<List<MerchantSuggestionDTO>> suggestMerchants(
+            @RequestHeader("Authorization") String token,
+            @RequestParam(defaultValue = "") String prefix,
+            @RequestParam(required = false) Integer limit) {
+
+        String userEmail = jwtUtil.extractEmail(extractToken(token));
+        return ResponseEntity.ok(merchantSuggestionService.suggest(prefix, limit, userEmail));
+    }
+
+    /**
+     * Monthly statement of a card (month as yyyy-MM), generated by the statement batch
+     */
+    @GetMapping("/card/{cardId}/statements/{month}")
+    public ResponseEntity<CardStatementDTO> getStatement(
+            @RequestHeader("Authorization") String token,
+            @PathVariable Long cardId,
+            @PathVariable String month) {
+
+        String userEmail = jwtUtil.extractEmail(extractToken(token));
+        YearMonth statementMonth;
+        try {
+            statementMonth = YearMonth.parse(month);
+        } catch (DateTimeParseException e) {
+            throw new BadRequestException("Invalid statement month, expected yyyy-MM: " + month);
+        }
+        log.info("Fetching {} statement for card ID: {} by user {}", statementMonth, cardId, userEmail);
+
+        return ResponseEntity.ok(statementService.getStatement(cardId, statementMonth, userEmail));
+    }
+
+    /**
+     * Search a card's transactions by date range, category, merchant substring, amount range,
+     * BNPL flag and status, paged (zero-based) and sorted server side
+     */
+    @GetMapping("/card/{cardId}/search")
+    public ResponseEntity<TransactionSearchResultDTO> searchTransactions(
+            @RequestHeader("Authorization") String token,
+            @PathVariable Long cardId,
+            TransactionSearchCriteria criteria,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String direction) {
+
+        String userEmail = jwtUtil.extractEmail(extractToken(token));
+        log.info("Searching transactions of card ID: {} with {} by user {}", cardId, criteria, userEmail);
+
+        return ResponseEntity.ok(transactionService.searchTransactions(cardId, criteria, page, size, sort, direction, userEmail));
+    }
+
+    /**
+     * Export the full history of a card as NDJSON (default) or CSV, streamed row by row
+     */
+    @GetMapping("/card/{cardId}/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactionHistory(
+            @RequestHeader("Authorization") String token,
+            @PathVariable Long cardId,
+            @RequestParam(defaultValue = "ndjson") String format) {
+
+        String userEmail = jwtUtil.extractEmail(extractToken(token));
+        ExportFormat exportFormat = ExportFormat.fromValue(format);
+        if (exportFormat == null) {
+            throw new BadRequestException("Unsupported export format: " + format);
+        }
+        log.info("Exporting transaction history for card ID: {} as {} by user {}", cardId, exportFormat, userEmail);
+
+        StreamingResponseBody body = transactionExportService.exportCardHistory(cardId, userEmail, exportFormat);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"card-" + cardId + "-transactions." + exportFormat.getExtension() + "\"")
+                .body(body);
     }
 
     /**
-     * Get all transactions (admin or general view)
+     * Get all transactions (admin or general view), streamed as a JSON array
      */
     @GetMapping
-    public ResponseEntity<List<TransactionResponseDTO>> getAllTransactions() {
+    public ResponseEntity<StreamingResponseBody> getAllTransactions() {
         log.info("Fetching all transactions");
-        List<TransactionResponseDTO> transactions = transactionService.getAllTransactions();
-        return ResponseEntity.ok(transactions);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(transactionService.streamAllTransactions());
     }
 
     /**
@@ -2,6 +2,7 @@ package com.zeta.backend.dto;
 
 
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.time.LocalDate;
 
@@ -9,9 +10,10 @@ import java.time.LocalDate;
  * dto for returning BNPL installment details to the frontend.
  * Used in responses for GET /bnpl/installments, GET /bnpl/installments/transaction/{transactionId},
  * and other endpoints. Includes all relevant fields for displaying installment information,
- * including a computed late fee for overdue payments.
+ * including the accrued late fee for overdue payments.
  */
 @Data
+@NoArgsConstructor
 public class BNPLInstallmentResponseDTO {
     /**
      * Unique ID of the installment.
@@ -50,8 +52,22 @@ public class BNPLInstallmentResponseDTO {
     private Boolean isPaid;
 
     /**
-     * Late fee for the installment, computed by LateFeeCalculatorService.
+     * Late fee accrued on the installment, as of its last accrual by LateFeeCalculatorService.
      * Zero if the installment is not overdue or has no penalties.
      */
     private Double lateFee;
+
+    /**
+     * Used by JPQL constructor expressions in BNPLInstallmentRepository.
+     */
+    public BNPLInstallmentResponseDTO(Long id, Long transactionId, Integer installmentNumber,
+                                      Double amount, LocalDate dueDate, Boolean isPaid, Double lateFee) {
+        this.id = id;
+        this.transactionId = transactionId;
+        this.installmentNumber = installmentNumber;
+        this.amount = amount;
+        this.dueDate = dueDate;
+        this.isPaid = isPaid;
+        this.lateFee = lateFee;
+    }
 }
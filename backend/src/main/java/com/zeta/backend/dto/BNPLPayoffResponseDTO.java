@@ -0,0 +1,30 @@
+package com.zeta.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * dto returned by POST /bnpl/installments/transaction/{transactionId}/payoff and
+ * POST /bnpl/installments/card/{cardId}/payoff.
+ * Totals settled by the payoff: the installments' principal and the late fees they had
+ * accrued as of the payment date, with the installments paid (each carrying the fee it settled).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BNPLPayoffResponseDTO {
+    private Long cardId;
+    private Long transactionId;
+    private LocalDate paidOn;
+    private int installmentsPaid;
+    private double principalPaid;
+    private double lateFeesPaid;
+    private double totalPaid;
+    private List<BNPLInstallmentResponseDTO> installments;
+}
@@ -0,0 +1,37 @@
+package com.zeta.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * dto returned by GET /transactions/card/{cardId}/summary.
+ * Running totals of a card read from its aggregate rows: overall count and spend,
+ * count and spend per category and per month (keys yyyy-MM, ascending), and the
+ * principal of its unpaid BNPL installments.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CardSpendingSummaryDTO {
+    private Long cardId;
+    private long transactionCount;
+    private double totalSpend;
+    private double outstandingBnplPrincipal;
+    private Map<String, Totals> byCategory;
+    private Map<String, Totals> byMonth;
+    private LocalDateTime updatedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Totals {
+        private long transactionCount;
+        private double totalSpend;
+    }
+}
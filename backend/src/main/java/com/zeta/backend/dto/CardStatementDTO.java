@@ -0,0 +1,37 @@
+package com.zeta.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * dto returned by GET /transactions/card/{cardId}/statements/{month}.
+ * Monthly statement of a card: the available limit at the start and end of the period,
+ * the period's transactions, the BNPL installments falling due in it (late fees as of
+ * periodEnd) and the late fees accrued on all unpaid installments by periodEnd.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CardStatementDTO {
+    private Long cardId;
+    private String month;
+    private LocalDate periodStart;
+    private LocalDate periodEnd;
+    private double openingAvailableLimit;
+    private double closingAvailableLimit;
+    private long transactionCount;
+    private double totalSpend;
+    private long installmentsDueCount;
+    private double installmentsDueAmount;
+    private double lateFees;
+    private LocalDateTime generatedAt;
+    private List<TransactionResponseDTO> transactions;
+    private List<BNPLInstallmentResponseDTO> installmentsDue;
+}
@@ -0,0 +1,21 @@
+package com.zeta.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDate;
+
+/**
+ * Unpaid installment carried by the due-soon and overdue events of InstallmentDueScheduler.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class InstallmentDueRow {
+    private Long installmentId;
+    private Long transactionId;
+    private Long cardId;
+    private Double amount;
+    private LocalDate dueDate;
+}
@@ -0,0 +1,16 @@
+package com.zeta.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * dto returned by GET /transactions/merchants/suggest.
+ * A merchant name from the caller's own transaction history.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MerchantSuggestionDTO {
+    private String name;
+}
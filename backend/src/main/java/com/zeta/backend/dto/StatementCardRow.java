@@ -0,0 +1,14 @@
+package com.zeta.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Row read by the statement batch: a card's current available limit.
+ */
+@Getter
+@AllArgsConstructor
+public class StatementCardRow {
+    private Long cardId;
+    private Double availableLimit;
+}
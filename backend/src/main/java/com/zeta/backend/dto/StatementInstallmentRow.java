@@ -0,0 +1,15 @@
+package com.zeta.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Row read by the statement batch: number and total amount of a card's installments due in the period.
+ */
+@Getter
+@AllArgsConstructor
+public class StatementInstallmentRow {
+    private Long cardId;
+    private Long installmentCount;
+    private Double totalAmount;
+}
@@ -0,0 +1,15 @@
+package com.zeta.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Row read by the statement batch: late fees of a card's installments that were unpaid and
+ * overdue at the statement's closing date, as of that date.
+ */
+@Getter
+@AllArgsConstructor
+public class StatementLateFeeRow {
+    private Long cardId;
+    private Double lateFees;
+}
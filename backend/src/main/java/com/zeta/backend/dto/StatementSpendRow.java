@@ -0,0 +1,17 @@
+package com.zeta.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Row read by the statement batch: a card's transaction count and spend within the period,
+ * and its spend dated after the period (needed to derive the closing available limit).
+ */
+@Getter
+@AllArgsConstructor
+public class StatementSpendRow {
+    private Long cardId;
+    private Long transactionCount;
+    private Double periodSpend;
+    private Double laterSpend;
+}
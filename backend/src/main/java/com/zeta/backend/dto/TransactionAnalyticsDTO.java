@@ -0,0 +1,39 @@
+package com.zeta.backend.dto;
+
+import com.zeta.backend.enums.AnalyticsDimension;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * dto returned by GET /analytics/transactions.
+ * Count and spend of the transactions matching the filters, overall and per group; months
+ * (yyyy-MM) are listed in ascending order, other groups by spend, largest first, up to the limit.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionAnalyticsDTO {
+    private AnalyticsDimension groupBy;
+    private LocalDate from;
+    private LocalDate to;
+    private Long cardId;
+    private Boolean bnpl;
+    private long transactionCount;
+    private double totalSpend;
+    private List<Group> groups;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Group {
+        private String key;
+        private long transactionCount;
+        private double totalSpend;
+    }
+}
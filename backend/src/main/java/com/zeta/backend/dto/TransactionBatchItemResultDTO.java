@@ -0,0 +1,36 @@
+package com.zeta.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * dto describing the outcome of one item in POST /transactions/batch.
+ * Items are reported in the same order as the request.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionBatchItemResultDTO {
+    /**
+     * Zero-based position of the item in the submitted batch.
+     */
+    private int index;
+
+    /**
+     * ACCEPTED if the transaction was recorded, REJECTED otherwise.
+     */
+    private String result;
+
+    /**
+     * ID of the created transaction; null for rejected items.
+     */
+    private Long transactionId;
+
+    /**
+     * Reason for rejection; null for accepted items.
+     */
+    private String message;
+}
@@ -0,0 +1,23 @@
+package com.zeta.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * dto returned by POST /transactions/batch.
+ * Summarises how many items were accepted and carries the per-item results.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionBatchResponseDTO {
+    private int accepted;
+    private int rejected;
+    private double acceptedAmount;
+    private List<TransactionBatchItemResultDTO> results;
+}
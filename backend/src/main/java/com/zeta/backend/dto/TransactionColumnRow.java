@@ -0,0 +1,23 @@
+package com.zeta.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+/**
+ * Row read when loading the columnar analytics store: the analysed columns of a transaction
+ * and the type of its card.
+ */
+@Getter
+@AllArgsConstructor
+public class TransactionColumnRow {
+    private Long id;
+    private Long cardId;
+    private String cardType;
+    private LocalDate transactionDate;
+    private Double amount;
+    private String category;
+    private String merchantName;
+    private Boolean isBNPL;
+}
@@ -0,0 +1,24 @@
+package com.zeta.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * dto returned by GET /transactions/card/{cardId}/history.
+ * One page of a card's transactions, newest first. nextCursor is an opaque token to pass
+ * back as ?cursor= for the following page and is null on the last page.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionPageDTO {
+    private List<TransactionResponseDTO> items;
+    private int size;
+    private String nextCursor;
+    private boolean hasMore;
+}
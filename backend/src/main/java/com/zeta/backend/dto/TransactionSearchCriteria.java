@@ -0,0 +1,62 @@
+package com.zeta.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+/**
+ * Filters of GET /transactions/card/{cardId}/search, bound from the query string.
+ * Every field is optional; a null field does not restrict the result.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionSearchCriteria {
+
+    /**
+     * First transaction date to include (inclusive), ISO yyyy-MM-dd.
+     */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate from;
+
+    /**
+     * Last transaction date to include (inclusive), ISO yyyy-MM-dd.
+     */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate to;
+
+    /**
+     * Exact category, e.g. Food.
+     */
+    private String category;
+
+    /**
+     * Case-insensitive substring of the merchant name.
+     */
+    private String merchant;
+
+    /**
+     * Smallest amount to include (inclusive).
+     */
+    private Double minAmount;
+
+    /**
+     * Largest amount to include (inclusive).
+     */
+    private Double maxAmount;
+
+    /**
+     * true for BNPL transactions only, false for full payments only.
+     */
+    private Boolean bnpl;
+
+    /**
+     * Exact status, e.g. Completed or Pending.
+     */
+    private String status;
+}
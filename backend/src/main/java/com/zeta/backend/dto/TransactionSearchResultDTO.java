@@ -0,0 +1,25 @@
+package com.zeta.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * dto returned by GET /transactions/card/{cardId}/search.
+ * One page of the matching transactions; page is zero-based and totalElements counts
+ * every match across all pages.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionSearchResultDTO {
+    private List<TransactionResponseDTO> items;
+    private int page;
+    private int size;
+    private long totalElements;
+    private int totalPages;
+}
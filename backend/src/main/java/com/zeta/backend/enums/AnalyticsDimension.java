@@ -0,0 +1,12 @@
+package com.zeta.backend.enums;
+
+/**
+ * Grouping of an analytics aggregate over all transactions: by category, merchant name,
+ * calendar month of the transaction date, or type of the card it was made with.
+ */
+public enum AnalyticsDimension {
+    CATEGORY,
+    MERCHANT,
+    MONTH,
+    CARD_TYPE
+}
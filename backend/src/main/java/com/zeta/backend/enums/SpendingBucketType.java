@@ -0,0 +1,9 @@
+package com.zeta.backend.enums;
+
+/**
+ * Dimension of a per-card spending bucket: by transaction category or by calendar month.
+ */
+public enum SpendingBucketType {
+    CATEGORY,
+    MONTH
+}
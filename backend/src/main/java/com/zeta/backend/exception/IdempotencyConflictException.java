@@ -0,0 +1,10 @@
+package com.zeta.backend.exception;
+
+/**
+ * Exception thrown when a request with the same Idempotency-Key is still being processed.
+ */
+public class IdempotencyConflictException extends RuntimeException {
+    public IdempotencyConflictException(String message) {
+        super(message);
+    }
+}
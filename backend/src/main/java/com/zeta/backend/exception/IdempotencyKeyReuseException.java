@@ -0,0 +1,10 @@
+package com.zeta.backend.exception;
+
+/**
+ * Exception thrown when an Idempotency-Key is reused with a different request.
+ */
+public class IdempotencyKeyReuseException extends RuntimeException {
+    public IdempotencyKeyReuseException() {
+        super("Idempotency-Key was already used with a different request");
+    }
+}
@@ -9,15 +9,25 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Entity
-@Table(name = "bnpl_installments")
+@Table(name = "bnpl_installments", indexes = {
+        // per-transaction reads, filtered on is_paid and ordered by installment_number
+        @Index(name = "idx_installments_txn_paid_number", columnList = "transaction_id, is_paid, installment_number"),
+        // overdue scans: unpaid rows by due date, carrying the join key
+        @Index(name = "idx_installments_paid_due", columnList = "is_paid, due_date, transaction_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class BNPLInstallment {
 
+    // Late fee rules, applied by LateFeeCalculatorService and by BNPLInstallmentRepository.LATE_FEE
+    public static final double DAILY_LATE_FEE_FLAT = 1.0; // $1 per day
+    public static final double DAILY_LATE_FEE_PERCENTAGE = 0.005; // 0.5% per day of amount
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bnpl_installments_seq")
+    @SequenceGenerator(name = "bnpl_installments_seq", sequenceName = "bnpl_installments_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -36,5 +46,20 @@ public class BNPLInstallment {
 
     @Column(name = "is_paid", nullable = false)
     private Boolean isPaid;
+
+    // Late fee accrued as of lateFeeAccruedOn, kept by LateFeeCalculatorService.accrue;
+    // null on rows written before the columns existed, read as no fee
+    @Column(name = "late_fee")
+    private Double lateFee;
+
+    @Column(name = "days_late")
+    private Integer daysLate;
+
+    @Column(name = "late_fee_accrued_on")
+    private LocalDate lateFeeAccruedOn;
+
+    // Late fee collected with the payment, as of the day it was paid; null while unpaid
+    @Column(name = "paid_late_fee")
+    private Double paidLateFee;
 }
 
@@ -9,6 +9,12 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDate;
 
 @Entity
+@Table(name = "card", indexes = {
+        // credential lookup at checkout; card_number alone is nearly unique
+        @Index(name = "idx_card_credentials", columnList = "card_number, expiry_month, expiry_year, cvv"),
+        @Index(name = "idx_card_user", columnList = "user_id"),
+        @Index(name = "idx_card_application", columnList = "application_id")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -16,7 +22,8 @@ import java.time.LocalDate;
 public class Card {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "card_seq")
+    @SequenceGenerator(name = "card_seq", sequenceName = "card_seq", allocationSize = 50)
     private Long cardId; // Primary key for the Card table, auto-generated
 
     private String cardNumber;    // Typically a 16-digit unique number
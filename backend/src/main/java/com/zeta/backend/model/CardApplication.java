@@ -6,7 +6,10 @@ import lombok.*;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "card_applications")
+@Table(name = "card_applications", indexes = {
+        // duplicate-application check; the user_id prefix serves findByUserUserId
+        @Index(name = "idx_card_applications_user_type_limit", columnList = "user_id, card_type, requested_limit")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,50 @@
+package com.zeta.backend.model;
+
+import com.zeta.backend.enums.SpendingBucketType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Transaction count and spend of one card within one category or one month (bucketKey yyyy-MM).
+ * The primary key leads with card_id, so all buckets of a card are read with one index range scan.
+ */
+@Entity
+@Table(name = "card_spending_buckets")
+@IdClass(CardSpendingBucket.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CardSpendingBucket {
+
+    @Id
+    @Column(name = "card_id")
+    private Long cardId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "bucket_type", length = 16)
+    private SpendingBucketType bucketType;
+
+    @Id
+    @Column(name = "bucket_key")
+    private String bucketKey;
+
+    @Column(name = "transaction_count", nullable = false)
+    private long transactionCount;
+
+    @Column(name = "total_spend", nullable = false)
+    private double totalSpend;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long cardId;
+        private SpendingBucketType bucketType;
+        private String bucketKey;
+    }
+}
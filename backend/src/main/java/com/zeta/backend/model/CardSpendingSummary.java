@@ -0,0 +1,41 @@
+package com.zeta.backend.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Running totals of one card's transactions, kept up to date in the same database
+ * transaction as every write that changes them, so reads never scan the transactions table.
+ * outstandingBnplPrincipal is the sum of the card's unpaid installment amounts (late fees excluded).
+ */
+@Entity
+@Table(name = "card_spending_summary")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CardSpendingSummary {
+
+    @Id
+    @Column(name = "card_id")
+    private Long cardId;
+
+    @Column(name = "transaction_count", nullable = false)
+    private long transactionCount;
+
+    @Column(name = "total_spend", nullable = false)
+    private double totalSpend;
+
+    @Column(name = "outstanding_bnpl_principal", nullable = false)
+    private double outstandingBnplPrincipal;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public CardSpendingSummary(Long cardId) {
+        this.cardId = cardId;
+    }
+}
@@ -0,0 +1,65 @@
+package com.zeta.backend.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Monthly statement header of one card. The statement's transactions and installments due
+ * are read from their tables by period when the statement is viewed, so the batch only
+ * writes one row per card.
+ */
+@Entity
+@Table(name = "card_statements", uniqueConstraints = {
+        // one statement per card and period; leading period_start serves the batch's per-chunk lookups
+        @UniqueConstraint(name = "uk_card_statements_period_card", columnNames = {"period_start", "card_id"})
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CardStatement {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "card_statements_seq")
+    @SequenceGenerator(name = "card_statements_seq", sequenceName = "card_statements_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "card_id", nullable = false)
+    private Long cardId;
+
+    @Column(name = "period_start", nullable = false)
+    private LocalDate periodStart;
+
+    @Column(name = "period_end", nullable = false)
+    private LocalDate periodEnd;
+
+    @Column(name = "opening_available_limit", nullable = false)
+    private double openingAvailableLimit;
+
+    @Column(name = "closing_available_limit", nullable = false)
+    private double closingAvailableLimit;
+
+    @Column(name = "transaction_count", nullable = false)
+    private long transactionCount;
+
+    @Column(name = "total_spend", nullable = false)
+    private double totalSpend;
+
+    @Column(name = "installments_due_count", nullable = false)
+    private long installmentsDueCount;
+
+    @Column(name = "installments_due_amount", nullable = false)
+    private double installmentsDueAmount;
+
+    @Column(name = "late_fees", nullable = false)
+    private double lateFees;
+
+    @Column(name = "generated_at", nullable = false)
+    private LocalDateTime generatedAt;
+}
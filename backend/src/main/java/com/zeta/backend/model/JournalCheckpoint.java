@@ -0,0 +1,25 @@
+package com.zeta.backend.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Journal position up to which transactions have been written to the database.
+ * Updated in the same database transaction as the flushed rows, so a replay after
+ * restart never applies an entry twice.
+ */
+@Entity
+@Table(name = "journal_checkpoints")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JournalCheckpoint {
+
+    @Id
+    private Long id;
+
+    @Column(name = "flushed_position", nullable = false)
+    private Long flushedPosition;
+}
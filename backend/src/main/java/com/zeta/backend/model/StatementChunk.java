@@ -0,0 +1,46 @@
+package com.zeta.backend.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Completed chunk of a statement run, written in the same database transaction as the
+ * chunk's statements, so a restarted run skips exactly the chunks that were committed.
+ * Chunk n covers card ids n * chunkSize + 1 to (n + 1) * chunkSize.
+ */
+@Entity
+@Table(name = "statement_chunks")
+@IdClass(StatementChunk.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatementChunk {
+
+    @Id
+    @Column(name = "period_start")
+    private LocalDate periodStart;
+
+    @Id
+    @Column(name = "chunk_index")
+    private Long chunkIndex;
+
+    @Column(name = "statement_count", nullable = false)
+    private int statementCount;
+
+    @Column(name = "completed_at", nullable = false)
+    private LocalDateTime completedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private LocalDate periodStart;
+        private Long chunkIndex;
+    }
+}
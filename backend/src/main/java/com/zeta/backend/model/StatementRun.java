@@ -0,0 +1,41 @@
+package com.zeta.backend.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Statement batch run of one period. Chunk size and the highest card id are fixed when the
+ * run starts, so a restarted run splits the cards into exactly the same chunks.
+ */
+@Entity
+@Table(name = "statement_runs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatementRun {
+
+    @Id
+    @Column(name = "period_start")
+    private LocalDate periodStart;
+
+    @Column(name = "chunk_size", nullable = false)
+    private int chunkSize;
+
+    @Column(name = "max_card_id", nullable = false)
+    private long maxCardId;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    public long getChunkCount() {
+        return (maxCardId + chunkSize - 1) / chunkSize;
+    }
+}
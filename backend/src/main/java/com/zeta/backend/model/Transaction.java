@@ -8,14 +8,24 @@ import lombok.NoArgsConstructor;
 
 import java.time.LocalDate;
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        // history, count and keyset reads per card
+        @Index(name = "idx_transactions_card_date", columnList = "card_id, transaction_date, id"),
+        @Index(name = "idx_transactions_bnpl_card", columnList = "is_bnpl, card_id"),
+        // search filters on one card: equality columns first, then the date range / sort column
+        @Index(name = "idx_transactions_card_category_date", columnList = "card_id, category, transaction_date"),
+        @Index(name = "idx_transactions_card_status_date", columnList = "card_id, status, transaction_date"),
+        @Index(name = "idx_transactions_card_amount", columnList = "card_id, amount")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Transaction {
 
+    // Pooled sequence instead of IDENTITY so Hibernate can batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transactions_seq")
+    @SequenceGenerator(name = "transactions_seq", sequenceName = "transactions_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "card_id", nullable = false, insertable = false, updatable = false)
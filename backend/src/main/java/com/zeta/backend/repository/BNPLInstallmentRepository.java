@@ -1,14 +1,27 @@
 package com.zeta.backend.repository;
 
+import com.zeta.backend.dto.BNPLInstallmentResponseDTO;
+import com.zeta.backend.dto.InstallmentDueRow;
+import com.zeta.backend.dto.StatementInstallmentRow;
+import com.zeta.backend.dto.StatementLateFeeRow;
 import com.zeta.backend.model.BNPLInstallment;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for BNPLInstallment entity.
@@ -16,7 +29,72 @@ import java.util.Optional;
 @Repository
 public interface BNPLInstallmentRepository extends JpaRepository<BNPLInstallment, Long> {
 
-    List<BNPLInstallment> findByTransactionId(Long transactionId);
+    // Constructor expression selecting only the BNPLInstallmentResponseDTO columns, with the accrued late fee
+    String RESPONSE_DTO = "new com.zeta.backend.dto.BNPLInstallmentResponseDTO(b.id, b.transaction.id,"
+            + " b.installmentNumber, b.amount, b.dueDate, b.isPaid, COALESCE(b.lateFee, 0.0))";
+
+    // Late fee of installment b as of :date, computed by the database the way LateFeeCalculatorService does:
+    // (flat + amount * percentage) per day late, rounded half up to cents. Only meaningful for unpaid rows
+    // with b.dueDate < :date. Rates and day count are cast so the arithmetic runs in double precision as in
+    // Java rather than exactly in decimal, which rounds differently at x.xx5. The rates are literals: a bound
+    // parameter in the per-row arithmetic makes Hibernate translate the query again on every call.
+    String DAYS_LATE = "CAST((:date - b.dueDate) BY DAY AS Double)";
+    String LATE_FEE = "ROUND((CAST(" + BNPLInstallment.DAILY_LATE_FEE_FLAT + " AS Double) * " + DAYS_LATE
+            + " + b.amount * CAST(" + BNPLInstallment.DAILY_LATE_FEE_PERCENTAGE + " AS Double) * " + DAYS_LATE
+            + ") * 100, 0) / 100";
+
+    @Query("SELECT " + RESPONSE_DTO + " FROM BNPLInstallment b")
+    List<BNPLInstallmentResponseDTO> findAllResponseDTOs();
+
+    // Forward-only stream of the same projection, for the streamed list response; consume inside a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT " + RESPONSE_DTO + " FROM BNPLInstallment b")
+    Stream<BNPLInstallmentResponseDTO> streamAllResponseDTOs();
+
+    @Query("SELECT " + RESPONSE_DTO + " FROM BNPLInstallment b WHERE b.transaction.id = :transactionId")
+    List<BNPLInstallmentResponseDTO> findResponseDTOsByTransactionId(@Param("transactionId") Long transactionId);
+
+    @Query("SELECT " + RESPONSE_DTO + " FROM BNPLInstallment b WHERE b.transaction.id = :transactionId AND b.isPaid = false")
+    List<BNPLInstallmentResponseDTO> findUnpaidResponseDTOsByTransactionId(@Param("transactionId") Long transactionId);
+
+    @Query("SELECT " + RESPONSE_DTO + " FROM BNPLInstallment b"
+            + " WHERE b.transaction.card.cardId = :cardId AND b.isPaid = false AND b.dueDate < :date")
+    List<BNPLInstallmentResponseDTO> findOverdueResponseDTOsByCardId(@Param("cardId") Long cardId,
+                                                                    @Param("date") LocalDate date);
+
+    @Query("SELECT " + RESPONSE_DTO + " FROM BNPLInstallment b"
+            + " WHERE b.transaction.cardId = :cardId AND b.dueDate BETWEEN :periodStart AND :periodEnd"
+            + " ORDER BY b.dueDate ASC, b.id ASC")
+    List<BNPLInstallmentResponseDTO> findDueResponseDTOsByCardIdBetween(@Param("cardId") Long cardId,
+                                                                       @Param("periodStart") LocalDate periodStart,
+                                                                       @Param("periodEnd") LocalDate periodEnd);
+
+    // Statement batch queries over a card id range. They start from transactions with an outer join:
+    // H2 keeps the written join order once an outer join is present, and starting from the
+    // installments would scan every unpaid / due row of the table for each chunk.
+
+    // Installments falling due in the period, per card
+    @Query("SELECT new com.zeta.backend.dto.StatementInstallmentRow(t.cardId, COUNT(b), SUM(b.amount))"
+            + " FROM Transaction t LEFT JOIN BNPLInstallment b ON b.transaction = t"
+            + " AND b.dueDate BETWEEN :periodStart AND :periodEnd"
+            + " WHERE t.cardId BETWEEN :fromCardId AND :toCardId AND b.id IS NOT NULL GROUP BY t.cardId")
+    List<StatementInstallmentRow> sumDueByCardIdBetween(@Param("fromCardId") Long fromCardId,
+                                                        @Param("toCardId") Long toCardId,
+                                                        @Param("periodStart") LocalDate periodStart,
+                                                        @Param("periodEnd") LocalDate periodEnd);
+
+    // Late fees as of the date over the installments still unpaid and due before it, per card
+    @Query("SELECT new com.zeta.backend.dto.StatementLateFeeRow(t.cardId, SUM(" + LATE_FEE + "))"
+            + " FROM Transaction t LEFT JOIN BNPLInstallment b ON b.transaction = t"
+            + " AND b.isPaid = false AND b.dueDate < :date"
+            + " WHERE t.cardId BETWEEN :fromCardId AND :toCardId AND b.id IS NOT NULL GROUP BY t.cardId")
+    List<StatementLateFeeRow> sumLateFeesByCardIdBetween(@Param("fromCardId") Long fromCardId,
+                                                         @Param("toCardId") Long toCardId,
+                                                         @Param("date") LocalDate date);
+
+    // Explicit JPQL: the derived form left-joins transactions and filters on the joined id, which defeats the index
+    @Query("SELECT b FROM BNPLInstallment b WHERE b.transaction.id = :transactionId")
+    List<BNPLInstallment> findByTransactionId(@Param("transactionId") Long transactionId);
 
     @Query("SELECT b FROM BNPLInstallment b WHERE b.transaction.id = :transactionId AND b.isPaid = false ORDER BY b.installmentNumber ASC")
     List<BNPLInstallment> getNextUnpaidInstallment(@Param("transactionId") Long transactionId);
@@ -27,14 +105,95 @@ public interface BNPLInstallmentRepository extends JpaRepository<BNPLInstallment
     @Query("SELECT b FROM BNPLInstallment b WHERE b.transaction.card.cardId = :cardId AND b.isPaid = false AND b.dueDate < :today")
     List<BNPLInstallment> findOverdueByCardId(@Param("cardId") Long cardId, @Param("today") LocalDate today);
 
-    List<BNPLInstallment> findByTransaction_IdAndIsPaidFalse(Long transactionId);
+    @Query("SELECT b FROM BNPLInstallment b WHERE b.transaction.id = :transactionId AND b.isPaid = false")
+    List<BNPLInstallment> findByTransaction_IdAndIsPaidFalse(@Param("transactionId") Long transactionId);
+
+    @Query("SELECT b FROM BNPLInstallment b WHERE b.transaction.card.cardId = :cardId AND b.isPaid = false AND b.dueDate < :date")
+    List<BNPLInstallment> findByTransaction_Card_CardIdAndIsPaidFalseAndDueDateBefore(@Param("cardId") Long cardId,
+                                                                                     @Param("date") LocalDate date);
+
+    // Unpaid principal, for the per-card spending aggregates
+    @Query("SELECT COALESCE(SUM(b.amount), 0) FROM BNPLInstallment b WHERE b.transaction.cardId = :cardId AND b.isPaid = false")
+    double sumUnpaidAmountByCardId(@Param("cardId") Long cardId);
+
+    @Query("SELECT COALESCE(SUM(b.amount), 0) FROM BNPLInstallment b WHERE b.transaction.id = :transactionId AND b.isPaid = false")
+    double sumUnpaidAmountByTransactionId(@Param("transactionId") Long transactionId);
+
+    // Late fees stored by the last accrual over the card's unpaid installments
+    @Query("SELECT COALESCE(SUM(COALESCE(b.lateFee, 0.0)), 0) FROM BNPLInstallment b"
+            + " WHERE b.transaction.cardId = :cardId AND b.isPaid = false")
+    double sumAccruedLateFeeByCardId(@Param("cardId") Long cardId);
+
+    // Late fees as of the date over the card's unpaid installments due before it
+    @Query("SELECT COALESCE(SUM(" + LATE_FEE + "), 0) FROM BNPLInstallment b"
+            + " WHERE b.transaction.cardId = :cardId AND b.isPaid = false AND b.dueDate < :date")
+    double sumLateFeeByCardId(@Param("cardId") Long cardId, @Param("date") LocalDate date);
+
+    // Overdue unpaid installments not yet accrued for the date, in id order for keyset paging
+    @Query("SELECT b.id FROM BNPLInstallment b WHERE b.isPaid = false AND b.dueDate < :date"
+            + " AND (b.lateFeeAccruedOn IS NULL OR b.lateFeeAccruedOn < :date) AND b.id > :afterId ORDER BY b.id")
+    List<Long> findIdsToAccrue(@Param("date") LocalDate date, @Param("afterId") Long afterId, Pageable pageable);
+
+    // The same installments within an id range, row-locked for the accrual
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM BNPLInstallment b WHERE b.id BETWEEN :fromId AND :toId AND b.isPaid = false"
+            + " AND b.dueDate < :date AND (b.lateFeeAccruedOn IS NULL OR b.lateFeeAccruedOn < :date)")
+    List<BNPLInstallment> findToAccrueBetweenForUpdate(@Param("fromId") Long fromId, @Param("toId") Long toId,
+                                                       @Param("date") LocalDate date);
+
+    @Query("SELECT DISTINCT b.transaction.cardId FROM BNPLInstallment b WHERE b.id IN :ids")
+    List<Long> findCardIdsByInstallmentIds(@Param("ids") Collection<Long> ids);
+
+    // Constructor expression for the installments carried by the due-date scheduler's events
+    String DUE_ROW = "new com.zeta.backend.dto.InstallmentDueRow(b.id, t.id, t.cardId, b.amount, b.dueDate)";
+
+    // Unpaid installments due on or after the date, loading the due index; consume inside a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT " + DUE_ROW + " FROM BNPLInstallment b JOIN b.transaction t"
+            + " WHERE b.isPaid = false AND b.dueDate >= :from")
+    Stream<InstallmentDueRow> streamUnpaidDueRowsFrom(@Param("from") LocalDate from);
+
+    // Unpaid installments due in the period, as they are now, by id
+    @Query("SELECT " + DUE_ROW + " FROM BNPLInstallment b JOIN b.transaction t"
+            + " WHERE b.isPaid = false AND b.dueDate BETWEEN :from AND :to ORDER BY b.id")
+    List<InstallmentDueRow> findUnpaidDueRowsBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // Payoff: the installments settled, each with its late fee as of :date, then paid by one bulk UPDATE
+    // with the same predicate. The fee collected moves to paidLateFee; paid installments accrue no fee,
+    // as LateFeeCalculatorService.accrue stores them.
+    String PAYOFF_FEE = "CASE WHEN b.dueDate < :date THEN " + LATE_FEE + " ELSE 0.0 END";
+    String PAYOFF_DTO = "new com.zeta.backend.dto.BNPLInstallmentResponseDTO(b.id, b.transaction.id,"
+            + " b.installmentNumber, b.amount, b.dueDate, b.isPaid, " + PAYOFF_FEE + ")";
+    String PAY_OFF = "UPDATE BNPLInstallment b SET b.isPaid = true, b.paidLateFee = " + PAYOFF_FEE + ","
+            + " b.lateFee = 0.0, b.daysLate = 0, b.lateFeeAccruedOn = :date WHERE b.isPaid = false";
+
+    // Pays one installment only if it is still unpaid; 0 rows means a concurrent payment got there first
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE BNPLInstallment b SET b.isPaid = true, b.paidLateFee = :paidLateFee, b.lateFee = 0.0,"
+            + " b.daysLate = 0, b.lateFeeAccruedOn = :date WHERE b.id = :id AND b.isPaid = false")
+    int markPaid(@Param("id") Long id, @Param("paidLateFee") double paidLateFee, @Param("date") LocalDate date);
+
+    @Query("SELECT " + PAYOFF_DTO + " FROM BNPLInstallment b WHERE b.transaction.id = :transactionId"
+            + " AND b.isPaid = false ORDER BY b.installmentNumber ASC")
+    List<BNPLInstallmentResponseDTO> findPayoffDTOsByTransactionId(@Param("transactionId") Long transactionId,
+                                                                  @Param("date") LocalDate date);
+
+    @Modifying
+    @Query(PAY_OFF + " AND b.transaction.id = :transactionId")
+    int payOffByTransactionId(@Param("transactionId") Long transactionId, @Param("date") LocalDate date);
+
+    // Due on the card: unpaid and due on or before :date
+    @Query("SELECT " + PAYOFF_DTO + " FROM BNPLInstallment b WHERE b.transaction.cardId = :cardId"
+            + " AND b.isPaid = false AND b.dueDate <= :date ORDER BY b.dueDate ASC, b.id ASC")
+    List<BNPLInstallmentResponseDTO> findDuePayoffDTOsByCardId(@Param("cardId") Long cardId,
+                                                              @Param("date") LocalDate date);
 
-    List<BNPLInstallment> findByTransaction_Card_CardIdAndIsPaidFalseAndDueDateBefore(Long cardId, LocalDate date);
+    @Modifying
+    @Query(PAY_OFF + " AND b.dueDate <= :date"
+            + " AND b.transaction.id IN (SELECT t.id FROM Transaction t WHERE t.cardId = :cardId)")
+    int payOffDueByCardId(@Param("cardId") Long cardId, @Param("date") LocalDate date);
 
-    /**
-     * New query to get the email of the user who owns a card.
-     * Needed for JWT authorization checks in LateFeeController.
-     */
-    @Query("SELECT b.transaction.card.user.email FROM BNPLInstallment b WHERE b.transaction.card.cardId = :cardId")
-    Optional<String> findCardOwnerEmailByCardId(@Param("cardId") Long cardId);
+    // Card of the installment's transaction, for ownership checks; may change when the installment is moved
+    @Query("SELECT t.cardId FROM BNPLInstallment b JOIN b.transaction t WHERE b.id = :id")
+    Optional<Long> findCardIdById(@Param("id") Long id);
 }
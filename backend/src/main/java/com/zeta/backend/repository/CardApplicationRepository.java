@@ -2,6 +2,8 @@ package com.zeta.backend.repository;
 
 import com.zeta.backend.model.CardApplication;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -9,8 +11,13 @@ import java.util.List;
 @Repository
 public interface CardApplicationRepository extends JpaRepository<CardApplication, Long> {
 
-    boolean existsByUserUserIdAndCardTypeAndRequestedLimit(Long userId, String cardType, Double requestedLimit);
+    // Explicit JPQL so the filter stays on card_applications.user_id (no user_profiles join)
+    @Query("SELECT COUNT(a) > 0 FROM CardApplication a WHERE a.user.userId = :userId AND a.cardType = :cardType AND a.requestedLimit = :requestedLimit")
+    boolean existsByUserUserIdAndCardTypeAndRequestedLimit(@Param("userId") Long userId,
+                                                           @Param("cardType") String cardType,
+                                                           @Param("requestedLimit") Double requestedLimit);
 
-    List<CardApplication> findByUserUserId(Long userId);
+    @Query("SELECT a FROM CardApplication a WHERE a.user.userId = :userId")
+    List<CardApplication> findByUserUserId(@Param("userId") Long userId);
 
 }
@@ -1,13 +1,62 @@
 package com.zeta.backend.repository;
 
+import com.zeta.backend.dto.CardDTO;
+import com.zeta.backend.dto.StatementCardRow;
 import com.zeta.backend.model.Card;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface CardRepository extends JpaRepository<Card, Long> {
-    List<Card> findByApplicationUserUserId(Long userId);
+    // Filters on card_applications.user_id directly instead of joining user_profiles
+    @Query("SELECT c FROM Card c WHERE c.application.user.userId = :userId")
+    List<Card> findByApplicationUserUserId(@Param("userId") Long userId);
+
+    // CardDTO projection of a user's cards: card columns plus the holder name, in one query.
+    // Starts from the user's applications: H2 keeps the written join order once an outer
+    // join is present, and starting from card would scan the whole table.
+    @Query("SELECT new com.zeta.backend.dto.CardDTO(c.cardId, c.cardNumber, c.cardType, c.status, c.creditLimit,"
+            + " c.availableLimit, c.expiryDate, COALESCE(u.fullName, 'Unknown'), c.cvv)"
+            + " FROM CardApplication a JOIN Card c ON c.application = a LEFT JOIN c.user u"
+            + " WHERE a.user.userId = :userId")
+    List<CardDTO> findCardDTOsByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT c.user.email FROM Card c WHERE c.cardId = :cardId")
+    Optional<String> findOwnerEmailByCardId(@Param("cardId") Long cardId);
+
+    // Ownership checks: scalar reads, no entity is loaded
+    @Query("SELECT c.cardId FROM Card c WHERE c.user.email = :email")
+    List<Long> findCardIdsByOwnerEmail(@Param("email") String email);
+
+    @Query("SELECT c.cardType FROM Card c WHERE c.cardId = :cardId")
+    Optional<String> findCardTypeByCardId(@Param("cardId") Long cardId);
+
+    // Row lock on the card for the rest of the transaction; serializes writers of its spending aggregates
+    @Query(value = "SELECT card_id FROM card WHERE card_id = :cardId FOR UPDATE", nativeQuery = true)
+    Optional<Long> lockById(@Param("cardId") Long cardId);
+
+    // Same row lock, returning the available limit as it stands once the lock is held
+    @Query(value = "SELECT available_limit FROM card WHERE card_id = :cardId FOR UPDATE", nativeQuery = true)
+    Optional<Double> lockAvailableLimitById(@Param("cardId") Long cardId);
+
+    // Keyset pages of card ids, for jobs that walk every card
+    @Query("SELECT c.cardId FROM Card c WHERE c.cardId > :afterId ORDER BY c.cardId")
+    List<Long> findCardIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT MAX(c.cardId) FROM Card c")
+    Optional<Long> findMaxCardId();
+
+    // Available limits of a card id range, for the statement batch
+    @Query("SELECT new com.zeta.backend.dto.StatementCardRow(c.cardId, c.availableLimit) FROM Card c"
+            + " WHERE c.cardId BETWEEN :fromId AND :toId ORDER BY c.cardId")
+    List<StatementCardRow> findAvailableLimitsBetween(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
     Optional<Card> findByCardNumberAndCvvAndExpiryMonthAndExpiryYearAndUserEmail(
             String cardNumber,
             String cvv,
@@ -15,4 +64,28 @@ public interface CardRepository extends JpaRepository<Card, Long> {
             String expiryYear,
             String userEmail
     );
+
+    // Atomically debits the available limit, only if enough limit remains; returns rows updated
+    @Modifying
+    @Query("UPDATE Card c SET c.availableLimit = c.availableLimit - :amount WHERE c.cardId = :cardId AND c.availableLimit >= :amount")
+    int debitAvailableLimit(@Param("cardId") Long cardId, @Param("amount") double amount);
+
+    // Sets a new credit limit and moves the available limit by the same difference, in one statement so
+    // concurrent debits are kept; the persistence context is cleared so the card is read back as updated
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Card c SET c.availableLimit = c.availableLimit + (:newLimit - c.creditLimit),"
+            + " c.creditLimit = :newLimit WHERE c.cardId = :cardId")
+    int updateCreditLimit(@Param("cardId") Long cardId, @Param("newLimit") double newLimit);
+
+    @Query("SELECT c.availableLimit FROM Card c WHERE c.cardId = :cardId")
+    Optional<Double> findAvailableLimitById(@Param("cardId") Long cardId);
+
+    // Applies an already-authorized debit (journal flush); no limit check, see findOverdrawnIds
+    @Modifying
+    @Query("UPDATE Card c SET c.availableLimit = c.availableLimit - :amount WHERE c.cardId = :cardId")
+    int applyAuthorizedDebit(@Param("cardId") Long cardId, @Param("amount") double amount);
+
+    // Cards among the given ones whose available limit is below zero
+    @Query("SELECT c.cardId FROM Card c WHERE c.cardId IN :cardIds AND c.availableLimit < 0")
+    List<Long> findOverdrawnIds(@Param("cardIds") Collection<Long> cardIds);
 }
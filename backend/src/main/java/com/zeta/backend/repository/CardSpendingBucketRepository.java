@@ -0,0 +1,22 @@
+package com.zeta.backend.repository;
+
+import com.zeta.backend.model.CardSpendingBucket;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface CardSpendingBucketRepository extends JpaRepository<CardSpendingBucket, CardSpendingBucket.Key> {
+
+    // All category and month buckets of a card; a primary-key prefix range
+    @Query("SELECT b FROM CardSpendingBucket b WHERE b.cardId = :cardId")
+    List<CardSpendingBucket> findByCardId(@Param("cardId") Long cardId);
+
+    @Modifying
+    @Query("DELETE FROM CardSpendingBucket b WHERE b.cardId = :cardId")
+    int deleteByCardId(@Param("cardId") Long cardId);
+}
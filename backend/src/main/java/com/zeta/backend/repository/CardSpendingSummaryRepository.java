@@ -0,0 +1,20 @@
+package com.zeta.backend.repository;
+
+import com.zeta.backend.model.CardSpendingSummary;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface CardSpendingSummaryRepository extends JpaRepository<CardSpendingSummary, Long> {
+
+    // Cards that have never been aggregated (created before the table existed), for backfill
+    @Query("SELECT c.cardId FROM Card c WHERE c.cardId > :afterId"
+            + " AND NOT EXISTS (SELECT s.cardId FROM CardSpendingSummary s WHERE s.cardId = c.cardId)"
+            + " ORDER BY c.cardId")
+    List<Long> findCardIdsWithoutSummary(@Param("afterId") Long afterId, Pageable pageable);
+}
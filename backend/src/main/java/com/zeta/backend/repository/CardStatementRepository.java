@@ -0,0 +1,16 @@
+package com.zeta.backend.repository;
+
+import com.zeta.backend.model.CardStatement;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+@Repository
+public interface CardStatementRepository extends JpaRepository<CardStatement, Long> {
+
+    Optional<CardStatement> findByPeriodStartAndCardId(LocalDate periodStart, Long cardId);
+
+    long countByPeriodStart(LocalDate periodStart);
+}
@@ -0,0 +1,34 @@
+package com.zeta.backend.repository;
+
+import com.zeta.backend.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    // Plain insert rather than save(), which merges: a key recorded concurrently must fail, not be overwritten
+    @Modifying
+    @Query("INSERT INTO IdempotencyRecord (recordKey, requestHash, statusCode, responseBody, createdAt)"
+            + " VALUES (:recordKey, :requestHash, :statusCode, :responseBody, :createdAt)")
+    int insert(@Param("recordKey") String recordKey, @Param("requestHash") String requestHash,
+               @Param("statusCode") int statusCode, @Param("responseBody") String responseBody,
+               @Param("createdAt") LocalDateTime createdAt);
+
+    // Removes one key's record if it is older than the idempotency window, so the key can be recorded again
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.recordKey = :recordKey AND r.createdAt < :cutoff")
+    int deleteExpired(@Param("recordKey") String recordKey, @Param("cutoff") LocalDateTime cutoff);
+
+    // Removes stored responses older than the idempotency window
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
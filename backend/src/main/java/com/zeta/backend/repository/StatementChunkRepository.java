@@ -0,0 +1,18 @@
+package com.zeta.backend.repository;
+
+import com.zeta.backend.model.StatementChunk;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+@Repository
+public interface StatementChunkRepository extends JpaRepository<StatementChunk, StatementChunk.Key> {
+
+    // Chunks already committed for the period, skipped when a run is restarted
+    @Query("SELECT c.chunkIndex FROM StatementChunk c WHERE c.periodStart = :periodStart")
+    Set<Long> findCompletedChunkIndexes(@Param("periodStart") LocalDate periodStart);
+}
@@ -0,0 +1,11 @@
+package com.zeta.backend.repository;
+
+import com.zeta.backend.model.StatementRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+
+@Repository
+public interface StatementRunRepository extends JpaRepository<StatementRun, LocalDate> {
+}
@@ -1,17 +1,79 @@
 package com.zeta.backend.repository;
 
+import com.zeta.backend.dto.StatementSpendRow;
+import com.zeta.backend.dto.TransactionColumnRow;
+import com.zeta.backend.dto.TransactionResponseDTO;
 import com.zeta.backend.model.Transaction;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for managing Transaction entities.
- * Includes derived queries for counting and filtering transactions.
+ * Includes derived queries for counting and filtering transactions; dynamic searches
+ * come from the TransactionSearchRepository fragment.
  */
 @Repository
-public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+public interface TransactionRepository extends JpaRepository<Transaction, Long>, TransactionSearchRepository {
+
+    // Constructor expression selecting only the TransactionResponseDTO columns (no Card graph)
+    String RESPONSE_DTO = "new com.zeta.backend.dto.TransactionResponseDTO(t.id, t.cardId, t.amount, t.category,"
+            + " t.merchantName, t.transactionDate, t.status, t.isBNPL)";
+
+    // Grouped totals of one card, used to rebuild its spending aggregates
+    @Query("SELECT t.category AS category, COUNT(t) AS transactionCount, SUM(t.amount) AS totalSpend"
+            + " FROM Transaction t WHERE t.cardId = :cardId GROUP BY t.category")
+    List<CategoryTotals> sumSpendByCategory(@Param("cardId") Long cardId);
+
+    @Query("SELECT YEAR(t.transactionDate) AS year, MONTH(t.transactionDate) AS month,"
+            + " COUNT(t) AS transactionCount, SUM(t.amount) AS totalSpend"
+            + " FROM Transaction t WHERE t.cardId = :cardId AND t.transactionDate IS NOT NULL"
+            + " GROUP BY YEAR(t.transactionDate), MONTH(t.transactionDate)")
+    List<MonthlyTotals> sumSpendByMonth(@Param("cardId") Long cardId);
+
+    // Per-card spend of a card id range from periodStart on, split at periodEnd, for the statement batch
+    @Query("SELECT new com.zeta.backend.dto.StatementSpendRow(t.cardId,"
+            + " COUNT(CASE WHEN t.transactionDate <= :periodEnd THEN 1 END),"
+            + " SUM(CASE WHEN t.transactionDate <= :periodEnd THEN t.amount ELSE 0.0 END),"
+            + " SUM(CASE WHEN t.transactionDate > :periodEnd THEN t.amount ELSE 0.0 END))"
+            + " FROM Transaction t WHERE t.cardId BETWEEN :fromCardId AND :toCardId"
+            + " AND t.transactionDate >= :periodStart GROUP BY t.cardId")
+    List<StatementSpendRow> sumStatementTotals(@Param("fromCardId") Long fromCardId,
+                                               @Param("toCardId") Long toCardId,
+                                               @Param("periodStart") LocalDate periodStart,
+                                               @Param("periodEnd") LocalDate periodEnd);
+
+    // Statement lines of one card, oldest first; served by idx_transactions_card_date
+    @Query("SELECT " + RESPONSE_DTO + " FROM Transaction t WHERE t.cardId = :cardId"
+            + " AND t.transactionDate BETWEEN :periodStart AND :periodEnd ORDER BY t.transactionDate ASC, t.id ASC")
+    List<TransactionResponseDTO> findResponseDTOsByCardIdBetween(@Param("cardId") Long cardId,
+                                                                @Param("periodStart") LocalDate periodStart,
+                                                                @Param("periodEnd") LocalDate periodEnd);
+
+    // Transactions per card owner and merchant name, to build the per-user merchant autocomplete indexes
+    @Query("SELECT u.email AS ownerEmail, t.merchantName AS merchantName, COUNT(t) AS transactionCount"
+            + " FROM Transaction t JOIN t.card c JOIN c.user u"
+            + " WHERE t.merchantName IS NOT NULL GROUP BY u.email, t.merchantName")
+    List<MerchantCount> countByOwnerAndMerchantName();
+
+    // Keyset pages of the analysed columns with the card type, to load the columnar analytics store
+    @Query("SELECT new com.zeta.backend.dto.TransactionColumnRow(t.id, t.cardId, c.cardType, t.transactionDate,"
+            + " t.amount, t.category, t.merchantName, t.isBNPL) FROM Transaction t JOIN t.card c"
+            + " WHERE t.id > :afterId ORDER BY t.id")
+    List<TransactionColumnRow> findColumnRowsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT t.cardId FROM Transaction t WHERE t.id = :id")
+    Optional<Long> findCardIdById(@Param("id") Long id);
 
     // Counts the number of transactions for a specific card
     Long countByCardId(Long cardId);
@@ -21,4 +83,58 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
 
     // Retrieves all transactions that are marked as BNPL (Buy Now Pay Later)
     List<Transaction> findByIsBNPLTrue();
+
+    // Projections of a card's history and of all transactions, for the list endpoints
+    @Query("SELECT " + RESPONSE_DTO + " FROM Transaction t WHERE t.cardId = :cardId")
+    List<TransactionResponseDTO> findResponseDTOsByCardId(@Param("cardId") Long cardId);
+
+    @Query("SELECT " + RESPONSE_DTO + " FROM Transaction t")
+    List<TransactionResponseDTO> findAllResponseDTOs();
+
+    // Forward-only streams of the same projections, for the streamed list responses; consume inside a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT " + RESPONSE_DTO + " FROM Transaction t WHERE t.cardId = :cardId")
+    Stream<TransactionResponseDTO> streamResponseDTOsByCardId(@Param("cardId") Long cardId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT " + RESPONSE_DTO + " FROM Transaction t")
+    Stream<TransactionResponseDTO> streamAllResponseDTOs();
+
+    // First page of a card's history, newest first; served by idx_transactions_card_date
+    @Query("SELECT " + RESPONSE_DTO + " FROM Transaction t WHERE t.cardId = :cardId ORDER BY t.transactionDate DESC, t.id DESC")
+    List<TransactionResponseDTO> findHistoryPage(@Param("cardId") Long cardId, Pageable pageable);
+
+    // Page after the keyset (date, id); the <= bound lets the index seek straight to the cursor
+    @Query("SELECT " + RESPONSE_DTO + " FROM Transaction t WHERE t.cardId = :cardId AND t.transactionDate <= :date"
+            + " AND (t.transactionDate < :date OR t.id < :id)"
+            + " ORDER BY t.transactionDate DESC, t.id DESC")
+    List<TransactionResponseDTO> findHistoryPageAfter(@Param("cardId") Long cardId,
+                                                      @Param("date") LocalDate date,
+                                                      @Param("id") Long id,
+                                                      Pageable pageable);
+
+    // Forward-only stream of a card's full history, oldest first, as projections so no entity
+    // (or its card) is loaded; must be consumed inside a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT " + RESPONSE_DTO + " FROM Transaction t WHERE t.cardId = :cardId ORDER BY t.transactionDate ASC, t.id ASC")
+    Stream<TransactionResponseDTO> streamHistoryByCardId(@Param("cardId") Long cardId);
+
+    interface MerchantCount {
+        String getOwnerEmail();
+        String getMerchantName();
+        long getTransactionCount();
+    }
+
+    interface CategoryTotals {
+        String getCategory();
+        long getTransactionCount();
+        double getTotalSpend();
+    }
+
+    interface MonthlyTotals {
+        int getYear();
+        int getMonth();
+        long getTransactionCount();
+        double getTotalSpend();
+    }
 }
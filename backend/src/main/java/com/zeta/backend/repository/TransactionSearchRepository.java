@@ -0,0 +1,17 @@
+package com.zeta.backend.repository;
+
+import com.zeta.backend.dto.TransactionResponseDTO;
+import com.zeta.backend.model.Transaction;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Custom fragment of TransactionRepository for dynamic searches that return
+ * TransactionResponseDTO projections rather than entities.
+ */
+public interface TransactionSearchRepository {
+
+    // One page of the transactions matching the specification, in the pageable's sort order
+    Page<TransactionResponseDTO> searchResponseDTOs(Specification<Transaction> specification, Pageable pageable);
+}
@@ -0,0 +1,91 @@
+package com.zeta.backend.repository;
+
+import com.zeta.backend.dto.TransactionSearchCriteria;
+import com.zeta.backend.model.Transaction;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.Locale;
+
+/**
+ * Specifications over Transaction for the search endpoint. Each one restricts a single
+ * column, so filters combine into one WHERE clause; null arguments yield no restriction.
+ */
+public final class TransactionSpecifications {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private TransactionSpecifications() {
+    }
+
+    /**
+     * All filters of the criteria on one card's transactions.
+     */
+    public static Specification<Transaction> matching(Long cardId, TransactionSearchCriteria criteria) {
+        return Specification.where(cardIdEquals(cardId))
+                .and(dateFrom(criteria.getFrom()))
+                .and(dateTo(criteria.getTo()))
+                .and(categoryEquals(criteria.getCategory()))
+                .and(merchantContains(criteria.getMerchant()))
+                .and(amountAtLeast(criteria.getMinAmount()))
+                .and(amountAtMost(criteria.getMaxAmount()))
+                .and(bnplEquals(criteria.getBnpl()))
+                .and(statusEquals(criteria.getStatus()));
+    }
+
+    public static Specification<Transaction> cardIdEquals(Long cardId) {
+        return (root, query, cb) -> cb.equal(root.get("cardId"), cardId);
+    }
+
+    public static Specification<Transaction> dateFrom(LocalDate from) {
+        return from == null ? null : (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("transactionDate"), from);
+    }
+
+    public static Specification<Transaction> dateTo(LocalDate to) {
+        return to == null ? null : (root, query, cb) -> cb.lessThanOrEqualTo(root.get("transactionDate"), to);
+    }
+
+    public static Specification<Transaction> categoryEquals(String category) {
+        return isBlank(category) ? null : (root, query, cb) -> cb.equal(root.get("category"), category.trim());
+    }
+
+    // A leading wildcard cannot use a B-tree index; it is applied to the rows the other filters select
+    public static Specification<Transaction> merchantContains(String merchant) {
+        if (isBlank(merchant)) {
+            return null;
+        }
+        String pattern = "%" + escapeLike(merchant.trim().toLowerCase(Locale.ROOT)) + "%";
+        return (root, query, cb) -> cb.like(cb.lower(root.get("merchantName")), pattern, LIKE_ESCAPE);
+    }
+
+    public static Specification<Transaction> amountAtLeast(Double min) {
+        return min == null ? null : (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("amount"), min);
+    }
+
+    public static Specification<Transaction> amountAtMost(Double max) {
+        return max == null ? null : (root, query, cb) -> cb.lessThanOrEqualTo(root.get("amount"), max);
+    }
+
+    public static Specification<Transaction> bnplEquals(Boolean bnpl) {
+        return bnpl == null ? null : (root, query, cb) -> cb.equal(root.get("isBNPL"), bnpl);
+    }
+
+    public static Specification<Transaction> statusEquals(String status) {
+        return isBlank(status) ? null : (root, query, cb) -> cb.equal(root.get("status"), status.trim());
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static String escapeLike(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (char c : value.toCharArray()) {
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+                escaped.append(LIKE_ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
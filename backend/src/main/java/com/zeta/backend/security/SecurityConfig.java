@@ -1,13 +1,17 @@
 package com.zeta.backend.security;
 
 import com.zeta.backend.security.JwtFilter;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authorization.AuthorizationDecision;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -18,9 +22,12 @@ import java.util.List;
 public class SecurityConfig {
 
     private final JwtFilter jwtFilter;
+    private final List<IpAddressMatcher> scraperAddresses;
 
-    public SecurityConfig(JwtFilter jwtFilter) {
+    public SecurityConfig(JwtFilter jwtFilter,
+                          @Value("${management.prometheus.allowed-addresses:127.0.0.1,::1}") List<String> scraperAddresses) {
         this.jwtFilter = jwtFilter;
+        this.scraperAddresses = scraperAddresses.stream().map(IpAddressMatcher::new).toList();
     }
 
     @Bean
@@ -39,6 +46,14 @@ public class SecurityConfig {
 
                 // Authorization rules
                 .authorizeHttpRequests(auth -> auth
+                        // Completion dispatch of streamed responses; the original request was already authorized
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
+                        // Metrics only for the Prometheus scraper's addresses, without a token
+                        .requestMatchers("/actuator/prometheus", "/actuator/metrics", "/actuator/metrics/**").access((authentication, context) ->
+                                new AuthorizationDecision(scraperAddresses.stream()
+                                        .anyMatch(matcher -> matcher.matches(context.getRequest()))))
+
                         // Public endpoints (no token needed)
                         .requestMatchers(
                                 "/api/profile/login",
@@ -46,7 +61,8 @@ public class SecurityConfig {
                                 "/api/auth/forgot-password",
                                 "/api/auth/verify-otp",
                                 "/api/auth/reset-password",
-                                "/h2-console/**"           // Allow H2 console
+                                "/h2-console/**",          // Allow H2 console
+                                "/actuator/health"
                         ).permitAll()
 
                         // Everything else needs authentication
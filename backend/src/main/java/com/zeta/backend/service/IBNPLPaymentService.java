@@ -3,6 +3,8 @@ package com.zeta.backend.service;
 import com.zeta.backend.dto.BNPLInstallmentCreateDTO;
 import com.zeta.backend.dto.BNPLInstallmentResponseDTO;
 import com.zeta.backend.dto.BNPLInstallmentUpdateDTO;
+import com.zeta.backend.dto.BNPLPayoffResponseDTO;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -23,6 +25,24 @@ public interface IBNPLPaymentService {
      */
     BNPLInstallmentResponseDTO payInstallment(Long installmentId, Double amount, String userEmail);
 
+    /**
+     * Pay all remaining installments of a transaction at once.
+     * Only the owner of the card/transaction can pay.
+     * @param transactionId Transaction ID.
+     * @param userEmail Email of the authenticated user (from JWT).
+     * @return Totals settled, late fees included, and the installments paid.
+     */
+    BNPLPayoffResponseDTO payOffTransaction(Long transactionId, String userEmail);
+
+    /**
+     * Pay all installments due on a card up to today, overdue ones included.
+     * Only the owner of the card can pay.
+     * @param cardId Card ID.
+     * @param userEmail Email of the authenticated user (from JWT).
+     * @return Totals settled, late fees included, and the installments paid.
+     */
+    BNPLPayoffResponseDTO payOffDueByCard(Long cardId, String userEmail);
+
     /**
      * Fetch pending (unpaid) installments for a transaction.
      * User can only fetch installments of their own transactions.
@@ -48,6 +68,12 @@ public interface IBNPLPaymentService {
      */
     List<BNPLInstallmentResponseDTO> getAllInstallments();
 
+    /**
+     * Admin-level method: all installments, with late fees, written as a streamed JSON array.
+     * @return body streaming the installments.
+     */
+    StreamingResponseBody streamAllInstallments();
+
     /**
      * Get a specific installment by its ID.
      * Admin-level or used internally.
@@ -0,0 +1,15 @@
+package com.zeta.backend.service;
+
+import com.zeta.backend.dto.CardSpendingSummaryDTO;
+
+public interface ICardSpendingService {
+
+    // Running spending totals of a card, read from its aggregate rows (checks ownership)
+    CardSpendingSummaryDTO getSpendingSummary(Long cardId, String userEmail);
+
+    // Number of transactions on a card, without counting its rows
+    long getTransactionCount(Long cardId);
+
+    // Recomputes a card's aggregates from its transactions and installments; false if the card does not exist
+    boolean rebuildCard(Long cardId);
+}
@@ -0,0 +1,11 @@
+package com.zeta.backend.service;
+
+import com.zeta.backend.dto.CardStatementDTO;
+
+import java.time.YearMonth;
+
+public interface IStatementService {
+
+    // Generated statement of a card for the month, with its transactions and installments due (checks ownership)
+    CardStatementDTO getStatement(Long cardId, YearMonth month, String userEmail);
+}
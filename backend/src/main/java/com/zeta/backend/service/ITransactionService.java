@@ -1,9 +1,14 @@
 package com.zeta.backend.service;
 
+import com.zeta.backend.dto.TransactionBatchResponseDTO;
 import com.zeta.backend.dto.TransactionCreateDTO;
+import com.zeta.backend.dto.TransactionPageDTO;
 import com.zeta.backend.dto.TransactionResponseDTO;
+import com.zeta.backend.dto.TransactionSearchCriteria;
+import com.zeta.backend.dto.TransactionSearchResultDTO;
 import com.zeta.backend.dto.TransactionUpdateDTO;
 import com.zeta.backend.enums.InstallmentPlan;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -15,12 +20,28 @@ public interface ITransactionService {
     // Simulates a BNPL transaction
     TransactionResponseDTO simulateBNPLTransaction(TransactionCreateDTO transaction, InstallmentPlan plan, String userEmail);
 
+    // Simulates a batch of regular transactions, reporting a result per item
+    TransactionBatchResponseDTO simulateRegularTransactionBatch(List<TransactionCreateDTO> transactions, String userEmail);
+
     // Get transaction history for a card (checks ownership)
     List<TransactionResponseDTO> getTransactionHistoryByCardId(Long cardId, String userEmail);
 
+    // Same history written as a streamed JSON array (checks ownership before returning the body)
+    StreamingResponseBody streamTransactionHistoryByCardId(Long cardId, String userEmail);
+
+    // Get one keyset page of a card's history, newest first (checks ownership)
+    TransactionPageDTO getTransactionHistoryPage(Long cardId, String cursor, Integer size, String userEmail);
+
+    // Search a card's transactions with optional filters, paged and sorted (checks ownership)
+    TransactionSearchResultDTO searchTransactions(Long cardId, TransactionSearchCriteria criteria, Integer page,
+                                                  Integer size, String sort, String direction, String userEmail);
+
     // Get all transactions (admin access usually, no email needed)
     List<TransactionResponseDTO> getAllTransactions();
 
+    // All transactions written as a streamed JSON array
+    StreamingResponseBody streamAllTransactions();
+
     // Get a transaction by ID (checks ownership)
     TransactionResponseDTO getTransactionById(Long id, String userEmail);
 
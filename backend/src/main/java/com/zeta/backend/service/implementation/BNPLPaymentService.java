@@ -3,12 +3,12 @@ package com.zeta.backend.service.implementation;
 import com.zeta.backend.dto.BNPLInstallmentCreateDTO;
 import com.zeta.backend.dto.BNPLInstallmentResponseDTO;
 import com.zeta.backend.dto.BNPLInstallmentUpdateDTO;
+import com.zeta.backend.dto.BNPLPayoffResponseDTO;
 import com.zeta.backend.exception.BadRequestException;
 import com.zeta.backend.exception.ResourceNotFoundException;
 import com.zeta.backend.model.BNPLInstallment;
 import com.zeta.backend.model.Transaction;
 import com.zeta.backend.repository.BNPLInstallmentRepository;
-import com.zeta.backend.repository.CardRepository;
 import com.zeta.backend.repository.TransactionRepository;
 import com.zeta.backend.service.IBNPLPaymentService;
 import lombok.RequiredArgsConstructor;
@@ -17,10 +17,13 @@ import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 
 /**
  * Service implementation for managing BNPL installments, handling payments and queries.
@@ -35,7 +38,11 @@ public class BNPLPaymentService implements IBNPLPaymentService {
     private final BNPLInstallmentRepository installmentRepository;
     private final TransactionRepository transactionRepository;
     private final LateFeeCalculatorService lateFeeCalculatorService;
-    private final CardRepository cardRepository;
+    private final OwnershipService ownershipService;
+    private final CardSpendingService cardSpendingService;
+    private final ResourceVersionService resourceVersionService;
+    private final InstallmentDueScheduler installmentDueScheduler;
+    private final JsonArrayStreamingService jsonArrayStreamingService;
 
     /**
      * Processes a payment for an installment, marking it as paid if the amount is valid.
@@ -52,7 +59,10 @@ public class BNPLPaymentService implements IBNPLPaymentService {
         BNPLInstallment installment = installmentRepository.findById(installmentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Installment not found"));
 
-        if (!installment.getTransaction().getCard().getUser().getEmail().equals(userEmail)) {
+        // the transaction's id is on the installment row, so its card comes without loading the transaction
+        Long cardId = ownershipService.transactionCardId(installment.getTransaction().getId())
+                .orElseThrow(() -> new ResourceNotFoundException("Transaction not found"));
+        if (!ownershipService.ownsCard(cardId, userEmail)) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Unauthorized to pay this installment");
         }
 
@@ -64,11 +74,108 @@ public class BNPLPaymentService implements IBNPLPaymentService {
             throw new BadRequestException("Payment amount must match installment amount");
         }
 
+        LocalDate today = LocalDate.now();
+        double lateFee = lateFeeCalculatorService.calculateLateFee(installmentId, installment.getAmount(),
+                installment.getDueDate(), false, today);
+        // conditional on the row still being unpaid, so two concurrent payments cannot both reduce the principal
+        if (installmentRepository.markPaid(installmentId, lateFee, today) == 0) {
+            throw new BadRequestException("Installment is already paid");
+        }
         installment.setIsPaid(true);
-        BNPLInstallment saved = installmentRepository.save(installment);
-        return mapToResponseDTO(saved);
+        installment.setPaidLateFee(lateFee);
+        lateFeeCalculatorService.accrue(installment, today);
+        cardSpendingService.adjustOutstandingPrincipal(cardId, -installment.getAmount());
+        installmentDueScheduler.unschedule(installment.getId(), installment.getDueDate());
+        resourceVersionService.cardChanged(cardId);
+        return mapToResponseDTO(installment);
+    }
+
+
+    /**
+     * Pays every unpaid installment of a transaction in one database transaction.
+     * The installments are read with their late fees as of today and then paid by a single bulk UPDATE.
+     * @param transactionId ID of the transaction to pay off.
+     * @return BNPLPayoffResponseDTO with the settled principal, late fees and installments.
+     * @throws ResourceNotFoundException if the transaction is not found.
+     * @throws BadRequestException if the transaction has no unpaid installments.
+     */
+    @Override
+    @Transactional
+    public BNPLPayoffResponseDTO payOffTransaction(Long transactionId, String userEmail) {
+        log.info("Paying off installments of transaction ID: {}", transactionId);
+        Long cardId = ownershipService.transactionCardId(transactionId)
+                .orElseThrow(() -> new ResourceNotFoundException("Transaction not found"));
+        if (!ownershipService.ownsCard(cardId, userEmail)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Unauthorized to pay these installments");
+        }
+
+        LocalDate today = LocalDate.now();
+        List<BNPLInstallmentResponseDTO> installments = installmentRepository.findPayoffDTOsByTransactionId(transactionId, today);
+        if (installments.isEmpty()) {
+            throw new BadRequestException("Transaction has no unpaid installments");
+        }
+        int paid = installmentRepository.payOffByTransactionId(transactionId, today);
+        return settlePayoff(cardId, transactionId, today, installments, paid);
+    }
+
+    /**
+     * Pays every unpaid installment due on a card up to today, overdue ones included, in one
+     * database transaction with a single bulk UPDATE.
+     * @param cardId ID of the card to pay off.
+     * @return BNPLPayoffResponseDTO with the settled principal, late fees and installments.
+     * @throws ResourceNotFoundException if the card is not found.
+     * @throws BadRequestException if nothing is due on the card.
+     */
+    @Override
+    @Transactional
+    public BNPLPayoffResponseDTO payOffDueByCard(Long cardId, String userEmail) {
+        log.info("Paying off installments due on card ID: {}", cardId);
+        if (!ownershipService.ownsCard(cardId, userEmail)) {
+            if (!ownershipService.cardExists(cardId)) {
+                throw new ResourceNotFoundException("Card not found");
+            }
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Unauthorized to pay these installments");
+        }
+
+        LocalDate today = LocalDate.now();
+        List<BNPLInstallmentResponseDTO> installments = installmentRepository.findDuePayoffDTOsByCardId(cardId, today);
+        if (installments.isEmpty()) {
+            throw new BadRequestException("No installments are due on this card");
+        }
+        int paid = installmentRepository.payOffDueByCardId(cardId, today);
+        return settlePayoff(cardId, null, today, installments, paid);
     }
 
+    // Applies a payoff's bulk UPDATE to the card's aggregates and returns its totals. The UPDATE
+    // repeats the read's predicate; a different row count means an installment was paid, added or
+    // moved in between, and the whole payoff is rolled back rather than reporting the wrong totals.
+    private BNPLPayoffResponseDTO settlePayoff(Long cardId, Long transactionId, LocalDate today,
+                                               List<BNPLInstallmentResponseDTO> installments, int paid) {
+        if (paid != installments.size()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Installments changed during payoff, please retry");
+        }
+        double principal = 0;
+        double lateFees = 0;
+        for (BNPLInstallmentResponseDTO installment : installments) {
+            principal += installment.getAmount();
+            lateFees += installment.getLateFee();
+            installment.setIsPaid(true);
+            installmentDueScheduler.unschedule(installment.getId(), installment.getDueDate());
+        }
+        cardSpendingService.adjustOutstandingPrincipal(cardId, -principal);
+        resourceVersionService.cardChanged(cardId);
+        log.info("Paid off {} installments on card ID: {}", paid, cardId);
+        return BNPLPayoffResponseDTO.builder()
+                .cardId(cardId)
+                .transactionId(transactionId)
+                .paidOn(today)
+                .installmentsPaid(paid)
+                .principalPaid(round(principal))
+                .lateFeesPaid(round(lateFees))
+                .totalPaid(round(principal + lateFees))
+                .installments(installments)
+                .build();
+    }
 
     /**
      * Retrieves pending (unpaid) installments for a specific transaction, ordered by installment number.
@@ -78,15 +185,12 @@ public class BNPLPaymentService implements IBNPLPaymentService {
     @Override
     public List<BNPLInstallmentResponseDTO> getPendingInstallmentsByTransactionId(Long transactionId, String userEmail) {
         log.info("Fetching pending installments for transaction ID: {}", transactionId);
-        Transaction transaction = transactionRepository.findById(transactionId)
+        Long cardId = ownershipService.transactionCardId(transactionId)
                 .orElseThrow(() -> new ResourceNotFoundException("Transaction not found"));
-        if (!transaction.getCard().getUser().getEmail().equals(userEmail)) {
+        if (!ownershipService.ownsCard(cardId, userEmail)) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Unauthorized to view installments");
         }
-        List<BNPLInstallment> installments = installmentRepository.findByTransaction_IdAndIsPaidFalse(transactionId);
-        return installments.stream()
-                .map(this::mapToResponseDTO)
-                .collect(Collectors.toList());
+        return installmentRepository.findUnpaidResponseDTOsByTransactionId(transactionId);
     }
 
 
@@ -98,22 +202,15 @@ public class BNPLPaymentService implements IBNPLPaymentService {
     @Override
     public List<BNPLInstallmentResponseDTO> getOverdueInstallmentsByCardId(Long cardId, String userEmail) {
         log.info("Fetching overdue installments for card ID: {}", cardId);
-        // You need a way to fetch the card owner email from cardId, assuming you have CardRepository
-        // Example:
-        String cardOwnerEmail = cardRepository.findById(cardId)
-                .orElseThrow(() -> new ResourceNotFoundException("Card not found"))
-                .getUser().getEmail();
-        if (!cardOwnerEmail.equals(userEmail)) {
+        if (!ownershipService.ownsCard(cardId, userEmail)) {
+            if (!ownershipService.cardExists(cardId)) {
+                throw new ResourceNotFoundException("Card not found");
+            }
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Unauthorized to view installments");
         }
 
         LocalDate today = LocalDate.now();
-        List<BNPLInstallment> installments = installmentRepository
-                .findByTransaction_Card_CardIdAndIsPaidFalseAndDueDateBefore(cardId, today);
-
-        return installments.stream()
-                .map(this::mapToResponseDTO)
-                .collect(Collectors.toList());
+        return installmentRepository.findOverdueResponseDTOsByCardId(cardId, today);
     }
 
 
@@ -124,11 +221,19 @@ public class BNPLPaymentService implements IBNPLPaymentService {
     @Override
     public List<BNPLInstallmentResponseDTO> getAllInstallments() {
         log.info("Fetching all installments");
-        List<BNPLInstallment> installments = installmentRepository.findAll();
+        List<BNPLInstallmentResponseDTO> installments = installmentRepository.findAllResponseDTOs();
         log.debug("Found {} installments", installments.size());
-        return installments.stream()
-                .map(this::mapToResponseDTO)
-                .collect(Collectors.toList());
+        return installments;
+    }
+
+    /**
+     * Streams all installments in the system as a JSON array.
+     * @return body streaming the installments.
+     */
+    @Override
+    public StreamingResponseBody streamAllInstallments() {
+        log.info("Streaming all installments");
+        return jsonArrayStreamingService.jsonArray("installments", installmentRepository::streamAllResponseDTOs, null);
     }
 
     /**
@@ -172,8 +277,12 @@ public class BNPLPaymentService implements IBNPLPaymentService {
         newInstallment.setAmount(installment.getAmount());
         newInstallment.setDueDate(installment.getDueDate());
         newInstallment.setIsPaid(installment.getIsPaid());
+        lateFeeCalculatorService.accrue(newInstallment, LocalDate.now());
 
         BNPLInstallment saved = installmentRepository.save(newInstallment);
+        cardSpendingService.adjustOutstandingPrincipal(transaction.getCardId(), unpaidAmount(saved));
+        installmentDueScheduler.schedule(List.of(saved));
+        resourceVersionService.cardChanged(transaction.getCardId());
         log.info("Installment created with ID: {}", saved.getId());
         return mapToResponseDTO(saved);
     }
@@ -196,6 +305,9 @@ public class BNPLPaymentService implements IBNPLPaymentService {
                     log.error("Installment not found for ID: {}", id);
                     return new ResourceNotFoundException("Installment not found");
                 });
+        Long previousCardId = existing.getTransaction().getCardId();
+        double previousUnpaid = unpaidAmount(existing);
+        LocalDate previousDueDate = existing.getDueDate();
 
         if (updated.getTransactionId() != null) {
             Transaction transaction = transactionRepository.findById(updated.getTransactionId())
@@ -216,8 +328,21 @@ public class BNPLPaymentService implements IBNPLPaymentService {
             existing.setIsPaid(updated.getIsPaid());
             log.debug("Updated payment status for installment ID: {} to {}", id, updated.getIsPaid());
         }
+        lateFeeCalculatorService.accrue(existing, LocalDate.now());
 
         BNPLInstallment saved = installmentRepository.save(existing);
+        // the installment may have moved to a transaction on another card
+        Long cardId = saved.getTransaction().getCardId();
+        if (cardId.equals(previousCardId)) {
+            cardSpendingService.adjustOutstandingPrincipal(cardId, unpaidAmount(saved) - previousUnpaid);
+        } else {
+            // ascending card id, the lock order of the other multi-card writers
+            new TreeMap<>(Map.of(previousCardId, -previousUnpaid, cardId, unpaidAmount(saved)))
+                    .forEach(cardSpendingService::adjustOutstandingPrincipal);
+        }
+        installmentDueScheduler.unschedule(saved.getId(), previousDueDate);
+        installmentDueScheduler.schedule(List.of(saved));
+        resourceVersionService.cardsChanged(Set.copyOf(List.of(previousCardId, cardId)));
         log.info("Installment updated with ID: {}", saved.getId());
         return mapToResponseDTO(saved);
     }
@@ -237,6 +362,9 @@ public class BNPLPaymentService implements IBNPLPaymentService {
                     return new ResourceNotFoundException("Installment not found");
                 });
         installmentRepository.delete(existing);
+        cardSpendingService.adjustOutstandingPrincipal(existing.getTransaction().getCardId(), -unpaidAmount(existing));
+        installmentDueScheduler.unschedule(existing.getId(), existing.getDueDate());
+        resourceVersionService.cardChanged(existing.getTransaction().getCardId());
         log.info("Installment deleted with ID: {}", id);
     }
 
@@ -248,16 +376,24 @@ public class BNPLPaymentService implements IBNPLPaymentService {
     @Override
     public List<BNPLInstallmentResponseDTO> getAllInstallmentsByTransactionId(Long transactionId) {
         log.info("Fetching all installments for transaction ID: {}", transactionId);
-        List<BNPLInstallment> installments = installmentRepository.findByTransactionId(transactionId);
+        List<BNPLInstallmentResponseDTO> installments = installmentRepository.findResponseDTOsByTransactionId(transactionId);
         log.debug("Found {} installments for transaction ID: {}", installments.size(), transactionId);
-        return installments.stream()
-                .map(this::mapToResponseDTO)
-                .collect(Collectors.toList());
+        return installments;
+    }
+
+    // Sums of cent amounts carry binary noise
+    private static double round(double amount) {
+        return Math.round(amount * 100.0) / 100.0;
+    }
+
+    // Principal an installment adds to its card's outstanding BNPL balance
+    private static double unpaidAmount(BNPLInstallment installment) {
+        return Boolean.TRUE.equals(installment.getIsPaid()) || installment.getAmount() == null ? 0 : installment.getAmount();
     }
 
     /**
      * Maps a BNPLInstallment entity to a BNPLInstallmentResponseDTO for frontend response.
-     * Computes late fee using LateFeeCalculatorService.
+     * Takes the late fee accrued on the installment.
      * @param installment BNPLInstallment entity to map.
      * @return BNPLInstallmentResponseDTO with relevant fields.
      */
@@ -270,7 +406,7 @@ public class BNPLPaymentService implements IBNPLPaymentService {
         dto.setAmount(installment.getAmount());
         dto.setDueDate(installment.getDueDate());
         dto.setIsPaid(installment.getIsPaid());
-        dto.setLateFee(lateFeeCalculatorService.calculateLateFeeForInstallment(installment));
+        dto.setLateFee(lateFeeCalculatorService.accruedLateFee(installment));
         log.debug("Late fee for installment ID: {} set to {}", installment.getId(), dto.getLateFee());
         return dto;
     }
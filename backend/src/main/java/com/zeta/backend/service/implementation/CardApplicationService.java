@@ -25,6 +25,7 @@ public class CardApplicationService implements ICardApplicationService {
     private final CardApplicationRepository applicationRepository;
     private final UserProfileRepository userRepository;
     private final CardRepository cardRepository;
+    private final ResourceVersionService resourceVersionService;
 
     @Override
     public CardApplication apply(String email, CardApplication application) {
@@ -85,6 +86,7 @@ public class CardApplicationService implements ICardApplicationService {
             }
 
             cardRepository.save(creditCard);
+            resourceVersionService.userCardsChanged(user.getEmail());
 
             log.info("Credit card issued for application ID: {}", savedApplication.getId());
         }
@@ -154,7 +156,7 @@ public class CardApplicationService implements ICardApplicationService {
         return "XXXX-XXXX-XXXX-" + randomDigits;
     }
     // Generate valid card number with Luhn check digit
-    private String generateValidCardNumber(String cardType) {
+    String generateValidCardNumber(String cardType) {
         String prefix;
         int length;
 
@@ -0,0 +1,200 @@
+package com.zeta.backend.service.implementation;
+
+import com.zeta.backend.exception.InsufficientCreditLimitException;
+import com.zeta.backend.model.Card;
+import com.zeta.backend.repository.CardRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Reserves available credit on a card without pessimistic row locks.
+ *
+ * Each card gets its own AtomicLong counter (in paise) inside a ConcurrentHashMap, so
+ * debits on distinct cards never contend and debits on one card are compare-and-set
+ * operations. For reserve the counter is an admission filter; the Card.availableLimit column
+ * stays the source of truth and is debited with a single conditional UPDATE, so a stale
+ * counter can never oversell a card.
+ *
+ * reserveDeferred has no such check: the journal flush applies its debits unconditionally, so
+ * the counter is the only guard. Seeding a counter and recording a deferred reservation take a
+ * per-card lock, so a counter is never seeded from the column without a debit it already admitted.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CardLimitReservationService {
+
+    private final CardRepository cardRepository;
+
+    private final ConcurrentHashMap<Long, AtomicLong> availableByCardId = new ConcurrentHashMap<>();
+
+    // Paise admitted by reserveDeferred but not yet written to Card.availableLimit
+    private final ConcurrentHashMap<Long, AtomicLong> deferredByCardId = new ConcurrentHashMap<>();
+
+    // Held while a counter is seeded and while a deferred reservation moves between counter and deferred
+    private final ConcurrentHashMap<Long, ReentrantLock> seedLocks = new ConcurrentHashMap<>();
+
+    /**
+     * Debits the amount from the card's available limit.
+     * When called inside a transaction that later rolls back, the counter is dropped and reloaded
+     * from the (rolled back) column on next use.
+     * @throws InsufficientCreditLimitException if the card does not have enough available limit.
+     */
+    public void reserve(Card card, double amount) {
+        Long cardId = card.getCardId();
+        long amountPaise = toPaise(amount);
+        AtomicLong available = debitCounter(card, amount, amountPaise);
+
+        if (cardRepository.debitAvailableLimit(cardId, amount) == 0) {
+            // Counter drifted from the column (limit changed elsewhere); resync on next use
+            availableByCardId.remove(cardId);
+            double persisted = cardRepository.findById(cardId).map(Card::getAvailableLimit).orElse(0.0);
+            log.warn("Available limit counter for card {} was stale, reloading from DB", cardId);
+            throw new InsufficientCreditLimitException(amount, persisted);
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        availableByCardId.remove(cardId, available);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Debits the amount from the card's counter only. The caller owns persisting the debit
+     * (journal write-behind) and must call settleDeferred once it is committed to the column.
+     * @throws InsufficientCreditLimitException if the card does not have enough available limit.
+     */
+    public void reserveDeferred(Card card, double amount) {
+        long amountPaise = toPaise(amount);
+        ReentrantLock seedLock = seedLock(card.getCardId());
+        seedLock.lock();
+        try {
+            debitCounter(card, amount, amountPaise);
+            deferredByCardId.computeIfAbsent(card.getCardId(), id -> new AtomicLong()).addAndGet(amountPaise);
+        } finally {
+            seedLock.unlock();
+        }
+    }
+
+    /**
+     * Returns a deferred reservation that could not be recorded.
+     */
+    public void cancelDeferred(Long cardId, double amount) {
+        long amountPaise = toPaise(amount);
+        ReentrantLock seedLock = seedLock(cardId);
+        seedLock.lock();
+        try {
+            AtomicLong available = availableByCardId.get(cardId);
+            if (available != null) {
+                available.addAndGet(amountPaise);
+            }
+            settle(cardId, amountPaise);
+        } finally {
+            seedLock.unlock();
+        }
+    }
+
+    /**
+     * Marks deferred debits as written to Card.availableLimit.
+     */
+    public void settleDeferred(Long cardId, double amount) {
+        settle(cardId, toPaise(amount));
+    }
+
+    /**
+     * Limit a reservation can still take from the given column value, i.e. without the debits
+     * admitted by reserveDeferred but not yet written to it.
+     */
+    public double availableAfterDeferred(Long cardId, double availableLimit) {
+        return fromPaise(toPaise(availableLimit) - deferredPaise(cardId));
+    }
+
+    /**
+     * Forgets the cached counter so the next reservation reloads it from the card row.
+     * Must be called whenever availableLimit is changed outside this service.
+     */
+    public void evict(Long cardId) {
+        availableByCardId.remove(cardId);
+    }
+
+    private AtomicLong debitCounter(Card card, double amount, long amountPaise) {
+        Long cardId = card.getCardId();
+        AtomicLong available = availableByCardId.get(cardId);
+        if (available == null) {
+            available = seed(cardId, card.getAvailableLimit());
+        }
+        if (tryDebit(available, amountPaise)) {
+            return available;
+        }
+
+        // A counter can be stuck below the column (a raised limit or a refund written elsewhere);
+        // reload it once before declining
+        double persisted = cardRepository.findAvailableLimitById(cardId).orElse(0.0);
+        availableByCardId.remove(cardId, available);
+        available = seed(cardId, persisted);
+        if (tryDebit(available, amountPaise)) {
+            return available;
+        }
+        throw new InsufficientCreditLimitException(amount, fromPaise(Math.max(0, available.get())));
+    }
+
+    // Seeds from the column minus debits that are admitted but not yet persisted
+    private AtomicLong seed(Long cardId, double availableLimit) {
+        ReentrantLock seedLock = seedLock(cardId);
+        seedLock.lock();
+        try {
+            return availableByCardId.computeIfAbsent(cardId,
+                    id -> new AtomicLong(toPaise(availableLimit) - deferredPaise(id)));
+        } finally {
+            seedLock.unlock();
+        }
+    }
+
+    private ReentrantLock seedLock(Long cardId) {
+        return seedLocks.computeIfAbsent(cardId, id -> new ReentrantLock());
+    }
+
+    private static boolean tryDebit(AtomicLong available, long amountPaise) {
+        long current;
+        do {
+            current = available.get();
+            if (amountPaise > current) {
+                return false;
+            }
+        } while (!available.compareAndSet(current, current - amountPaise));
+        return true;
+    }
+
+    private long deferredPaise(Long cardId) {
+        AtomicLong deferred = deferredByCardId.get(cardId);
+        return deferred == null ? 0 : deferred.get();
+    }
+
+    private void settle(Long cardId, long amountPaise) {
+        AtomicLong deferred = deferredByCardId.get(cardId);
+        if (deferred != null) {
+            deferred.addAndGet(-amountPaise);
+        }
+    }
+
+    private static long toPaise(double amount) {
+        return Math.round(amount * 100.0);
+    }
+
+    private static double fromPaise(long paise) {
+        return paise / 100.0;
+    }
+}
@@ -6,28 +6,33 @@ import com.zeta.backend.exception.InvalidCardLimitException;
 import com.zeta.backend.model.Card;
 import com.zeta.backend.model.UserProfile;
 import com.zeta.backend.repository.CardRepository;
-import com.zeta.backend.repository.TransactionRepository;
 import com.zeta.backend.service.ICardService;
 import com.zeta.backend.util.CardApprovalUtil;
+import com.zeta.backend.util.CardAuthorizationCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class CardServiceImpl implements ICardService {
 
     private final CardRepository cardRepository;
-    private final TransactionRepository transactionRepository; // Needed for usage frequency check
+    private final CardSpendingService cardSpendingService; // Needed for usage frequency check
+    private final CardAuthorizationCache cardAuthorizationCache;
+    private final CardLimitReservationService cardLimitReservationService;
+    private final ResourceVersionService resourceVersionService;
+    private final OwnershipService ownershipService;
 
     @Override
     public List<CardDTO> getCardDetailsByUserId(Long userId) {
-        List<Card> cards = cardRepository.findByApplicationUserUserId(userId);
-        return cards.stream().map(this::mapToDto).collect(Collectors.toList());
+        return cardRepository.findCardDTOsByUserId(userId);
     }
 
     @Override
@@ -36,10 +41,14 @@ public class CardServiceImpl implements ICardService {
                 .orElseThrow(() -> new CardNotFoundException("Card not found with ID: " + cardId));
 
         card.setStatus(status.toUpperCase());
-        return mapToDto(cardRepository.save(card));
+        Card saved = cardRepository.save(card);
+        cardAuthorizationCache.invalidateCard(cardId);
+        resourceVersionService.cardChanged(cardId);
+        return mapToDto(saved);
     }
 
     @Override
+    @Transactional
     public CardDTO updateCardLimit(Long cardId, Double newLimit) {
         if (newLimit <= 0) {
             throw new InvalidCardLimitException("New limit must be greater than 0");
@@ -63,7 +72,7 @@ public class CardServiceImpl implements ICardService {
             }
 
             // Check usage frequency
-            Long transactionCount = transactionRepository.countByCardId(cardId);
+            long transactionCount = cardSpendingService.getTransactionCount(cardId);
             if (transactionCount < 1) {
                 throw new InvalidCardLimitException("Card usage is too low: only " + transactionCount + " transactions found");
             }
@@ -75,21 +84,25 @@ public class CardServiceImpl implements ICardService {
             }
         }
 
-        // Update card
-        double newAvailable = card.getAvailableLimit() + (newLimit - currentLimit);
-        card.setCreditLimit(newLimit);
-        card.setAvailableLimit(newAvailable);
-        cardRepository.save(card);
-
-        return mapToDto(card);
+        // One UPDATE moves both limits, so debits landing since the card was read are kept
+        cardRepository.updateCreditLimit(cardId, newLimit);
+        // the counter is reloaded from the committed column; dropped now, a reservation could reseed it from the old one
+        afterCommit(() -> {
+            cardAuthorizationCache.invalidateCard(cardId);
+            cardLimitReservationService.evict(cardId);
+        });
+        resourceVersionService.cardChanged(cardId);
+
+        return mapToDto(cardRepository.findById(cardId)
+                .orElseThrow(() -> new CardNotFoundException("Card not found with ID: " + cardId)));
     }
 
     @Override
     public void validateCardOwnership(Long cardId, String userEmail) {
-        Card card = cardRepository.findById(cardId)
-                .orElseThrow(() -> new CardNotFoundException("Card not found with ID: " + cardId));
-
-        if (!card.getUser().getEmail().equals(userEmail)) {
+        if (!ownershipService.ownsCard(cardId, userEmail)) {
+            if (!ownershipService.cardExists(cardId)) {
+                throw new CardNotFoundException("Card not found with ID: " + cardId);
+            }
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Unauthorized: This card does not belong to you");
         }
     }
@@ -108,5 +121,16 @@ public class CardServiceImpl implements ICardService {
                 .build();
     }
 
-
+    private static void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
 }
@@ -0,0 +1,93 @@
+package com.zeta.backend.service.implementation;
+
+import com.zeta.backend.repository.CardRepository;
+import com.zeta.backend.repository.CardSpendingSummaryRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Backfills and rebuilds the per-card spending aggregates from the transactions and
+ * installments tables.
+ *
+ * On startup every card without a summary row is rebuilt before the application starts
+ * serving requests. A full rebuild of every card, which also repairs drift, can be scheduled
+ * with aggregates.spending.rebuild-cron. Each card is rebuilt in its own short database
+ * transaction under its row lock, so live writes to other cards are not held up.
+ */
+@Service
+@Slf4j
+public class CardSpendingRebuildJob {
+
+    private final CardSpendingService cardSpendingService;
+    private final CardRepository cardRepository;
+    private final CardSpendingSummaryRepository summaryRepository;
+    private final boolean backfillOnStartup;
+    private final int pageSize;
+
+    public CardSpendingRebuildJob(CardSpendingService cardSpendingService,
+                                  CardRepository cardRepository,
+                                  CardSpendingSummaryRepository summaryRepository,
+                                  @Value("${aggregates.spending.backfill-on-startup:true}") boolean backfillOnStartup,
+                                  @Value("${aggregates.spending.rebuild-page-size:500}") int pageSize) {
+        this.cardSpendingService = cardSpendingService;
+        this.cardRepository = cardRepository;
+        this.summaryRepository = summaryRepository;
+        this.backfillOnStartup = backfillOnStartup;
+        this.pageSize = pageSize;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (backfillOnStartup) {
+            backfillMissing();
+        }
+    }
+
+    /**
+     * Rebuilds the cards that have no summary row yet.
+     * @return number of cards rebuilt.
+     */
+    public int backfillMissing() {
+        long start = System.currentTimeMillis();
+        int rebuilt = rebuildEach(afterId -> summaryRepository.findCardIdsWithoutSummary(afterId, PageRequest.ofSize(pageSize)));
+        if (rebuilt > 0) {
+            log.info("Backfilled spending aggregates of {} cards in {} ms", rebuilt, System.currentTimeMillis() - start);
+        }
+        return rebuilt;
+    }
+
+    /**
+     * Rebuilds every card.
+     * @return number of cards rebuilt.
+     */
+    @Scheduled(cron = "${aggregates.spending.rebuild-cron:-}")
+    public int rebuildAll() {
+        long start = System.currentTimeMillis();
+        int rebuilt = rebuildEach(afterId -> cardRepository.findCardIdsAfter(afterId, PageRequest.ofSize(pageSize)));
+        log.info("Rebuilt spending aggregates of {} cards in {} ms", rebuilt, System.currentTimeMillis() - start);
+        return rebuilt;
+    }
+
+    // Walks card ids in keyset pages so the job never holds a large result in memory
+    private int rebuildEach(Function<Long, List<Long>> nextPage) {
+        int rebuilt = 0;
+        long afterId = 0;
+        List<Long> cardIds;
+        while (!(cardIds = nextPage.apply(afterId)).isEmpty()) {
+            for (Long cardId : cardIds) {
+                if (cardSpendingService.rebuildCard(cardId)) {
+                    rebuilt++;
+                }
+            }
+            afterId = cardIds.get(cardIds.size() - 1);
+        }
+        return rebuilt;
+    }
+}
@@ -0,0 +1,301 @@
+package com.zeta.backend.service.implementation;
+
+import com.zeta.backend.dto.CardSpendingSummaryDTO;
+import com.zeta.backend.enums.SpendingBucketType;
+import com.zeta.backend.model.CardSpendingBucket;
+import com.zeta.backend.model.CardSpendingSummary;
+import com.zeta.backend.model.Transaction;
+import com.zeta.backend.repository.BNPLInstallmentRepository;
+import com.zeta.backend.repository.CardRepository;
+import com.zeta.backend.repository.CardSpendingBucketRepository;
+import com.zeta.backend.repository.CardSpendingSummaryRepository;
+import com.zeta.backend.repository.TransactionRepository;
+import com.zeta.backend.service.ICardSpendingService;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Maintains the per-card spending aggregates (CardSpendingSummary and CardSpendingBucket).
+ *
+ * Every write that changes a card's transactions or unpaid installments calls one of the
+ * record / reverse / adjust methods inside its own database transaction, after the change
+ * has been saved. The card row is locked first, so concurrent writers of one card apply
+ * their deltas one at a time. A card without a summary row yet (created before the table
+ * existed) is rebuilt from its rows at that point instead, and the delta is not applied on
+ * top because the rebuild already sees the saved change.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CardSpendingService implements ICardSpendingService {
+
+    static final String UNCATEGORIZED = "Uncategorized";
+    private static final DateTimeFormatter MONTH_KEY = DateTimeFormatter.ofPattern("yyyy-MM");
+
+    private final CardRepository cardRepository;
+    private final CardSpendingSummaryRepository summaryRepository;
+    private final CardSpendingBucketRepository bucketRepository;
+    private final TransactionRepository transactionRepository;
+    private final BNPLInstallmentRepository installmentRepository;
+    private final EntityManager entityManager;
+    private final OwnershipService ownershipService;
+
+    /**
+     * Reads the summary row and the card's bucket rows; neither depends on the number of transactions.
+     * Cards not backfilled yet are computed from their rows without being stored.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CardSpendingSummaryDTO getSpendingSummary(Long cardId, String userEmail) {
+        ownershipService.requireCardOwner(cardId, userEmail);
+
+        return summaryRepository.findById(cardId)
+                .map(summary -> toDto(summary, bucketRepository.findByCardId(cardId)))
+                .orElseGet(() -> {
+                    Aggregates computed = computeFromRows(cardId);
+                    return toDto(computed.summary(), new ArrayList<>(computed.buckets().values()));
+                });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long getTransactionCount(Long cardId) {
+        return summaryRepository.findById(cardId)
+                .map(CardSpendingSummary::getTransactionCount)
+                .orElseGet(() -> transactionRepository.countByCardId(cardId));
+    }
+
+    @Override
+    @Transactional
+    public boolean rebuildCard(Long cardId) {
+        if (cardRepository.lockById(cardId).isEmpty()) {
+            return false;
+        }
+        rebuildLocked(cardId);
+        return true;
+    }
+
+    /**
+     * Adds a saved transaction; bnplPrincipal is the principal of the installments created with it.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordTransaction(Transaction transaction, double bnplPrincipal) {
+        CardSpendingSummary summary = lockSummary(transaction.getCardId());
+        if (summary == null) {
+            return;
+        }
+        apply(summary, transaction, 1);
+        summary.setOutstandingBnplPrincipal(round(summary.getOutstandingBnplPrincipal() + bnplPrincipal));
+    }
+
+    /**
+     * Adds a set of saved regular transactions, locking their cards in ascending id order.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordTransactions(Collection<Transaction> transactions) {
+        Map<Long, List<Transaction>> byCardId = new TreeMap<>();
+        for (Transaction transaction : transactions) {
+            byCardId.computeIfAbsent(transaction.getCardId(), id -> new ArrayList<>()).add(transaction);
+        }
+        byCardId.forEach((cardId, cardTransactions) -> {
+            CardSpendingSummary summary = lockSummary(cardId);
+            if (summary != null) {
+                cardTransactions.forEach(transaction -> apply(summary, transaction, 1));
+            }
+        });
+    }
+
+    /**
+     * Removes a deleted (or about to be rewritten) transaction; bnplPrincipal is the unpaid
+     * principal that went with it.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reverseTransaction(Transaction transaction, double bnplPrincipal) {
+        CardSpendingSummary summary = lockSummary(transaction.getCardId());
+        if (summary == null) {
+            return;
+        }
+        apply(summary, transaction, -1);
+        summary.setOutstandingBnplPrincipal(round(summary.getOutstandingBnplPrincipal() - bnplPrincipal));
+    }
+
+    /**
+     * Replaces the previous values of an updated transaction with its saved values.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void replaceTransaction(Transaction previous, Transaction updated) {
+        CardSpendingSummary summary = lockSummary(updated.getCardId());
+        if (summary == null) {
+            return;
+        }
+        apply(summary, previous, -1);
+        apply(summary, updated, 1);
+    }
+
+    /**
+     * Changes the card's outstanding BNPL principal, e.g. by minus the amount of a paid installment.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void adjustOutstandingPrincipal(Long cardId, double delta) {
+        if (delta == 0) {
+            return;
+        }
+        CardSpendingSummary summary = lockSummary(cardId);
+        if (summary == null) {
+            return;
+        }
+        summary.setOutstandingBnplPrincipal(round(summary.getOutstandingBnplPrincipal() + delta));
+        summary.setUpdatedAt(LocalDateTime.now());
+    }
+
+    /**
+     * Locks the card and returns its summary, or null when the summary had to be rebuilt
+     * from rows that already include the caller's change.
+     */
+    private CardSpendingSummary lockSummary(Long cardId) {
+        cardRepository.lockById(cardId);
+        CardSpendingSummary summary = summaryRepository.findById(cardId).orElse(null);
+        if (summary == null) {
+            log.info("No spending summary for card ID {}, rebuilding it from its rows", cardId);
+            rebuildLocked(cardId);
+        }
+        return summary;
+    }
+
+    private void apply(CardSpendingSummary summary, Transaction transaction, int sign) {
+        double amount = sign * transaction.getAmount();
+        summary.setTransactionCount(summary.getTransactionCount() + sign);
+        summary.setTotalSpend(round(summary.getTotalSpend() + amount));
+        summary.setUpdatedAt(LocalDateTime.now());
+
+        Long cardId = summary.getCardId();
+        addToBucket(cardId, SpendingBucketType.CATEGORY, categoryKey(transaction.getCategory()), sign, amount);
+        if (transaction.getTransactionDate() != null) {
+            addToBucket(cardId, SpendingBucketType.MONTH, monthKey(transaction.getTransactionDate()), sign, amount);
+        }
+    }
+
+    private void addToBucket(Long cardId, SpendingBucketType type, String key, int count, double amount) {
+        CardSpendingBucket bucket = bucketRepository.findById(new CardSpendingBucket.Key(cardId, type, key)).orElse(null);
+        if (bucket == null) {
+            entityManager.persist(new CardSpendingBucket(cardId, type, key, count, round(amount)));
+            return;
+        }
+        // emptied buckets stay as zero rows until the next rebuild and are not reported
+        bucket.setTransactionCount(bucket.getTransactionCount() + count);
+        bucket.setTotalSpend(round(bucket.getTotalSpend() + amount));
+    }
+
+    // Caller holds the card lock; updates rows in place so managed entities stay consistent
+    private void rebuildLocked(Long cardId) {
+        Aggregates computed = computeFromRows(cardId);
+
+        Map<CardSpendingBucket.Key, CardSpendingBucket> rebuilt = new HashMap<>(computed.buckets());
+        for (CardSpendingBucket existing : bucketRepository.findByCardId(cardId)) {
+            CardSpendingBucket replacement = rebuilt.remove(
+                    new CardSpendingBucket.Key(cardId, existing.getBucketType(), existing.getBucketKey()));
+            if (replacement == null) {
+                bucketRepository.delete(existing);
+            } else {
+                existing.setTransactionCount(replacement.getTransactionCount());
+                existing.setTotalSpend(replacement.getTotalSpend());
+            }
+        }
+        rebuilt.values().forEach(entityManager::persist);
+
+        CardSpendingSummary summary = summaryRepository.findById(cardId).orElse(null);
+        if (summary == null) {
+            entityManager.persist(computed.summary());
+        } else {
+            summary.setTransactionCount(computed.summary().getTransactionCount());
+            summary.setTotalSpend(computed.summary().getTotalSpend());
+            summary.setOutstandingBnplPrincipal(computed.summary().getOutstandingBnplPrincipal());
+            summary.setUpdatedAt(computed.summary().getUpdatedAt());
+        }
+    }
+
+    // Three grouped queries over the card's rows
+    private Aggregates computeFromRows(Long cardId) {
+        Map<CardSpendingBucket.Key, CardSpendingBucket> buckets = new LinkedHashMap<>();
+        long count = 0;
+        double total = 0;
+        for (TransactionRepository.CategoryTotals totals : transactionRepository.sumSpendByCategory(cardId)) {
+            count += totals.getTransactionCount();
+            total += totals.getTotalSpend();
+            mergeBucket(buckets, cardId, SpendingBucketType.CATEGORY, categoryKey(totals.getCategory()),
+                    totals.getTransactionCount(), totals.getTotalSpend());
+        }
+        for (TransactionRepository.MonthlyTotals totals : transactionRepository.sumSpendByMonth(cardId)) {
+            mergeBucket(buckets, cardId, SpendingBucketType.MONTH,
+                    monthKey(LocalDate.of(totals.getYear(), totals.getMonth(), 1)),
+                    totals.getTransactionCount(), totals.getTotalSpend());
+        }
+
+        CardSpendingSummary summary = new CardSpendingSummary(cardId, count, round(total),
+                round(installmentRepository.sumUnpaidAmountByCardId(cardId)), LocalDateTime.now());
+        return new Aggregates(summary, buckets);
+    }
+
+    // null and blank categories share the Uncategorized bucket
+    private static void mergeBucket(Map<CardSpendingBucket.Key, CardSpendingBucket> buckets, Long cardId,
+                                    SpendingBucketType type, String key, long count, double amount) {
+        buckets.merge(new CardSpendingBucket.Key(cardId, type, key),
+                new CardSpendingBucket(cardId, type, key, count, round(amount)),
+                (a, b) -> new CardSpendingBucket(cardId, type, key,
+                        a.getTransactionCount() + b.getTransactionCount(), round(a.getTotalSpend() + b.getTotalSpend())));
+    }
+
+    private static CardSpendingSummaryDTO toDto(CardSpendingSummary summary, List<CardSpendingBucket> buckets) {
+        Map<String, CardSpendingSummaryDTO.Totals> byCategory = new TreeMap<>();
+        Map<String, CardSpendingSummaryDTO.Totals> byMonth = new TreeMap<>();
+        for (CardSpendingBucket bucket : buckets) {
+            if (bucket.getTransactionCount() <= 0) {
+                continue;
+            }
+            Map<String, CardSpendingSummaryDTO.Totals> target =
+                    bucket.getBucketType() == SpendingBucketType.CATEGORY ? byCategory : byMonth;
+            target.put(bucket.getBucketKey(),
+                    new CardSpendingSummaryDTO.Totals(bucket.getTransactionCount(), bucket.getTotalSpend()));
+        }
+        return CardSpendingSummaryDTO.builder()
+                .cardId(summary.getCardId())
+                .transactionCount(summary.getTransactionCount())
+                .totalSpend(summary.getTotalSpend())
+                .outstandingBnplPrincipal(summary.getOutstandingBnplPrincipal())
+                .byCategory(byCategory)
+                .byMonth(byMonth)
+                .updatedAt(summary.getUpdatedAt())
+                .build();
+    }
+
+    private static String categoryKey(String category) {
+        return category == null || category.isBlank() ? UNCATEGORIZED : category.trim();
+    }
+
+    private static String monthKey(LocalDate date) {
+        return MONTH_KEY.format(date);
+    }
+
+    // Keeps repeated increments and decrements from drifting away from the paise values
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+
+    private record Aggregates(CardSpendingSummary summary, Map<CardSpendingBucket.Key, CardSpendingBucket> buckets) {
+    }
+}
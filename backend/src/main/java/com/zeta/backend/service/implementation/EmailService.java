@@ -18,5 +18,13 @@ public class EmailService {
         message.setText("Your OTP is: " + otp + "\nIt is valid for 60 seconds.");
         mailSender.send(message);
     }
+
+    public void sendInstallmentNotice(String toEmail, String subject, String text) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setTo(toEmail);
+        message.setSubject(subject);
+        message.setText(text);
+        mailSender.send(message);
+    }
 }
 
@@ -0,0 +1,230 @@
+package com.zeta.backend.service.implementation;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zeta.backend.exception.BadRequestException;
+import com.zeta.backend.exception.IdempotencyConflictException;
+import com.zeta.backend.exception.IdempotencyKeyReuseException;
+import com.zeta.backend.model.IdempotencyRecord;
+import com.zeta.backend.repository.IdempotencyRecordRepository;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Makes POST endpoints safe to retry with an Idempotency-Key header.
+ *
+ * The first request for a key runs the action and its response is kept in a bounded,
+ * TTL-evicting in-memory map and in the idempotency_records table. The record is written in
+ * the action's database transaction, so a request either committed with its record or not at
+ * all. Repeats are answered from the stored response without calling the service again, and
+ * duplicates that arrive while the first request is still running wait for its result instead
+ * of racing it. A key reused with a different request is rejected. Failed executions are not
+ * stored, so the client can retry them.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final int MAX_ENTRIES = 10_000;
+    private static final Duration TTL = Duration.ofHours(24);
+    private static final Duration PURGE_INTERVAL = Duration.ofMinutes(10);
+    private static final long IN_FLIGHT_WAIT_SECONDS = 30;
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+
+    private final ConcurrentHashMap<String, CompletableFuture<StoredResponse>> responses = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<String> insertionOrder = new ConcurrentLinkedQueue<>();
+    private volatile LocalDateTime lastPurge = LocalDateTime.now();
+
+    /**
+     * Runs the action once per (user, operation, key) and replays its response afterwards.
+     * Without a key the action simply runs.
+     * @param request body and parameters of the request, compared on repeats; null if it has none.
+     * @throws IdempotencyKeyReuseException if the key was used with a different request.
+     * @throws IdempotencyConflictException if the first request for the key is still running.
+     */
+    public <T> ResponseEntity<T> execute(String idempotencyKey, String userEmail, String operation, Object request,
+                                         Class<T> bodyType, Supplier<ResponseEntity<T>> action) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return action.get();
+        }
+        if (idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException("Idempotency-Key must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String recordKey = hash(userEmail + "|" + operation + "|" + idempotencyKey);
+        String requestHash = hash(String.valueOf(toJson(request)));
+        CompletableFuture<StoredResponse> mine = new CompletableFuture<>();
+        CompletableFuture<StoredResponse> existing = responses.putIfAbsent(recordKey, mine);
+
+        if (existing != null) {
+            StoredResponse stored = await(existing);
+            if (stored != null && !stored.isExpired()) {
+                requireSameRequest(stored, requestHash);
+                log.info("Replaying stored response for idempotent {} by {}", operation, userEmail);
+                return replay(stored, bodyType);
+            }
+            // Previous attempt failed or expired; start over
+            responses.remove(recordKey, existing);
+            return execute(idempotencyKey, userEmail, operation, request, bodyType, action);
+        }
+
+        insertionOrder.add(recordKey);
+        evictIfNeeded();
+
+        LocalDateTime cutoff = LocalDateTime.now().minus(TTL);
+        Optional<IdempotencyRecord> found = idempotencyRecordRepository.findById(recordKey);
+        Optional<IdempotencyRecord> persisted = found.filter(r -> r.getCreatedAt().isAfter(cutoff));
+        // an expired record not purged yet still holds the key, and has to go before this run records it
+        boolean expired = found.isPresent() && persisted.isEmpty();
+        if (persisted.isPresent()) {
+            StoredResponse stored = new StoredResponse(persisted.get().getRequestHash(), persisted.get().getStatusCode(),
+                    persisted.get().getResponseBody(), persisted.get().getCreatedAt());
+            mine.complete(stored);
+            requireSameRequest(stored, requestHash);
+            log.info("Replaying persisted response for idempotent {} by {}", operation, userEmail);
+            return replay(stored, bodyType);
+        }
+
+        StoredResponse[] stored = new StoredResponse[1];
+        ResponseEntity<T> response;
+        try {
+            response = new TransactionTemplate(transactionManager).execute(status -> {
+                if (expired) {
+                    idempotencyRecordRepository.deleteExpired(recordKey, cutoff);
+                }
+                ResponseEntity<T> result = action.get();
+                stored[0] = new StoredResponse(requestHash, result.getStatusCode().value(),
+                        toJson(result.getBody()), LocalDateTime.now());
+                try {
+                    idempotencyRecordRepository.insert(recordKey, requestHash, stored[0].getStatusCode(),
+                            stored[0].getBody(), stored[0].getCreatedAt());
+                } catch (DataIntegrityViolationException e) {
+                    // recorded meanwhile by another instance; the action rolls back with this exception
+                    throw new IdempotencyConflictException("Request with the same Idempotency-Key was already processed");
+                }
+                return result;
+            });
+        } catch (RuntimeException e) {
+            responses.remove(recordKey, mine);
+            mine.complete(null);
+            throw e;
+        }
+
+        mine.complete(stored[0]);
+        return response;
+    }
+
+    private static void requireSameRequest(StoredResponse stored, String requestHash) {
+        // records written before request hashes were kept have none
+        if (stored.getRequestHash() != null && !stored.getRequestHash().equals(requestHash)) {
+            throw new IdempotencyKeyReuseException();
+        }
+    }
+
+    private StoredResponse await(CompletableFuture<StoredResponse> inFlight) {
+        try {
+            return inFlight.get(IN_FLIGHT_WAIT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyConflictException("Interrupted while waiting for the request with the same Idempotency-Key");
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IdempotencyConflictException("Request with the same Idempotency-Key is still in progress");
+        }
+    }
+
+    private <T> ResponseEntity<T> replay(StoredResponse stored, Class<T> bodyType) {
+        try {
+            T body = stored.getBody() == null ? null : objectMapper.readValue(stored.getBody(), bodyType);
+            return ResponseEntity.status(stored.getStatusCode())
+                    .header("Idempotent-Replayed", "true")
+                    .body(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored idempotent response could not be read", e);
+        }
+    }
+
+    // Drops expired entries first, then the oldest ones, once the map is over capacity
+    private void evictIfNeeded() {
+        if (responses.size() > MAX_ENTRIES) {
+            responses.entrySet().removeIf(e -> e.getValue().isDone()
+                    && (e.getValue().getNow(null) == null || e.getValue().getNow(null).isExpired()));
+            // each queued key is looked at once per pass, so in-flight keys cannot keep it spinning
+            int queued = insertionOrder.size();
+            while (responses.size() > MAX_ENTRIES && queued-- > 0) {
+                String oldest = insertionOrder.poll();
+                if (oldest == null) {
+                    break;
+                }
+                if (responses.computeIfPresent(oldest, (k, v) -> v.isDone() ? null : v) != null) {
+                    // still in flight: back in line, to be evicted once done
+                    insertionOrder.add(oldest);
+                }
+            }
+            insertionOrder.removeIf(k -> !responses.containsKey(k));
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        if (lastPurge.plus(PURGE_INTERVAL).isBefore(now)) {
+            lastPurge = now;
+            int purged = idempotencyRecordRepository.deleteCreatedBefore(now.minus(TTL));
+            log.debug("Purged {} expired idempotency records", purged);
+        }
+    }
+
+    private String toJson(Object body) {
+        try {
+            return body == null ? null : objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Response could not be stored for idempotency", e);
+        }
+    }
+
+    private static String hash(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class StoredResponse {
+        private final String requestHash;
+        private final int statusCode;
+        private final String body;
+        private final LocalDateTime createdAt;
+
+        boolean isExpired() {
+            return createdAt.isBefore(LocalDateTime.now().minus(TTL));
+        }
+    }
+}
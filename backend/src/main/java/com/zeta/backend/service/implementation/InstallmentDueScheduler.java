@@ -0,0 +1,235 @@
+package com.zeta.backend.service.implementation;
+
+import com.zeta.backend.dto.InstallmentDueRow;
+import com.zeta.backend.model.BNPLInstallment;
+import com.zeta.backend.repository.BNPLInstallmentRepository;
+import com.zeta.backend.util.InstallmentDueIndex;
+import jakarta.annotation.PostConstruct;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Publishes an event when unpaid installments fall due soon and when they become overdue.
+ *
+ * Unpaid installments are kept in an in-memory InstallmentDueIndex by due date, loaded at
+ * startup from installments.due.catch-up-days back. The writers of installments keep it
+ * current through schedule / unschedule, applied once their database transaction commits.
+ * Once a day the installments due in installments.due.reminder-days go out in an
+ * InstallmentsDueSoonEvent (they stay indexed), and those whose due date has passed leave the
+ * index in an InstallmentsOverdueEvent; from then on the late fee accrual takes care of them.
+ * A tick takes only the buckets it fires and re-reads the unpaid installments due on those days,
+ * so that rows paid or deleted behind the index's back are dropped; rows that never went through
+ * schedule are not published. Listeners run on the scheduler thread.
+ *
+ * Events are not recorded: after a restart the last catch-up-days of overdue events and the
+ * current day's reminders may be published again, so listeners should tolerate repeats.
+ */
+@Component
+@Slf4j
+public class InstallmentDueScheduler {
+
+    private final BNPLInstallmentRepository installmentRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int reminderDays;
+    private final int catchUpDays;
+    private final TransactionTemplate readOnly;
+
+    private final InstallmentDueIndex index = new InstallmentDueIndex();
+    private final ReentrantLock ticking = new ReentrantLock();
+    // last due date reminders were published for; guarded by ticking
+    private LocalDate remindedThrough;
+
+    public InstallmentDueScheduler(BNPLInstallmentRepository installmentRepository,
+                                   ApplicationEventPublisher eventPublisher,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${installments.due.reminder-days:3}") int reminderDays,
+                                   @Value("${installments.due.catch-up-days:1}") int catchUpDays) {
+        this.installmentRepository = installmentRepository;
+        this.eventPublisher = eventPublisher;
+        this.reminderDays = reminderDays;
+        this.catchUpDays = catchUpDays;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+    }
+
+    /**
+     * Installments due on a day that is reminderDays ahead.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class InstallmentsDueSoonEvent {
+        private final LocalDate dueDate;
+        private final List<InstallmentDueRow> installments;
+    }
+
+    /**
+     * Installments that became overdue as of a day, having been due before it.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class InstallmentsOverdueEvent {
+        private final LocalDate asOf;
+        private final List<InstallmentDueRow> installments;
+    }
+
+    @PostConstruct
+    public void start() {
+        load(LocalDate.now());
+    }
+
+    // Published once the context is up, when event listeners are registered
+    @EventListener(ApplicationReadyEvent.class)
+    public void catchUp() {
+        tick(LocalDate.now());
+    }
+
+    @Scheduled(cron = "${installments.due.cron:-}")
+    public void tickToday() {
+        tick(LocalDate.now());
+    }
+
+    /**
+     * Replaces the index with the unpaid installments due from catch-up-days before the date.
+     * @return number of installments indexed.
+     */
+    public int load(LocalDate date) {
+        long start = System.currentTimeMillis();
+        LocalDate from = date.minusDays(catchUpDays);
+        ticking.lock();
+        try {
+            index.clear();
+            remindedThrough = null;
+            readOnly.executeWithoutResult(status -> {
+                try (Stream<InstallmentDueRow> rows = installmentRepository.streamUnpaidDueRowsFrom(from)) {
+                    rows.forEach(row -> index.add(row.getInstallmentId(), row.getDueDate()));
+                }
+            });
+        } finally {
+            ticking.unlock();
+        }
+        log.info("Indexed {} unpaid installments due from {} in {} ms", index.size(), from,
+                System.currentTimeMillis() - start);
+        return index.size();
+    }
+
+    /**
+     * Publishes the overdue event for installments due before the date and the due-soon events
+     * for the days up to date + reminderDays not yet reminded of.
+     * @return number of installments in the published events.
+     */
+    public int tick(LocalDate date) {
+        ticking.lock();
+        try {
+            int published = 0;
+            NavigableMap<LocalDate, Set<Long>> overdueIds = index.pollDueBefore(date);
+            List<InstallmentDueRow> overdue = overdueIds.isEmpty() ? List.of()
+                    : stillUnpaid(overdueIds.firstKey(), overdueIds.lastKey(), overdueIds.values());
+            if (!overdue.isEmpty()) {
+                publish(new InstallmentsOverdueEvent(date, overdue));
+                published += overdue.size();
+            }
+
+            LocalDate remindUntil = date.plusDays(reminderDays);
+            LocalDate day = remindedThrough == null || remindedThrough.isBefore(date)
+                    ? remindUntil : remindedThrough.plusDays(1);
+            for (; !day.isAfter(remindUntil); day = day.plusDays(1)) {
+                Set<Long> dueIds = index.dueOn(day);
+                List<InstallmentDueRow> dueSoon = dueIds.isEmpty() ? List.of() : stillUnpaid(day, day, List.of(dueIds));
+                if (!dueSoon.isEmpty()) {
+                    publish(new InstallmentsDueSoonEvent(day, dueSoon));
+                    published += dueSoon.size();
+                }
+            }
+            if (remindedThrough == null || remindedThrough.isBefore(remindUntil)) {
+                remindedThrough = remindUntil;
+            }
+            if (published > 0) {
+                log.info("Due-date tick for {}: {} installments newly overdue, {} published in total, {} indexed",
+                        date, overdue.size(), published, index.size());
+            }
+            return published;
+        } finally {
+            ticking.unlock();
+        }
+    }
+
+    /**
+     * Indexes the unpaid installments among the given ones once the current transaction commits.
+     */
+    public void schedule(Collection<BNPLInstallment> installments) {
+        List<BNPLInstallment> unpaid = installments.stream()
+                .filter(installment -> !Boolean.TRUE.equals(installment.getIsPaid()))
+                .toList();
+        if (!unpaid.isEmpty()) {
+            afterCommit(() -> unpaid.forEach(installment -> index.add(installment.getId(), installment.getDueDate())));
+        }
+    }
+
+    /**
+     * Drops an installment indexed under the due date once the current transaction commits.
+     */
+    public void unschedule(Long installmentId, LocalDate dueDate) {
+        afterCommit(() -> index.remove(installmentId, dueDate));
+    }
+
+    public int indexedInstallments() {
+        return index.size();
+    }
+
+    // Re-reads the unpaid installments due in the period, keeping those of the fired buckets. Read by due
+    // date rather than by id: the period is a range of idx_installments_paid_due, while an IN list of ids
+    // is translated again by Hibernate on every call and costs several times as much.
+    private List<InstallmentDueRow> stillUnpaid(LocalDate from, LocalDate to, Collection<Set<Long>> buckets) {
+        List<InstallmentDueRow> rows = new ArrayList<>();
+        for (InstallmentDueRow row : installmentRepository.findUnpaidDueRowsBetween(from, to)) {
+            for (Set<Long> bucket : buckets) {
+                if (bucket.contains(row.getInstallmentId())) {
+                    rows.add(row);
+                    break;
+                }
+            }
+        }
+        return rows;
+    }
+
+    private void publish(Object event) {
+        try {
+            eventPublisher.publishEvent(event);
+        } catch (RuntimeException e) {
+            log.error("Listener of {} failed", event.getClass().getSimpleName(), e);
+        }
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,64 @@
+package com.zeta.backend.service.implementation;
+
+import com.zeta.backend.dto.InstallmentDueRow;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.mail.MailException;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Emails card owners about their installments due soon and those that became overdue, one
+ * message per card and event. Enabled with installments.due.reminders.enabled.
+ */
+@Component
+@ConditionalOnProperty(name = "installments.due.reminders.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class InstallmentReminderNotifier {
+
+    private final OwnershipService ownershipService;
+    private final EmailService emailService;
+
+    @EventListener
+    public void onDueSoon(InstallmentDueScheduler.InstallmentsDueSoonEvent event) {
+        notifyOwners(event.getInstallments(), "BNPL installments due on " + event.getDueDate(),
+                "The following installments are due on " + event.getDueDate() + ":");
+    }
+
+    @EventListener
+    public void onOverdue(InstallmentDueScheduler.InstallmentsOverdueEvent event) {
+        notifyOwners(event.getInstallments(), "Overdue BNPL installments",
+                "The following installments are overdue and accrue late fees daily until paid:");
+    }
+
+    private void notifyOwners(List<InstallmentDueRow> installments, String subject, String heading) {
+        Map<Long, List<InstallmentDueRow>> byCard = installments.stream()
+                .collect(Collectors.groupingBy(InstallmentDueRow::getCardId, TreeMap::new, Collectors.toList()));
+        int sent = 0;
+        for (Map.Entry<Long, List<InstallmentDueRow>> card : byCard.entrySet()) {
+            String owner = ownershipService.cardOwner(card.getKey());
+            if (owner == null) {
+                continue;
+            }
+            StringBuilder text = new StringBuilder(heading).append('\n');
+            for (InstallmentDueRow row : card.getValue()) {
+                text.append(String.format("%n- installment %d of purchase %d: %.2f due %s",
+                        row.getInstallmentId(), row.getTransactionId(), row.getAmount(), row.getDueDate()));
+            }
+            try {
+                emailService.sendInstallmentNotice(owner, subject, text.toString());
+                sent++;
+            } catch (MailException e) {
+                log.warn("Could not send installment notice for card {}: {}", card.getKey(), e.getMessage());
+            }
+        }
+        log.info("Sent {} of {} installment notices: {}", sent, byCard.size(), subject);
+    }
+}
@@ -0,0 +1,93 @@
+package com.zeta.backend.service.implementation;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Writes large list responses as a JSON array one element at a time, straight from a
+ * forward-only repository stream, instead of collecting the whole List and handing it to Jackson.
+ *
+ * Elements are serialized with the application's ObjectMapper, so the output is byte for byte
+ * what the List response produced. The generator's buffer is flushed to the client every
+ * streaming.json.flush-rows elements; heap use is bounded by the cursor's fetch size rather than
+ * the number of rows. Callers check access before returning the body: once the first chunk has
+ * been sent the status can no longer change, and a failure only cuts the array short.
+ */
+@Service
+@Slf4j
+public class JsonArrayStreamingService {
+
+    private final ObjectWriter elementWriter;
+    private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+    private final int flushRows;
+
+    public JsonArrayStreamingService(ObjectMapper objectMapper,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${streaming.json.flush-rows:500}") int flushRows) {
+        this.objectMapper = objectMapper;
+        // flushing is done per chunk below, not after every element
+        this.elementWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.transactionManager = transactionManager;
+        this.flushRows = Math.max(1, flushRows);
+    }
+
+    /**
+     * Body streaming the rows of the query as a JSON array once the response is being written.
+     * The query runs inside a read-only transaction, which its Stream requires.
+     * @param description what is streamed, for the log line.
+     * @param query opens the repository stream.
+     * @param beforeWrite completes each element before it is written (e.g. computed fields); may be null.
+     */
+    public <T> StreamingResponseBody jsonArray(String description, Supplier<Stream<T>> query, Consumer<T> beforeWrite) {
+        return out -> {
+            long start = System.currentTimeMillis();
+            TransactionTemplate template = new TransactionTemplate(transactionManager);
+            template.setReadOnly(true);
+            long rows = template.execute(status -> {
+                try (Stream<T> elements = query.get()) {
+                    return write(elements.iterator(), beforeWrite, out);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            log.info("Streamed {} {} in {} ms", rows, description, System.currentTimeMillis() - start);
+        };
+    }
+
+    private <T> long write(Iterator<T> elements, Consumer<T> beforeWrite, OutputStream out) throws IOException {
+        long count = 0;
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            json.writeStartArray();
+            while (elements.hasNext()) {
+                T element = elements.next();
+                if (beforeWrite != null) {
+                    beforeWrite.accept(element);
+                }
+                elementWriter.writeValue(json, element);
+                if (++count % flushRows == 0) {
+                    json.flush();
+                }
+            }
+            json.writeEndArray();
+        }
+        return count;
+    }
+}
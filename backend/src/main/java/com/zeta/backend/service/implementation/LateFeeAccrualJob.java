@@ -0,0 +1,131 @@
+package com.zeta.backend.service.implementation;
+
+import com.zeta.backend.repository.BNPLInstallmentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Accrues the late fees of overdue installments, once a day.
+ *
+ * Only unpaid installments past their due date and not yet accrued for the day are walked:
+ * their ids are read in keyset pages of latefees.accrual.chunk-size, and the id range of each
+ * page is accrued by LateFeeCalculatorService.accrueChunk in its own database transaction on a
+ * fixed pool of workers. Installments that are paid, not yet due, or already accrued today are not touched;
+ * writers of an installment accrue it themselves. Accrued rows drop out of the query, so a run
+ * that was interrupted or had failing chunks is completed by starting it again for the same day.
+ * Parallelism should stay below the connection pool size.
+ */
+@Component
+@Slf4j
+public class LateFeeAccrualJob {
+
+    private final LateFeeCalculatorService lateFeeCalculatorService;
+    private final BNPLInstallmentRepository installmentRepository;
+    private final boolean accrueOnStartup;
+    private final int chunkSize;
+    private final int parallelism;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public LateFeeAccrualJob(LateFeeCalculatorService lateFeeCalculatorService,
+                             BNPLInstallmentRepository installmentRepository,
+                             @Value("${latefees.accrual.on-startup:true}") boolean accrueOnStartup,
+                             @Value("${latefees.accrual.chunk-size:500}") int chunkSize,
+                             @Value("${latefees.accrual.parallelism:4}") int parallelism) {
+        this.lateFeeCalculatorService = lateFeeCalculatorService;
+        this.installmentRepository = installmentRepository;
+        this.accrueOnStartup = accrueOnStartup;
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+    }
+
+    // Catches up on days the application was down for, once the context is up rather than while it starts
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (accrueOnStartup) {
+            accrue(LocalDate.now());
+        }
+    }
+
+    @Scheduled(cron = "${latefees.accrual.cron:-}")
+    public void accrueToday() {
+        accrue(LocalDate.now());
+    }
+
+    /**
+     * Accrues every overdue unpaid installment not yet accrued for the date.
+     * @return number of installments whose late fee changed.
+     */
+    public long accrue(LocalDate date) {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("Late fee accrual already running, skipping request for {}", date);
+            return 0;
+        }
+        try {
+            return run(date);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private long run(LocalDate date) {
+        long start = System.currentTimeMillis();
+        AtomicInteger workerIndex = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism,
+                task -> new Thread(task, "latefees-" + workerIndex.getAndIncrement()));
+        List<Future<Integer>> chunks = new ArrayList<>();
+        long walked = 0;
+        try {
+            long afterId = 0;
+            List<Long> ids;
+            while (!(ids = installmentRepository.findIdsToAccrue(date, afterId, PageRequest.ofSize(chunkSize))).isEmpty()) {
+                Long fromId = ids.get(0);
+                Long toId = ids.get(ids.size() - 1);
+                chunks.add(workers.submit(() -> lateFeeCalculatorService.accrueChunk(fromId, toId, date)));
+                walked += ids.size();
+                afterId = ids.get(ids.size() - 1);
+            }
+
+            long changed = 0;
+            int failed = 0;
+            for (Future<Integer> chunk : chunks) {
+                try {
+                    changed += chunk.get();
+                } catch (ExecutionException e) {
+                    failed++;
+                    log.error("Late fee accrual chunk for {} failed", date, e.getCause());
+                }
+            }
+            long elapsed = System.currentTimeMillis() - start;
+            if (failed > 0) {
+                log.error("Late fee accrual for {} left {} of {} chunks incomplete, start it again to resume",
+                        date, failed, chunks.size());
+            } else if (walked > 0) {
+                log.info("Accrued late fees of {} overdue installments for {} in {} ms ({} changed, {} chunks, parallelism {})",
+                        walked, date, elapsed, changed, chunks.size(), parallelism);
+            }
+            return changed;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Late fee accrual for {} interrupted", date);
+            return 0;
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+}
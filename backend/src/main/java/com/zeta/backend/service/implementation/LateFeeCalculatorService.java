@@ -1,73 +1,164 @@
 package com.zeta.backend.service.implementation;
 
+import com.zeta.backend.dto.StatementLateFeeRow;
 import com.zeta.backend.model.BNPLInstallment;
 import com.zeta.backend.repository.BNPLInstallmentRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Late fee rules, and the accrued fee kept on each installment.
+ *
+ * An installment's fee and days late are stored with the date they were accrued for. Writers
+ * of an installment accrue it as of today; LateFeeAccrualJob moves the overdue unpaid ones
+ * forward each night. Reads take the stored columns instead of recomputing. Totals over many
+ * installments are computed by the database as of any date.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class LateFeeCalculatorService {
 
     private final BNPLInstallmentRepository bnplInstallmentRepository;
-
-    // Configuration for late fee
-    private static final double DAILY_LATE_FEE_FLAT = 1.0; // $1 per day
-    private static final double DAILY_LATE_FEE_PERCENTAGE = 0.005; // 0.5% per day of amount
+    private final ResourceVersionService resourceVersionService;
 
     /**
-     * Calculates total late fee for all overdue installments linked to a specific card.
+     * Total late fee stored on the card's unpaid installments by their last accrual, i.e. the sum
+     * of accruedLateFee over them. Read from the column, like the installments' own fees.
      */
     public double calculateTotalLateFeeByCardId(Long cardId) {
-        LocalDate today = LocalDate.now();
-        log.info("Calculating total late fee for card ID {} as of {}", cardId, today);
+        double totalFee = round(bnplInstallmentRepository.sumAccruedLateFeeByCardId(cardId));
+        log.debug("Accrued late fee for card ID {} is {}", cardId, totalFee);
+        return totalFee;
+    }
+
+    /**
+     * Total late fee as of the date over the card's unpaid installments due before it.
+     * Summed by the database with the same per-installment rounding as calculateLateFee.
+     */
+    public double calculateTotalLateFeeByCardId(Long cardId, LocalDate date) {
+        double totalFee = round(bnplInstallmentRepository.sumLateFeeByCardId(cardId, date));
+        log.debug("Total late fee for card ID {} as of {} is {}", cardId, date, totalFee);
+        return totalFee;
+    }
 
-        List<BNPLInstallment> overdueInstallments =
-                bnplInstallmentRepository.findOverdueByCardId(cardId, today);
+    /**
+     * Late fees per card as of the date, for the cards in the id range that have any.
+     */
+    public Map<Long, Double> calculateTotalLateFeesByCardIdBetween(Long fromCardId, Long toCardId, LocalDate date) {
+        Map<Long, Double> totals = new HashMap<>();
+        for (StatementLateFeeRow row : bnplInstallmentRepository.sumLateFeesByCardIdBetween(fromCardId, toCardId, date)) {
+            totals.put(row.getCardId(), round(row.getLateFees()));
+        }
+        return totals;
+    }
 
-        double totalFee = overdueInstallments.stream()
-                .mapToDouble(this::calculateLateFeeForInstallment)
-                .sum();
+    /**
+     * Late fee stored on the installment by its last accrual.
+     */
+    public double accruedLateFee(BNPLInstallment installment) {
+        return installment.getLateFee() == null ? 0.0 : installment.getLateFee();
+    }
 
-        log.info("Total late fee for card ID {} is {}", cardId, totalFee);
-        return totalFee;
+    /**
+     * Stores the installment's late fee and days late as of the given date.
+     * Paid and not yet due installments carry no fee.
+     */
+    public void accrue(BNPLInstallment installment, LocalDate date) {
+        installment.setDaysLate((int) daysLate(installment.getDueDate(), installment.getIsPaid(), date));
+        installment.setLateFee(calculateLateFee(installment.getId(), installment.getAmount(),
+                installment.getDueDate(), installment.getIsPaid(), date));
+        installment.setLateFeeAccruedOn(date);
+    }
+
+    /**
+     * Accrues the overdue unpaid installments in the id range not yet accrued for the date, in one
+     * database transaction. Rows are locked while accrued, so a concurrent payment is either seen
+     * here or applied after.
+     * @return number of installments whose fee changed.
+     */
+    @Transactional
+    public int accrueChunk(Long fromId, Long toId, LocalDate date) {
+        List<BNPLInstallment> installments = bnplInstallmentRepository.findToAccrueBetweenForUpdate(fromId, toId, date);
+        Set<Long> changedIds = new HashSet<>();
+        for (BNPLInstallment installment : installments) {
+            Double previousFee = installment.getLateFee();
+            accrue(installment, date);
+            if (!installment.getLateFee().equals(previousFee)) {
+                changedIds.add(installment.getId());
+            }
+        }
+        if (!changedIds.isEmpty()) {
+            resourceVersionService.cardsChanged(bnplInstallmentRepository.findCardIdsByInstallmentIds(changedIds));
+        }
+        return changedIds.size();
     }
 
     /**
      * Calculates late fee for a single overdue installment.
      */
     public double calculateLateFeeForInstallment(BNPLInstallment installment) {
-        if (Boolean.TRUE.equals(installment.getIsPaid())) {
-            log.debug("Installment ID {} is already paid. No late fee.", installment.getId());
+        return calculateLateFee(installment.getId(), installment.getAmount(),
+                installment.getDueDate(), installment.getIsPaid());
+    }
+
+    /**
+     * Calculates the late fee from the installment's columns, for callers holding a projection
+     * rather than the entity.
+     */
+    public double calculateLateFee(Long installmentId, Double amount, LocalDate dueDate, Boolean isPaid) {
+        return calculateLateFee(installmentId, amount, dueDate, isPaid, LocalDate.now());
+    }
+
+    /**
+     * Calculates the late fee accrued up to the given date, e.g. a statement's closing date.
+     */
+    public double calculateLateFee(Long installmentId, Double amount, LocalDate dueDate, Boolean isPaid,
+                                   LocalDate today) {
+        if (Boolean.TRUE.equals(isPaid)) {
+            log.debug("Installment ID {} is already paid. No late fee.", installmentId);
             return 0.0;
         }
 
-        LocalDate today = LocalDate.now();
-        LocalDate dueDate = installment.getDueDate();
-
         if (dueDate == null || !dueDate.isBefore(today)) {
-            log.debug("Installment ID {} is not overdue. No late fee.", installment.getId());
+            log.debug("Installment ID {} is not overdue. No late fee.", installmentId);
             return 0.0;
         }
 
         long daysLate = ChronoUnit.DAYS.between(dueDate, today);
-        double baseAmount = installment.getAmount();
+        double baseAmount = amount;
 
         // Apply flat and percentage-based late fee
-        double fee = (DAILY_LATE_FEE_FLAT * daysLate) +
-                (baseAmount * DAILY_LATE_FEE_PERCENTAGE * daysLate);
+        double fee = (BNPLInstallment.DAILY_LATE_FEE_FLAT * daysLate) +
+                (baseAmount * BNPLInstallment.DAILY_LATE_FEE_PERCENTAGE * daysLate);
 
         double roundedFee = Math.round(fee * 100.0) / 100.0;
 
-        log.info("Installment ID {} is {} days late. Calculated late fee: {}",
-                installment.getId(), daysLate, roundedFee);
+        log.debug("Installment ID {} is {} days late. Calculated late fee: {}",
+                installmentId, daysLate, roundedFee);
 
         return roundedFee;
     }
+
+    // Sums of cent amounts carry binary noise
+    private static double round(double amount) {
+        return Math.round(amount * 100.0) / 100.0;
+    }
+
+    private static long daysLate(LocalDate dueDate, Boolean isPaid, LocalDate today) {
+        if (Boolean.TRUE.equals(isPaid) || dueDate == null || !dueDate.isBefore(today)) {
+            return 0;
+        }
+        return ChronoUnit.DAYS.between(dueDate, today);
+    }
 }
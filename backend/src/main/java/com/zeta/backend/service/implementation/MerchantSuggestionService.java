@@ -0,0 +1,132 @@
+package com.zeta.backend.service.implementation;
+
+import com.zeta.backend.dto.MerchantSuggestionDTO;
+import com.zeta.backend.exception.BadRequestException;
+import com.zeta.backend.model.Transaction;
+import com.zeta.backend.repository.TransactionRepository;
+import com.zeta.backend.util.MerchantPrefixIndex;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Merchant name autocomplete served from in-memory MerchantPrefixIndexes, one per card owner,
+ * so users are only ever offered merchants from their own transactions.
+ *
+ * The indexes are built at startup from one grouped query over the transactions table and are
+ * then kept current by the services that write transactions: they call the record / replace
+ * / remove methods inside their database transaction, and the owner's index is changed once
+ * that transaction commits, so rolled back writes never show up in suggestions.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MerchantSuggestionService {
+
+    static final int DEFAULT_LIMIT = 10;
+    static final int MAX_LIMIT = 20;
+
+    private final TransactionRepository transactionRepository;
+    private final OwnershipService ownershipService;
+
+    private volatile Map<String, MerchantPrefixIndex> indexByOwner = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void build() {
+        long start = System.currentTimeMillis();
+        Map<String, Map<String, Long>> countsByOwner = new HashMap<>();
+        for (TransactionRepository.MerchantCount row : transactionRepository.countByOwnerAndMerchantName()) {
+            countsByOwner.computeIfAbsent(row.getOwnerEmail(), owner -> new HashMap<>())
+                    .put(row.getMerchantName(), row.getTransactionCount());
+        }
+        Map<String, MerchantPrefixIndex> built = new ConcurrentHashMap<>();
+        countsByOwner.forEach((owner, counts) -> built.put(owner, MerchantPrefixIndex.build(MAX_LIMIT, counts)));
+        indexByOwner = built;
+        log.info("Built merchant indexes for {} users in {} ms", built.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * The user's most used merchants whose name starts with the prefix (case-insensitive);
+     * the user's most used merchants overall for a blank prefix.
+     */
+    public List<MerchantSuggestionDTO> suggest(String prefix, Integer limit, String userEmail) {
+        int size = limit == null ? DEFAULT_LIMIT : limit;
+        if (size < 1 || size > MAX_LIMIT) {
+            throw new BadRequestException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        MerchantPrefixIndex index = indexByOwner.get(userEmail);
+        if (index == null) {
+            return List.of();
+        }
+        return index.suggest(prefix, size).stream().map(MerchantSuggestionDTO::new).toList();
+    }
+
+    public void recordTransaction(Transaction transaction) {
+        recordTransactions(List.of(transaction));
+    }
+
+    public void recordTransactions(Collection<Transaction> transactions) {
+        Map<String, Map<String, Long>> countsByOwner = new HashMap<>();
+        for (Transaction transaction : transactions) {
+            String owner = ownershipService.cardOwner(transaction.getCardId());
+            if (owner != null && transaction.getMerchantName() != null) {
+                countsByOwner.computeIfAbsent(owner, o -> new HashMap<>())
+                        .merge(transaction.getMerchantName(), 1L, Long::sum);
+            }
+        }
+        if (!countsByOwner.isEmpty()) {
+            afterCommit(() -> countsByOwner.forEach((owner, counts) -> {
+                MerchantPrefixIndex index = indexFor(owner);
+                counts.forEach(index::add);
+            }));
+        }
+    }
+
+    public void replaceTransaction(Transaction previous, Transaction updated) {
+        String owner = ownershipService.cardOwner(updated.getCardId());
+        if (owner != null && !Objects.equals(previous.getMerchantName(), updated.getMerchantName())) {
+            String removed = previous.getMerchantName();
+            String added = updated.getMerchantName();
+            afterCommit(() -> {
+                MerchantPrefixIndex index = indexFor(owner);
+                index.remove(removed, 1);
+                index.add(added, 1);
+            });
+        }
+    }
+
+    public void removeTransaction(Transaction transaction) {
+        String owner = ownershipService.cardOwner(transaction.getCardId());
+        String removed = transaction.getMerchantName();
+        if (owner != null) {
+            afterCommit(() -> indexFor(owner).remove(removed, 1));
+        }
+    }
+
+    private MerchantPrefixIndex indexFor(String owner) {
+        return indexByOwner.computeIfAbsent(owner, o -> new MerchantPrefixIndex(MAX_LIMIT));
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+}
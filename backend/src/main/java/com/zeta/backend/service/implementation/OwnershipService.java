@@ -0,0 +1,219 @@
+package com.zeta.backend.service.implementation;
+
+import com.zeta.backend.exception.ResourceNotFoundException;
+import com.zeta.backend.exception.UnauthorizedException;
+import com.zeta.backend.repository.BNPLInstallmentRepository;
+import com.zeta.backend.repository.CardRepository;
+import com.zeta.backend.repository.TransactionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Ownership checks for cards, transactions and installments, answered from scalar queries and
+ * caches instead of walking the entity graph up to the card's user.
+ *
+ * Each user's card ids are read once, on their first check, and kept. A card missing from the
+ * set is resolved through its owner, read once and cached, and added if it turns out to be
+ * theirs, so cards issued later are picked up. Card owners and transaction cards never change,
+ * so they are cached once looked up; installments can move to another transaction, so their
+ * card is read every time. The caches are bounded LRU maps whose entries also expire, and
+ * deleted transactions and users are evicted once the deletion commits.
+ *
+ * Checks return false both for a resource that does not exist and for one owned by someone
+ * else; callers that report the two differently ask cardExists after a failed check.
+ */
+@Service
+@RequiredArgsConstructor
+public class OwnershipService {
+
+    private final CardRepository cardRepository;
+    private final TransactionRepository transactionRepository;
+    private final BNPLInstallmentRepository installmentRepository;
+
+    private static final Duration TTL = Duration.ofMinutes(30);
+
+    private final BoundedCache<String, Set<Long>> ownedCards = new BoundedCache<>(10_000, TTL);
+    private final BoundedCache<Long, String> cardOwners = new BoundedCache<>(50_000, TTL);
+    private final BoundedCache<Long, Long> transactionCards = new BoundedCache<>(100_000, TTL);
+
+    public boolean ownsCard(Long cardId, String userEmail) {
+        if (cardId == null || userEmail == null) {
+            return false;
+        }
+        Set<Long> owned = ownedCards.get(userEmail);
+        if (owned == null) {
+            Set<Long> loaded = ConcurrentHashMap.newKeySet();
+            loaded.addAll(cardRepository.findCardIdsByOwnerEmail(userEmail));
+            owned = ownedCards.putIfAbsent(userEmail, loaded);
+        }
+        if (owned.contains(cardId)) {
+            return true;
+        }
+        // issued since the set was read, or not theirs
+        if (userEmail.equals(cardOwner(cardId))) {
+            owned.add(cardId);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Throws ResourceNotFoundException for a missing card and UnauthorizedException for another user's card.
+     */
+    public void requireCardOwner(Long cardId, String userEmail) {
+        if (!ownsCard(cardId, userEmail)) {
+            if (!cardExists(cardId)) {
+                throw new ResourceNotFoundException("Card not found");
+            }
+            throw new UnauthorizedException("You do not own this card");
+        }
+    }
+
+    public boolean cardExists(Long cardId) {
+        return cardOwner(cardId) != null || cardRepository.existsById(cardId);
+    }
+
+    /**
+     * Email of the card's owner, or null for a missing card or one without a user.
+     */
+    public String cardOwner(Long cardId) {
+        String owner = cardOwners.get(cardId);
+        if (owner == null) {
+            owner = cardRepository.findOwnerEmailByCardId(cardId).orElse(null);
+            if (owner != null) {
+                cardOwners.put(cardId, owner);
+            }
+        }
+        return owner;
+    }
+
+    public Optional<Long> transactionCardId(Long transactionId) {
+        Long cardId = transactionCards.get(transactionId);
+        if (cardId == null) {
+            cardId = transactionRepository.findCardIdById(transactionId).orElse(null);
+            if (cardId == null) {
+                return Optional.empty();
+            }
+            transactionCards.put(transactionId, cardId);
+        }
+        return Optional.of(cardId);
+    }
+
+    public Optional<Long> installmentCardId(Long installmentId) {
+        return installmentRepository.findCardIdById(installmentId);
+    }
+
+    /**
+     * Forgets a deleted transaction once the deletion commits.
+     */
+    public void evictTransaction(Long transactionId) {
+        afterCommit(() -> transactionCards.remove(transactionId));
+    }
+
+    /**
+     * Forgets a deleted user and the owner of each of their cards once the deletion commits.
+     */
+    public void evictUser(String userEmail) {
+        afterCommit(() -> {
+            Set<Long> owned = ownedCards.remove(userEmail);
+            if (owned != null) {
+                owned.forEach(cardOwners::remove);
+            }
+        });
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+
+    // LRU map bounded in size whose entries expire a fixed time after they were cached
+    private static final class BoundedCache<K, V> {
+
+        private record Entry<V>(V value, long expiresAt) {
+        }
+
+        private final long ttlNanos;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<K, Entry<V>> entries;
+
+        private BoundedCache(int maxEntries, Duration ttl) {
+            this.ttlNanos = ttl.toNanos();
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                    return size() > maxEntries;
+                }
+            };
+        }
+
+        private V get(K key) {
+            lock.lock();
+            try {
+                Entry<V> entry = entries.get(key);
+                if (entry == null) {
+                    return null;
+                }
+                if (System.nanoTime() - entry.expiresAt() > 0) {
+                    entries.remove(key);
+                    return null;
+                }
+                return entry.value();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void put(K key, V value) {
+            lock.lock();
+            try {
+                entries.put(key, new Entry<>(value, System.nanoTime() + ttlNanos));
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // Caches the value unless a live one is present, and returns the cached value
+        private V putIfAbsent(K key, V value) {
+            lock.lock();
+            try {
+                V existing = get(key);
+                if (existing != null) {
+                    return existing;
+                }
+                put(key, value);
+                return value;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private V remove(K key) {
+            lock.lock();
+            try {
+                Entry<V> removed = entries.remove(key);
+                return removed == null ? null : removed.value();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.zeta.backend.service.implementation;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Change counters behind the ETags of frequently polled reads, so a conditional GET can be
+ * answered with 304 Not Modified without querying the data it covers.
+ *
+ * A card's counter moves whenever the card row, its transactions or its installments change;
+ * a user's counter moves whenever one of their cards changes or a card is issued to them.
+ * Writers call cardChanged / userCardsChanged inside their database transaction and the
+ * counters move once it commits. Readers must take the ETag before running their queries:
+ * a response built from data older than the counter is then never labelled with the newer one.
+ *
+ * Counters live in memory; the epoch in every ETag makes tags from an earlier process stale.
+ * Owners and transaction cards come from OwnershipService, which caches them.
+ */
+@Service
+@RequiredArgsConstructor
+public class ResourceVersionService {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final OwnershipService ownershipService;
+
+    private final Map<Long, AtomicLong> cardVersions = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> userVersions = new ConcurrentHashMap<>();
+
+    public void cardChanged(Long cardId) {
+        cardsChanged(List.of(cardId));
+    }
+
+    public void cardsChanged(Collection<Long> cardIds) {
+        // owners are resolved now, while the writer's database transaction is still open
+        Map<Long, String> owners = new HashMap<>();
+        for (Long cardId : cardIds) {
+            owners.put(cardId, ownershipService.cardOwner(cardId));
+        }
+        afterCommit(() -> owners.forEach((cardId, owner) -> {
+            bump(cardVersions, cardId);
+            if (owner != null) {
+                bump(userVersions, owner);
+            }
+        }));
+    }
+
+    public void userCardsChanged(String userEmail) {
+        afterCommit(() -> bump(userVersions, userEmail));
+    }
+
+    /**
+     * ETag of the user's card list.
+     */
+    public String userCardsETag(String userEmail) {
+        return tag("u" + Integer.toHexString(userEmail.hashCode()), version(userVersions, userEmail));
+    }
+
+    /**
+     * ETag of a card-scoped read, or null when the card is not the user's (the read then
+     * runs normally and reports the error). Reads that depend on the date pass it in.
+     */
+    public String cardETag(Long cardId, String userEmail, LocalDate asOf) {
+        return cardScopedTag("c" + cardId, cardId, userEmail, asOf);
+    }
+
+    /**
+     * ETag of a read scoped to one transaction, versioned by its card; null as for cardETag.
+     */
+    public String transactionETag(Long transactionId, String userEmail, LocalDate asOf) {
+        return ownershipService.transactionCardId(transactionId)
+                .map(cardId -> cardScopedTag("t" + transactionId, cardId, userEmail, asOf))
+                .orElse(null);
+    }
+
+    private String cardScopedTag(String scope, Long cardId, String userEmail, LocalDate asOf) {
+        if (!ownershipService.ownsCard(cardId, userEmail)) {
+            return null;
+        }
+        return tag(scope + (asOf == null ? "" : "-" + asOf), version(cardVersions, cardId));
+    }
+
+    private String tag(String scope, long version) {
+        return "\"" + epoch + "-" + scope + "-" + version + "\"";
+    }
+
+    private static <K> long version(Map<K, AtomicLong> versions, K key) {
+        AtomicLong version = versions.get(key);
+        return version == null ? 0 : version.get();
+    }
+
+    private static <K> void bump(Map<K, AtomicLong> versions, K key) {
+        versions.computeIfAbsent(key, k -> new AtomicLong()).incrementAndGet();
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,163 @@
+package com.zeta.backend.service.implementation;
+
+import com.zeta.backend.model.StatementRun;
+import com.zeta.backend.repository.CardRepository;
+import com.zeta.backend.repository.StatementChunkRepository;
+import com.zeta.backend.repository.StatementRunRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates the monthly statements of every card.
+ *
+ * Card ids are split into fixed chunks (StatementRun); a fork-join task halves the range of
+ * chunk indexes until single chunks remain, and each chunk is written by
+ * StatementService.generateChunk in its own database transaction. Chunks recorded as complete
+ * are skipped, so a run that was interrupted or had failing chunks picks up where it stopped
+ * when started again for the same month. Parallelism should stay below the connection pool size.
+ */
+@Component
+@Slf4j
+public class StatementBatchJob {
+
+    private final StatementService statementService;
+    private final StatementRunRepository runRepository;
+    private final StatementChunkRepository chunkRepository;
+    private final CardRepository cardRepository;
+    private final int chunkSize;
+    private final int parallelism;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public StatementBatchJob(StatementService statementService,
+                             StatementRunRepository runRepository,
+                             StatementChunkRepository chunkRepository,
+                             CardRepository cardRepository,
+                             @Value("${statements.batch.chunk-size:500}") int chunkSize,
+                             @Value("${statements.batch.parallelism:4}") int parallelism) {
+        this.statementService = statementService;
+        this.runRepository = runRepository;
+        this.chunkRepository = chunkRepository;
+        this.cardRepository = cardRepository;
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+    }
+
+    @Scheduled(cron = "${statements.batch.cron:-}")
+    public void generatePreviousMonth() {
+        generate(YearMonth.now().minusMonths(1));
+    }
+
+    /**
+     * Generates the month's statements, resuming an earlier incomplete run of the same month.
+     * @return number of statements written by this call.
+     */
+    public long generate(YearMonth month) {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("Statement batch already running, skipping request for {}", month);
+            return 0;
+        }
+        try {
+            return run(month);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private long run(YearMonth month) {
+        LocalDate periodStart = month.atDay(1);
+        StatementRun run = runRepository.findById(periodStart).orElseGet(() -> runRepository.save(new StatementRun(
+                periodStart, chunkSize, cardRepository.findMaxCardId().orElse(0L), LocalDateTime.now(), null)));
+        if (run.getCompletedAt() != null) {
+            log.info("Statements for {} already generated at {}", month, run.getCompletedAt());
+            return 0;
+        }
+
+        Set<Long> completed = chunkRepository.findCompletedChunkIndexes(periodStart);
+        if (!completed.isEmpty()) {
+            log.info("Resuming statement run for {}: {} of {} chunks already complete",
+                    month, completed.size(), run.getChunkCount());
+        }
+
+        long start = System.currentTimeMillis();
+        AtomicLong written = new AtomicLong();
+        AtomicInteger failed = new AtomicInteger();
+        ForkJoinPool pool = new ForkJoinPool(parallelism, StatementBatchJob::newWorker, null, false);
+        try {
+            pool.invoke(new ChunkRangeTask(run, 0, run.getChunkCount(), completed, written, failed));
+        } finally {
+            pool.shutdown();
+        }
+        long elapsed = Math.max(1, System.currentTimeMillis() - start);
+
+        if (failed.get() > 0) {
+            log.error("Statement run for {} left {} chunks incomplete; wrote {} statements in {} ms, start it again to resume",
+                    month, failed.get(), written.get(), elapsed);
+            return written.get();
+        }
+        run.setCompletedAt(LocalDateTime.now());
+        runRepository.save(run);
+        log.info("Generated {} statements for {} in {} ms ({} cards/s, {} chunks, parallelism {})",
+                written.get(), month, elapsed, written.get() * 1000 / elapsed, run.getChunkCount(), parallelism);
+        return written.get();
+    }
+
+    private static ForkJoinWorkerThread newWorker(ForkJoinPool pool) {
+        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        thread.setName("statements-" + thread.getPoolIndex());
+        return thread;
+    }
+
+    // Halves [fromChunk, toChunk) until one chunk is left; a failed chunk is logged and left for the next run
+    private final class ChunkRangeTask extends RecursiveAction {
+
+        private final StatementRun run;
+        private final long fromChunk;
+        private final long toChunk;
+        private final Set<Long> completed;
+        private final AtomicLong written;
+        private final AtomicInteger failed;
+
+        ChunkRangeTask(StatementRun run, long fromChunk, long toChunk, Set<Long> completed,
+                       AtomicLong written, AtomicInteger failed) {
+            this.run = run;
+            this.fromChunk = fromChunk;
+            this.toChunk = toChunk;
+            this.completed = completed;
+            this.written = written;
+            this.failed = failed;
+        }
+
+        @Override
+        protected void compute() {
+            if (toChunk - fromChunk > 1) {
+                long middle = (fromChunk + toChunk) >>> 1;
+                invokeAll(new ChunkRangeTask(run, fromChunk, middle, completed, written, failed),
+                        new ChunkRangeTask(run, middle, toChunk, completed, written, failed));
+                return;
+            }
+            if (fromChunk == toChunk || completed.contains(fromChunk)) {
+                return;
+            }
+            try {
+                written.addAndGet(statementService.generateChunk(run, fromChunk));
+            } catch (RuntimeException e) {
+                failed.incrementAndGet();
+                log.error("Statement chunk {} of {} failed", fromChunk, run.getPeriodStart(), e);
+            }
+        }
+    }
+}
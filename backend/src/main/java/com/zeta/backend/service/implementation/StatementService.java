@@ -0,0 +1,152 @@
+package com.zeta.backend.service.implementation;
+
+import com.zeta.backend.dto.BNPLInstallmentResponseDTO;
+import com.zeta.backend.dto.CardStatementDTO;
+import com.zeta.backend.dto.StatementCardRow;
+import com.zeta.backend.dto.StatementInstallmentRow;
+import com.zeta.backend.dto.StatementSpendRow;
+import com.zeta.backend.exception.ResourceNotFoundException;
+import com.zeta.backend.model.CardStatement;
+import com.zeta.backend.model.StatementChunk;
+import com.zeta.backend.model.StatementRun;
+import com.zeta.backend.repository.BNPLInstallmentRepository;
+import com.zeta.backend.repository.CardRepository;
+import com.zeta.backend.repository.CardStatementRepository;
+import com.zeta.backend.repository.StatementChunkRepository;
+import com.zeta.backend.repository.TransactionRepository;
+import com.zeta.backend.service.IStatementService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Monthly card statements.
+ *
+ * generateChunk writes the statements of one chunk of card ids with a fixed number of grouped
+ * queries, whatever the chunk size, and records the chunk as complete in the same database
+ * transaction; StatementBatchJob runs the chunks in parallel.
+ *
+ * Card.availableLimit is only known for the present, so the closing available limit is the
+ * current one plus the spend dated after the period, and the opening one adds back the
+ * period's spend. Limit changes made after the period are therefore reflected in both.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StatementService implements IStatementService {
+
+    private final CardStatementRepository statementRepository;
+    private final StatementChunkRepository chunkRepository;
+    private final CardRepository cardRepository;
+    private final TransactionRepository transactionRepository;
+    private final BNPLInstallmentRepository installmentRepository;
+    private final LateFeeCalculatorService lateFeeCalculatorService;
+    private final OwnershipService ownershipService;
+
+    @Override
+    @Transactional(readOnly = true)
+    public CardStatementDTO getStatement(Long cardId, YearMonth month, String userEmail) {
+        ownershipService.requireCardOwner(cardId, userEmail);
+
+        CardStatement statement = statementRepository.findByPeriodStartAndCardId(month.atDay(1), cardId)
+                .orElseThrow(() -> new ResourceNotFoundException("No statement for card " + cardId + " and " + month));
+
+        List<BNPLInstallmentResponseDTO> installmentsDue = installmentRepository
+                .findDueResponseDTOsByCardIdBetween(cardId, statement.getPeriodStart(), statement.getPeriodEnd());
+        installmentsDue.forEach(i -> i.setLateFee(lateFeeCalculatorService.calculateLateFee(
+                i.getId(), i.getAmount(), i.getDueDate(), i.getIsPaid(), statement.getPeriodEnd())));
+
+        return CardStatementDTO.builder()
+                .cardId(cardId)
+                .month(month.toString())
+                .periodStart(statement.getPeriodStart())
+                .periodEnd(statement.getPeriodEnd())
+                .openingAvailableLimit(statement.getOpeningAvailableLimit())
+                .closingAvailableLimit(statement.getClosingAvailableLimit())
+                .transactionCount(statement.getTransactionCount())
+                .totalSpend(statement.getTotalSpend())
+                .installmentsDueCount(statement.getInstallmentsDueCount())
+                .installmentsDueAmount(statement.getInstallmentsDueAmount())
+                .lateFees(statement.getLateFees())
+                .generatedAt(statement.getGeneratedAt())
+                .transactions(transactionRepository.findResponseDTOsByCardIdBetween(
+                        cardId, statement.getPeriodStart(), statement.getPeriodEnd()))
+                .installmentsDue(installmentsDue)
+                .build();
+    }
+
+    /**
+     * Writes the statements of every card in the chunk and marks the chunk complete.
+     * A chunk another run already completed is left untouched.
+     * @return number of statements written.
+     */
+    @Transactional
+    public int generateChunk(StatementRun run, long chunkIndex) {
+        LocalDate periodStart = run.getPeriodStart();
+        if (chunkRepository.existsById(new StatementChunk.Key(periodStart, chunkIndex))) {
+            return 0;
+        }
+        LocalDate periodEnd = YearMonth.from(periodStart).atEndOfMonth();
+        long fromCardId = chunkIndex * run.getChunkSize() + 1;
+        long toCardId = Math.min(fromCardId + run.getChunkSize() - 1, run.getMaxCardId());
+
+        List<StatementCardRow> cards = cardRepository.findAvailableLimitsBetween(fromCardId, toCardId);
+        List<CardStatement> statements = new ArrayList<>(cards.size());
+        if (!cards.isEmpty()) {
+            Map<Long, StatementSpendRow> spend = byCardId(
+                    transactionRepository.sumStatementTotals(fromCardId, toCardId, periodStart, periodEnd),
+                    StatementSpendRow::getCardId);
+            Map<Long, StatementInstallmentRow> due = byCardId(
+                    installmentRepository.sumDueByCardIdBetween(fromCardId, toCardId, periodStart, periodEnd),
+                    StatementInstallmentRow::getCardId);
+            Map<Long, Double> lateFees =
+                    lateFeeCalculatorService.calculateTotalLateFeesByCardIdBetween(fromCardId, toCardId, periodEnd);
+
+            LocalDateTime now = LocalDateTime.now();
+            for (StatementCardRow card : cards) {
+                StatementSpendRow cardSpend = spend.get(card.getCardId());
+                StatementInstallmentRow cardDue = due.get(card.getCardId());
+                double periodSpend = cardSpend == null ? 0 : cardSpend.getPeriodSpend();
+                double closing = card.getAvailableLimit() + (cardSpend == null ? 0 : cardSpend.getLaterSpend());
+
+                statements.add(CardStatement.builder()
+                        .cardId(card.getCardId())
+                        .periodStart(periodStart)
+                        .periodEnd(periodEnd)
+                        .openingAvailableLimit(round(closing + periodSpend))
+                        .closingAvailableLimit(round(closing))
+                        .transactionCount(cardSpend == null ? 0 : cardSpend.getTransactionCount())
+                        .totalSpend(round(periodSpend))
+                        .installmentsDueCount(cardDue == null ? 0 : cardDue.getInstallmentCount())
+                        .installmentsDueAmount(cardDue == null ? 0 : round(cardDue.getTotalAmount()))
+                        .lateFees(round(lateFees.getOrDefault(card.getCardId(), 0.0)))
+                        .generatedAt(now)
+                        .build());
+            }
+            statementRepository.saveAll(statements);
+        }
+
+        chunkRepository.save(new StatementChunk(periodStart, chunkIndex, statements.size(), LocalDateTime.now()));
+        log.debug("Statement chunk {} of {} (cards {}-{}): {} statements",
+                chunkIndex, periodStart, fromCardId, toCardId, statements.size());
+        return statements.size();
+    }
+
+    private static <T> Map<Long, T> byCardId(List<T> rows, Function<T, Long> cardId) {
+        return rows.stream().collect(Collectors.toMap(cardId, Function.identity()));
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+}
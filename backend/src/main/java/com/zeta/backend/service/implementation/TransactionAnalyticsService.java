@@ -0,0 +1,187 @@
+package com.zeta.backend.service.implementation;
+
+import com.zeta.backend.dto.TransactionAnalyticsDTO;
+import com.zeta.backend.dto.TransactionColumnRow;
+import com.zeta.backend.enums.AnalyticsDimension;
+import com.zeta.backend.exception.BadRequestException;
+import com.zeta.backend.exception.UnauthorizedException;
+import com.zeta.backend.model.Transaction;
+import com.zeta.backend.repository.CardRepository;
+import com.zeta.backend.repository.TransactionRepository;
+import com.zeta.backend.util.ColumnarTransactionStore;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reporting aggregates (spend by category, merchant, month or card type) answered from an
+ * in-memory ColumnarTransactionStore instead of GROUP BY queries on the shared connection pool.
+ *
+ * Optional: enabled with analytics.columnar.enabled. The store is loaded at startup in keyset
+ * pages and then kept current by the services that write transactions, like the merchant
+ * index: changes are applied once the writing database transaction commits. Aggregates over
+ * every card are limited to the users listed in analytics.columnar.reporting-users; any user
+ * can aggregate a card of their own.
+ */
+@Service
+@ConditionalOnProperty(name = "analytics.columnar.enabled", havingValue = "true")
+@Slf4j
+public class TransactionAnalyticsService {
+
+    static final int DEFAULT_LIMIT = 50;
+    static final int MAX_LIMIT = 1000;
+
+    private final TransactionRepository transactionRepository;
+    private final CardRepository cardRepository;
+    private final OwnershipService ownershipService;
+    private final ColumnarTransactionStore store;
+    private final Set<String> reportingUsers;
+    private final int loadPageSize;
+
+    // Card types never change once a card is issued, so they are looked up once per card
+    private final Map<Long, String> cardTypes = new ConcurrentHashMap<>();
+
+    public TransactionAnalyticsService(TransactionRepository transactionRepository,
+                                       CardRepository cardRepository,
+                                       OwnershipService ownershipService,
+                                       @Value("${analytics.columnar.parallelism:4}") int parallelism,
+                                       @Value("${analytics.columnar.reporting-users:}") Set<String> reportingUsers,
+                                       @Value("${analytics.columnar.load-page-size:10000}") int loadPageSize) {
+        this.transactionRepository = transactionRepository;
+        this.cardRepository = cardRepository;
+        this.ownershipService = ownershipService;
+        this.store = new ColumnarTransactionStore(parallelism);
+        this.reportingUsers = reportingUsers;
+        this.loadPageSize = loadPageSize;
+    }
+
+    @PostConstruct
+    public void load() {
+        long start = System.currentTimeMillis();
+        long afterId = 0;
+        List<TransactionColumnRow> page;
+        do {
+            page = transactionRepository.findColumnRowsAfter(afterId, PageRequest.ofSize(loadPageSize));
+            for (TransactionColumnRow row : page) {
+                if (row.getCardType() != null) {
+                    cardTypes.putIfAbsent(row.getCardId(), row.getCardType());
+                }
+            }
+            store.appendAll(page);
+            if (!page.isEmpty()) {
+                afterId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == loadPageSize);
+        log.info("Loaded {} transactions into the columnar analytics store in {} ms",
+                store.size(), System.currentTimeMillis() - start);
+    }
+
+    @PreDestroy
+    public void stop() {
+        store.close();
+    }
+
+    /**
+     * Count and spend of the matching transactions, in total and per group.
+     * Without a card id the aggregate covers every card and needs a reporting user.
+     */
+    public TransactionAnalyticsDTO aggregate(AnalyticsDimension groupBy, LocalDate from, LocalDate to,
+                                             Long cardId, Boolean bnpl, Integer limit, String userEmail) {
+        int size = limit == null ? DEFAULT_LIMIT : limit;
+        if (size < 1 || size > MAX_LIMIT) {
+            throw new BadRequestException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new BadRequestException("'from' must not be after 'to'");
+        }
+        if (cardId == null) {
+            if (!reportingUsers.contains(userEmail)) {
+                throw new UnauthorizedException("Aggregates over all cards are limited to reporting users");
+            }
+        } else {
+            ownershipService.requireCardOwner(cardId, userEmail);
+        }
+
+        List<TransactionAnalyticsDTO.Group> groups = new ArrayList<>(store.aggregate(groupBy, from, to, cardId, bnpl));
+        long count = 0;
+        double total = 0;
+        for (TransactionAnalyticsDTO.Group group : groups) {
+            count += group.getTransactionCount();
+            total += group.getTotalSpend();
+        }
+        groups.sort(groupBy == AnalyticsDimension.MONTH
+                ? Comparator.comparing(TransactionAnalyticsDTO.Group::getKey, Comparator.nullsLast(Comparator.naturalOrder()))
+                : Comparator.comparingDouble(TransactionAnalyticsDTO.Group::getTotalSpend).reversed());
+
+        return TransactionAnalyticsDTO.builder()
+                .groupBy(groupBy)
+                .from(from)
+                .to(to)
+                .cardId(cardId)
+                .bnpl(bnpl)
+                .transactionCount(count)
+                .totalSpend(Math.round(total * 100.0) / 100.0)
+                .groups(groups.size() > size ? new ArrayList<>(groups.subList(0, size)) : groups)
+                .build();
+    }
+
+    public void recordTransaction(Transaction transaction) {
+        recordTransactions(List.of(transaction));
+    }
+
+    public void recordTransactions(Collection<Transaction> transactions) {
+        List<TransactionColumnRow> rows = new ArrayList<>(transactions.size());
+        for (Transaction transaction : transactions) {
+            rows.add(toRow(transaction));
+        }
+        afterCommit(() -> store.appendAll(rows));
+    }
+
+    public void replaceTransaction(Transaction updated) {
+        TransactionColumnRow row = toRow(updated);
+        afterCommit(() -> store.replace(row));
+    }
+
+    public void removeTransaction(Transaction transaction) {
+        long id = transaction.getId();
+        afterCommit(() -> store.delete(id));
+    }
+
+    // Resolved while the writing database transaction is still open
+    private TransactionColumnRow toRow(Transaction transaction) {
+        Long cardId = transaction.getCardId();
+        String cardType = cardTypes.computeIfAbsent(cardId,
+                id -> cardRepository.findCardTypeByCardId(id).orElse(null));
+        return new TransactionColumnRow(transaction.getId(), cardId, cardType, transaction.getTransactionDate(),
+                transaction.getAmount(), transaction.getCategory(), transaction.getMerchantName(),
+                transaction.getIsBNPL());
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+}
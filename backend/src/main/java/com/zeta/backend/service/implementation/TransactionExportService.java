@@ -0,0 +1,141 @@
+package com.zeta.backend.service.implementation;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zeta.backend.enums.ExportFormat;
+import com.zeta.backend.dto.TransactionResponseDTO;
+import com.zeta.backend.repository.TransactionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Streams a card's complete transaction history as NDJSON or CSV for reconciliation.
+ *
+ * Rows come from a forward-only stream of scalar projections inside a read-only transaction
+ * and are written one at a time, so no entities are loaded and heap use does not grow with
+ * the size of the history. NDJSON lines use the same field names as TransactionResponseDTO.
+ * CSV text fields that a spreadsheet would read as a formula are prefixed with a quote.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TransactionExportService {
+
+    private static final String CSV_HEADER = "id,cardId,transactionDate,amount,category,merchantName,status,bnpl";
+    // Leading characters that make Excel and similar tools evaluate a cell as a formula
+    private static final String FORMULA_PREFIXES = "=+-@\t\r";
+
+    private final TransactionRepository transactionRepository;
+    private final OwnershipService ownershipService;
+    private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+
+    /**
+     * Checks ownership up front, so errors are still reported with a proper status,
+     * and returns the body that streams the rows once the response is being written.
+     */
+    public StreamingResponseBody exportCardHistory(Long cardId, String userEmail, ExportFormat format) {
+        ownershipService.requireCardOwner(cardId, userEmail);
+
+        return out -> {
+            TransactionTemplate template = new TransactionTemplate(transactionManager);
+            template.setReadOnly(true);
+            long rows = template.execute(status -> {
+                try (Stream<TransactionResponseDTO> transactions = transactionRepository.streamHistoryByCardId(cardId)) {
+                    return format == ExportFormat.CSV
+                            ? writeCsv(transactions.iterator(), out)
+                            : writeNdjson(transactions.iterator(), out);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            log.info("Exported {} transactions of card ID {} as {}", rows, cardId, format);
+        };
+    }
+
+    private long writeNdjson(Iterator<TransactionResponseDTO> transactions, OutputStream out) throws IOException {
+        long count = 0;
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            json.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+            while (transactions.hasNext()) {
+                TransactionResponseDTO t = transactions.next();
+                json.writeStartObject();
+                json.writeNumberField("id", t.getId());
+                json.writeNumberField("cardId", t.getCardId());
+                json.writeNumberField("amount", t.getAmount());
+                json.writeStringField("category", t.getCategory());
+                json.writeStringField("merchantName", t.getMerchantName());
+                json.writeStringField("transactionDate",
+                        t.getTransactionDate() == null ? null : t.getTransactionDate().toString());
+                json.writeStringField("status", t.getStatus());
+                json.writeBooleanField("bnpl", t.isBNPL());
+                json.writeEndObject();
+                count++;
+            }
+            json.writeRaw('\n');
+        }
+        return count;
+    }
+
+    private long writeCsv(Iterator<TransactionResponseDTO> transactions, OutputStream out) throws IOException {
+        long count = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        while (transactions.hasNext()) {
+            TransactionResponseDTO t = transactions.next();
+            writer.write(String.valueOf(t.getId()));
+            writer.write(',');
+            writer.write(String.valueOf(t.getCardId()));
+            writer.write(',');
+            writer.write(t.getTransactionDate() == null ? "" : t.getTransactionDate().toString());
+            writer.write(',');
+            writer.write(String.valueOf(t.getAmount()));
+            writer.write(',');
+            writeCsvField(writer, t.getCategory());
+            writer.write(',');
+            writeCsvField(writer, t.getMerchantName());
+            writer.write(',');
+            writeCsvField(writer, t.getStatus());
+            writer.write(',');
+            writer.write(String.valueOf(t.isBNPL()));
+            writer.write('\n');
+            count++;
+        }
+        writer.flush();
+        return count;
+    }
+
+    // RFC 4180 quoting for free-text columns, after neutralising spreadsheet formulas
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (!value.isEmpty() && FORMULA_PREFIXES.indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
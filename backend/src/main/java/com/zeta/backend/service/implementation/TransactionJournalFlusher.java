@@ -0,0 +1,195 @@
+package com.zeta.backend.service.implementation;
+
+import com.zeta.backend.model.JournalCheckpoint;
+import com.zeta.backend.model.Transaction;
+import com.zeta.backend.repository.CardRepository;
+import com.zeta.backend.repository.JournalCheckpointRepository;
+import com.zeta.backend.repository.TransactionRepository;
+import com.zeta.backend.util.TransactionJournal;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Background writer for the transaction journal.
+ * Copies durable journal entries into the transactions table and applies the summed
+ * available-limit debit per card and the spending aggregates, together with the
+ * checkpoint, in one database transaction per batch; the merchant index, analytics store and ETag versions follow once it commits.
+ * On startup every entry after the checkpoint is replayed
+ * before the application starts serving requests.
+ */
+@Service
+@ConditionalOnProperty(name = "transactions.journal.enabled", havingValue = "true")
+// replayed transactions take ids from transactions_seq, which must be past the existing rows first
+@DependsOn("idSequenceMigration")
+@Slf4j
+public class TransactionJournalFlusher {
+
+    private static final long CHECKPOINT_ID = 1L;
+
+    private final TransactionJournal journal;
+    private final TransactionRepository transactionRepository;
+    private final CardRepository cardRepository;
+    private final JournalCheckpointRepository checkpointRepository;
+    private final CardLimitReservationService cardLimitReservationService;
+    private final CardSpendingService cardSpendingService;
+    private final MerchantSuggestionService merchantSuggestionService;
+    private final ResourceVersionService resourceVersionService;
+    private final Optional<TransactionAnalyticsService> transactionAnalytics;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long flushIntervalMs;
+
+    // Held across database I/O, so a lock rather than synchronized to avoid pinning virtual threads
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private ScheduledExecutorService executor;
+    private volatile long flushedPosition;
+
+    public TransactionJournalFlusher(TransactionJournal journal,
+                                     TransactionRepository transactionRepository,
+                                     CardRepository cardRepository,
+                                     JournalCheckpointRepository checkpointRepository,
+                                     CardLimitReservationService cardLimitReservationService,
+                                     CardSpendingService cardSpendingService,
+                                     MerchantSuggestionService merchantSuggestionService,
+                                     ResourceVersionService resourceVersionService,
+                                     Optional<TransactionAnalyticsService> transactionAnalytics,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${transactions.journal.flush-batch-size:1000}") int batchSize,
+                                     @Value("${transactions.journal.flush-interval-ms:200}") long flushIntervalMs) {
+        this.journal = journal;
+        this.transactionRepository = transactionRepository;
+        this.cardRepository = cardRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.cardLimitReservationService = cardLimitReservationService;
+        this.cardSpendingService = cardSpendingService;
+        this.merchantSuggestionService = merchantSuggestionService;
+        this.resourceVersionService = resourceVersionService;
+        this.transactionAnalytics = transactionAnalytics;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+    }
+
+    @PostConstruct
+    public void start() {
+        flushedPosition = checkpointRepository.findById(CHECKPOINT_ID)
+                .map(JournalCheckpoint::getFlushedPosition)
+                .orElse(journal.getFirstPosition());
+
+        int replayed = 0;
+        int flushed;
+        // Entries written before the restart hold no in-memory reservation to settle
+        while ((flushed = flush(false)) > 0) {
+            replayed += flushed;
+        }
+        log.info("Replayed {} journal entries, flushed position {}", replayed, flushedPosition);
+
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "transaction-journal-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::flushSafely, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (executor != null) {
+            executor.shutdown();
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        }
+        flushSafely();
+    }
+
+    /**
+     * Writes the next batch of journal entries to the database.
+     * @return number of entries flushed.
+     */
+    public int flush() {
+        return flush(true);
+    }
+
+    private int flush(boolean settleReservations) {
+        flushLock.lock();
+        try {
+            return flushBatch(settleReservations);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private int flushBatch(boolean settleReservations) {
+        List<TransactionJournal.JournalRecord> records = journal.read(flushedPosition, batchSize);
+        if (records.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, Double> debitsByCardId = new LinkedHashMap<>();
+        long endPosition = records.get(records.size() - 1).getEndPosition();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Transaction> entities = new ArrayList<>(records.size());
+            for (TransactionJournal.JournalRecord record : records) {
+                Transaction entity = new Transaction();
+                entity.setCard(cardRepository.getReferenceById(record.getCardId()));
+                entity.setCardId(record.getCardId());
+                entity.setAmount(record.getAmount());
+                entity.setCategory(record.getCategory());
+                entity.setMerchantName(record.getMerchantName());
+                entity.setTransactionDate(record.getTransactionDate());
+                entity.setIsBNPL(false);
+                entity.setStatus("Completed");
+                entities.add(entity);
+                debitsByCardId.merge(record.getCardId(), record.getAmount(), Double::sum);
+            }
+            transactionRepository.saveAll(entities);
+            debitsByCardId.forEach(cardRepository::applyAuthorizedDebit);
+            // already accepted, so kept; an overdraft means the reservation counters let too much through
+            List<Long> overdrawn = cardRepository.findOverdrawnIds(debitsByCardId.keySet());
+            if (!overdrawn.isEmpty()) {
+                log.error("Journal flush overdrew the available limit of cards {}", overdrawn);
+            }
+            cardSpendingService.recordTransactions(entities);
+            merchantSuggestionService.recordTransactions(entities);
+            transactionAnalytics.ifPresent(analytics -> analytics.recordTransactions(entities));
+            resourceVersionService.cardsChanged(debitsByCardId.keySet());
+            checkpointRepository.save(new JournalCheckpoint(CHECKPOINT_ID, endPosition));
+        });
+
+        flushedPosition = endPosition;
+        if (settleReservations) {
+            debitsByCardId.forEach(cardLimitReservationService::settleDeferred);
+        }
+        journal.releaseBefore(endPosition);
+        log.debug("Flushed {} journal entries up to position {}", records.size(), endPosition);
+        return records.size();
+    }
+
+    private void flushSafely() {
+        try {
+            while (flush() == batchSize) {
+                // keep draining while the journal is ahead by more than one batch
+            }
+        } catch (Exception e) {
+            log.error("Journal flush failed at position {}, will retry", flushedPosition, e);
+        }
+    }
+}
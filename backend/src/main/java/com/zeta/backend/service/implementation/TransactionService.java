@@ -1,7 +1,12 @@
 package com.zeta.backend.service.implementation;
 
+import com.zeta.backend.dto.TransactionBatchItemResultDTO;
+import com.zeta.backend.dto.TransactionBatchResponseDTO;
 import com.zeta.backend.dto.TransactionCreateDTO;
+import com.zeta.backend.dto.TransactionPageDTO;
 import com.zeta.backend.dto.TransactionResponseDTO;
+import com.zeta.backend.dto.TransactionSearchCriteria;
+import com.zeta.backend.dto.TransactionSearchResultDTO;
 import com.zeta.backend.dto.TransactionUpdateDTO;
 import com.zeta.backend.enums.InstallmentPlan;
 import com.zeta.backend.exception.*;
@@ -11,26 +16,63 @@ import com.zeta.backend.model.Transaction;
 import com.zeta.backend.repository.BNPLInstallmentRepository;
 import com.zeta.backend.repository.CardRepository;
 import com.zeta.backend.repository.TransactionRepository;
+import com.zeta.backend.repository.TransactionSpecifications;
 import com.zeta.backend.service.ITransactionService;
+import com.zeta.backend.util.CardAuthorizationCache;
+import com.zeta.backend.util.TransactionJournal;
 import jakarta.transaction.Transactional;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.TreeMap;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class TransactionService implements ITransactionService {
 
+    private static final int MAX_BATCH_SIZE = 5000;
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int DEFAULT_SEARCH_PAGE_SIZE = 20;
+    // Sortable search fields, by the name accepted in ?sort=
+    private static final Set<String> SEARCH_SORT_FIELDS =
+            Set.of("transactionDate", "amount", "merchantName", "category", "status", "id");
+
     private final TransactionRepository transactionRepository;
     private final BNPLInstallmentRepository bnplInstallmentRepository;
     private final CardRepository cardRepository;
+    private final CardAuthorizationCache cardAuthorizationCache;
+    private final CardLimitReservationService cardLimitReservationService;
+    private final CardSpendingService cardSpendingService;
+    private final InstallmentDueScheduler installmentDueScheduler;
+    private final MerchantSuggestionService merchantSuggestionService;
+    private final ResourceVersionService resourceVersionService;
+    private final OwnershipService ownershipService;
+    private final JsonArrayStreamingService jsonArrayStreamingService;
+    private final Validator validator;
+    private final Optional<TransactionJournal> transactionJournal;
+    private final Optional<TransactionAnalyticsService> transactionAnalytics;
 
     /**
      * Validate card details for transaction (used by /validate-card)
@@ -41,13 +83,23 @@ public class TransactionService implements ITransactionService {
                 dto.getCardNumber().substring(dto.getCardNumber().length() - 4),
                 dto.getExpiryMonth(), dto.getExpiryYear(), userEmail);
 
-        Optional<Card> cardOpt = cardRepository.findByCardNumberAndCvvAndExpiryMonthAndExpiryYearAndUserEmail(
-                dto.getCardNumber(),
-                dto.getCvv(),
-                dto.getExpiryMonth(),
-                dto.getExpiryYear(),
-                userEmail
-        );
+        String cacheKey = cardAuthorizationCache.keyFor(dto.getCardNumber(), dto.getCvv(),
+                dto.getExpiryMonth(), dto.getExpiryYear(), userEmail);
+        CardAuthorizationCache.CardAuthorization cached = cardAuthorizationCache.get(cacheKey);
+
+        // Cached status and ownership answer the check without a DB round-trip unless the limit matters
+        if (cached != null) {
+            if (!"ACTIVE".equalsIgnoreCase(cached.getStatus())) {
+                log.warn("Card is not active: status={}", cached.getStatus());
+                return false;
+            }
+            if (dto.getAmount() == null) {
+                log.info("Card validation successful");
+                return true;
+            }
+        }
+
+        Optional<Card> cardOpt = findCardByCredentials(dto, userEmail, cacheKey, cached);
 
         if (cardOpt.isEmpty()) {
             log.warn("Card validation failed - not found or mismatch");
@@ -78,18 +130,16 @@ public class TransactionService implements ITransactionService {
     public TransactionResponseDTO simulateRegularTransaction(TransactionCreateDTO transaction, String userEmail) {
         validateTransactionAmount(transaction.getAmount());
 
-        Card card = cardRepository.findByCardNumberAndCvvAndExpiryMonthAndExpiryYearAndUserEmail(
-                transaction.getCardNumber(),
-                transaction.getCvv(),
-                transaction.getExpiryMonth(),
-                transaction.getExpiryYear(),
-                userEmail
-        ).orElseThrow(() -> new ResourceNotFoundException("Card not found or invalid card details"));
+        Card card = findCardByCredentials(transaction, userEmail)
+                .orElseThrow(() -> new ResourceNotFoundException("Card not found or invalid card details"));
 
-        validateCard(card, transaction.getAmount());
+        validateCard(card);
 
-        card.setAvailableLimit(card.getAvailableLimit() - transaction.getAmount());
-        cardRepository.save(card);
+        if (transactionJournal.isPresent()) {
+            return journalRegularTransaction(card, transaction, transactionJournal.get());
+        }
+
+        cardLimitReservationService.reserve(card, transaction.getAmount());
 
         Transaction entity = new Transaction();
         entity.setCard(card);
@@ -102,9 +152,70 @@ public class TransactionService implements ITransactionService {
         entity.setStatus("Completed");
 
         Transaction saved = transactionRepository.save(entity);
+        cardSpendingService.recordTransaction(saved, 0);
+        merchantSuggestionService.recordTransaction(saved);
+        transactionAnalytics.ifPresent(analytics -> analytics.recordTransaction(saved));
+        resourceVersionService.cardChanged(saved.getCardId());
         return mapToResponseDTO(saved);
     }
 
+    /**
+     * Write-behind path: the transaction is accepted once it is durable in the journal and
+     * reaches the transactions table on the next flush, so the response carries no ID yet.
+     * The record is appended just before the surrounding database transaction commits, so a
+     * request that rolls back (e.g. on its idempotency record) leaves nothing in the journal.
+     */
+    private TransactionResponseDTO journalRegularTransaction(Card card, TransactionCreateDTO transaction,
+                                                             TransactionJournal journal) {
+        LocalDate today = LocalDate.now();
+        Long cardId = card.getCardId();
+        Runnable append = () -> journal.append(cardId, transaction.getAmount(), today,
+                transaction.getCategory(), transaction.getMerchantName());
+        cardLimitReservationService.reserveDeferred(card, transaction.getAmount());
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            try {
+                append.run();
+            } catch (RuntimeException e) {
+                cardLimitReservationService.cancelDeferred(cardId, transaction.getAmount());
+                throw e;
+            }
+        } else {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                // a failed append wrote nothing; a written record is flushed whatever the outcome
+                private boolean appended;
+
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    append.run();
+                    appended = true;
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        return;
+                    }
+                    if (appended) {
+                        log.error("Commit failed after the journal record for card {} was written; it will still be flushed", cardId);
+                    } else {
+                        cardLimitReservationService.cancelDeferred(cardId, transaction.getAmount());
+                    }
+                }
+            });
+        }
+
+        TransactionResponseDTO dto = new TransactionResponseDTO();
+        dto.setCardId(card.getCardId());
+        dto.setAmount(transaction.getAmount());
+        dto.setCategory(transaction.getCategory());
+        dto.setMerchantName(transaction.getMerchantName());
+        dto.setTransactionDate(today);
+        dto.setStatus("Completed");
+        dto.setBNPL(false);
+        return dto;
+    }
+
     /**
      * BNPL transaction
      */
@@ -117,18 +228,11 @@ public class TransactionService implements ITransactionService {
         validateTransactionAmount(transaction.getAmount());
         validateInstallmentPlan(plan);
 
-        Card card = cardRepository.findByCardNumberAndCvvAndExpiryMonthAndExpiryYearAndUserEmail(
-                transaction.getCardNumber(),
-                transaction.getCvv(),
-                transaction.getExpiryMonth(),
-                transaction.getExpiryYear(),
-                userEmail
-        ).orElseThrow(() -> new ResourceNotFoundException("Card not found or invalid card details"));
+        Card card = findCardByCredentials(transaction, userEmail)
+                .orElseThrow(() -> new ResourceNotFoundException("Card not found or invalid card details"));
 
-        validateCard(card, transaction.getAmount());
-
-        card.setAvailableLimit(card.getAvailableLimit() - transaction.getAmount());
-        cardRepository.save(card);
+        validateCard(card);
+        cardLimitReservationService.reserve(card, transaction.getAmount());
 
         Transaction entity = new Transaction();
         entity.setCard(card);
@@ -141,20 +245,166 @@ public class TransactionService implements ITransactionService {
         entity.setStatus("Pending");
 
         Transaction savedTransaction = transactionRepository.save(entity);
-        createInstallments(savedTransaction, plan.getMonths());
+        List<BNPLInstallment> installments = createInstallments(savedTransaction, plan.getMonths());
+        cardSpendingService.recordTransaction(savedTransaction,
+                installments.stream().mapToDouble(BNPLInstallment::getAmount).sum());
+        merchantSuggestionService.recordTransaction(savedTransaction);
+        transactionAnalytics.ifPresent(analytics -> analytics.recordTransaction(savedTransaction));
+        resourceVersionService.cardChanged(savedTransaction.getCardId());
         return mapToResponseDTO(savedTransaction);
     }
 
+    /**
+     * Batch of regular transactions (settlement replays, load tests).
+     * Items are grouped by card so each card is looked up and debited once; limit checks
+     * run in memory in submission order and accepted rows are inserted with JDBC batching.
+     * Cards are locked and debited in ascending id order.
+     */
+    @Override
+    @Transactional
+    public TransactionBatchResponseDTO simulateRegularTransactionBatch(List<TransactionCreateDTO> transactions,
+                                                                       String userEmail) {
+        if (transactions == null || transactions.isEmpty()) {
+            throw new BadRequestException("Batch must contain at least one transaction");
+        }
+        if (transactions.size() > MAX_BATCH_SIZE) {
+            throw new BadRequestException("Batch size exceeds maximum of " + MAX_BATCH_SIZE);
+        }
+
+        TransactionBatchItemResultDTO[] results = new TransactionBatchItemResultDTO[transactions.size()];
+        Map<String, List<Integer>> indexesByCard = new LinkedHashMap<>();
+
+        for (int i = 0; i < transactions.size(); i++) {
+            TransactionCreateDTO dto = transactions.get(i);
+            String violation = firstViolation(dto);
+            if (violation != null) {
+                results[i] = rejected(i, violation);
+                continue;
+            }
+            String cacheKey = cardAuthorizationCache.keyFor(dto.getCardNumber(), dto.getCvv(),
+                    dto.getExpiryMonth(), dto.getExpiryYear(), userEmail);
+            indexesByCard.computeIfAbsent(cacheKey, k -> new ArrayList<>()).add(i);
+        }
+
+        Map<Long, Card> cardsById = new TreeMap<>();
+        Map<Long, List<Integer>> indexesByCardId = new TreeMap<>();
+        for (List<Integer> indexes : indexesByCard.values()) {
+            Optional<Card> cardOpt = findCardByCredentials(transactions.get(indexes.get(0)), userEmail);
+            if (cardOpt.isEmpty()) {
+                indexes.forEach(i -> results[i] = rejected(i, "Card not found or invalid card details"));
+                continue;
+            }
+            Card card = cardOpt.get();
+            if (!"ACTIVE".equalsIgnoreCase(card.getStatus())) {
+                indexes.forEach(i -> results[i] = rejected(i, "Card with ID " + card.getCardId() + " is not active"));
+                continue;
+            }
+            cardsById.put(card.getCardId(), card);
+            List<Integer> cardIndexes = indexesByCardId.computeIfAbsent(card.getCardId(), id -> new ArrayList<>());
+            cardIndexes.addAll(indexes);
+            cardIndexes.sort(null);
+        }
+
+        // Every card row is locked up front in ascending id order, the order the spending
+        // aggregates lock them in, so overlapping batches cannot deadlock on each other. The
+        // limits are read with the locks, since the cards were loaded before them.
+        Map<Long, Double> availableByCardId = new TreeMap<>();
+        cardsById.keySet().forEach(cardId -> cardRepository.lockAvailableLimitById(cardId)
+                .ifPresent(limit -> availableByCardId.put(cardId,
+                        cardLimitReservationService.availableAfterDeferred(cardId, limit))));
+
+        List<Transaction> entities = new ArrayList<>();
+        List<Integer> entityIndexes = new ArrayList<>();
+        LocalDate today = LocalDate.now();
+
+        for (Map.Entry<Long, List<Integer>> entry : indexesByCardId.entrySet()) {
+            Card card = cardsById.get(entry.getKey());
+            List<Integer> indexes = entry.getValue();
+
+            double remaining = availableByCardId.getOrDefault(card.getCardId(), 0.0);
+            double acceptedTotal = 0;
+            List<Integer> accepted = new ArrayList<>();
+            for (int i : indexes) {
+                double amount = transactions.get(i).getAmount();
+                if (amount > remaining) {
+                    results[i] = rejected(i, "Insufficient credit limit: requested " + amount + ", available " + remaining);
+                    continue;
+                }
+                remaining -= amount;
+                acceptedTotal += amount;
+                accepted.add(i);
+            }
+            if (accepted.isEmpty()) {
+                continue;
+            }
+
+            try {
+                cardLimitReservationService.reserve(card, acceptedTotal);
+            } catch (InsufficientCreditLimitException e) {
+                accepted.forEach(i -> results[i] = rejected(i, e.getMessage()));
+                continue;
+            }
+
+            for (int i : accepted) {
+                TransactionCreateDTO dto = transactions.get(i);
+                Transaction entity = new Transaction();
+                entity.setCard(card);
+                entity.setCardId(card.getCardId());
+                entity.setAmount(dto.getAmount());
+                entity.setCategory(dto.getCategory());
+                entity.setMerchantName(dto.getMerchantName());
+                entity.setTransactionDate(today);
+                entity.setIsBNPL(false);
+                entity.setStatus("Completed");
+                entities.add(entity);
+                entityIndexes.add(i);
+            }
+        }
+
+        List<Transaction> saved = transactionRepository.saveAll(entities);
+        cardSpendingService.recordTransactions(saved);
+        merchantSuggestionService.recordTransactions(saved);
+        transactionAnalytics.ifPresent(analytics -> analytics.recordTransactions(saved));
+        resourceVersionService.cardsChanged(saved.stream().map(Transaction::getCardId).distinct().toList());
+        double acceptedAmount = 0;
+        for (int j = 0; j < saved.size(); j++) {
+            int i = entityIndexes.get(j);
+            results[i] = TransactionBatchItemResultDTO.builder()
+                    .index(i)
+                    .result("ACCEPTED")
+                    .transactionId(saved.get(j).getId())
+                    .build();
+            acceptedAmount += saved.get(j).getAmount();
+        }
+
+        log.info("Batch of {} transactions processed for user {}: {} accepted", transactions.size(), userEmail, saved.size());
+        return TransactionBatchResponseDTO.builder()
+                .accepted(saved.size())
+                .rejected(transactions.size() - saved.size())
+                .acceptedAmount(acceptedAmount)
+                .results(Arrays.asList(results))
+                .build();
+    }
+
     /**
      * Create BNPL installments
      */
     @Transactional
-    private void createInstallments(Transaction transaction, int installmentCount) {
+    private List<BNPLInstallment> createInstallments(Transaction transaction, int installmentCount) {
+        List<BNPLInstallment> installments = bnplInstallmentRepository.saveAll(
+                buildInstallmentSchedule(transaction, installmentCount, LocalDate.now().plusMonths(1)));
+        installmentDueScheduler.schedule(installments);
+        return installments;
+    }
+
+    /**
+     * Splits the transaction amount into monthly installments; the last one absorbs the rounding remainder.
+     */
+    List<BNPLInstallment> buildInstallmentSchedule(Transaction transaction, int installmentCount, LocalDate firstDueDate) {
         double totalAmount = transaction.getAmount();
         double installmentAmount = Math.round((totalAmount / installmentCount) * 100.0) / 100.0;
-        LocalDate firstDueDate = LocalDate.now().plusMonths(1);
         double totalCreated = 0;
-        List<BNPLInstallment> installments = new ArrayList<>();
+        List<BNPLInstallment> installments = new ArrayList<>(installmentCount);
 
         for (int i = 1; i <= installmentCount; i++) {
             double amount = (i == installmentCount) ? totalAmount - totalCreated : installmentAmount;
@@ -166,12 +416,15 @@ public class TransactionService implements ITransactionService {
                     .amount(amount)
                     .dueDate(firstDueDate.plusMonths(i - 1))
                     .isPaid(false)
+                    // not due yet, so nothing accrued
+                    .lateFee(0.0)
+                    .daysLate(0)
+                    .lateFeeAccruedOn(LocalDate.now())
                     .build();
 
             installments.add(installment);
         }
-
-        bnplInstallmentRepository.saveAll(installments);
+        return installments;
     }
 
     /**
@@ -179,15 +432,106 @@ public class TransactionService implements ITransactionService {
      */
     @Override
     public List<TransactionResponseDTO> getTransactionHistoryByCardId(Long cardId, String userEmail) {
-        Card card = cardRepository.findById(cardId)
-                .orElseThrow(() -> new ResourceNotFoundException("Card not found"));
-        if (!card.getUser().getEmail().equals(userEmail)) {
-            throw new UnauthorizedException("You do not own this card");
+        ownershipService.requireCardOwner(cardId, userEmail);
+        return transactionRepository.findResponseDTOsByCardId(cardId);
+    }
+
+    /**
+     * Stream transaction history by card as a JSON array
+     */
+    @Override
+    public StreamingResponseBody streamTransactionHistoryByCardId(Long cardId, String userEmail) {
+        ownershipService.requireCardOwner(cardId, userEmail);
+        return jsonArrayStreamingService.jsonArray("transactions of card ID " + cardId,
+                () -> transactionRepository.streamResponseDTOsByCardId(cardId), null);
+    }
+
+    /**
+     * Get one page of transaction history by card, ordered by (transaction_date, id) descending.
+     * The cursor carries the last row's key, so every page is an index seek regardless of depth.
+     */
+    @Override
+    public TransactionPageDTO getTransactionHistoryPage(Long cardId, String cursor, Integer size, String userEmail) {
+        ownershipService.requireCardOwner(cardId, userEmail);
+
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : size;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new BadRequestException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        // One extra row tells whether another page exists
+        PageRequest limit = PageRequest.ofSize(pageSize + 1);
+        List<TransactionResponseDTO> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = transactionRepository.findHistoryPage(cardId, limit);
+        } else {
+            HistoryCursor after = decodeCursor(cursor, cardId);
+            rows = transactionRepository.findHistoryPageAfter(cardId, after.transactionDate(), after.id(), limit);
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        List<TransactionResponseDTO> page = hasMore ? new ArrayList<>(rows.subList(0, pageSize)) : rows;
+        TransactionResponseDTO last = page.isEmpty() ? null : page.get(page.size() - 1);
+
+        return TransactionPageDTO.builder()
+                .items(page)
+                .size(page.size())
+                .hasMore(hasMore)
+                .nextCursor(hasMore ? encodeCursor(cardId, last) : null)
+                .build();
+    }
+
+    /**
+     * Search a card's transactions with optional filters, one page at a time.
+     * All filters are applied in a single database query; id breaks ties so paging is stable.
+     */
+    @Override
+    public TransactionSearchResultDTO searchTransactions(Long cardId, TransactionSearchCriteria criteria,
+                                                         Integer page, Integer size, String sort, String direction,
+                                                         String userEmail) {
+        ownershipService.requireCardOwner(cardId, userEmail);
+
+        int pageNumber = page == null ? 0 : page;
+        int pageSize = size == null ? DEFAULT_SEARCH_PAGE_SIZE : size;
+        if (pageNumber < 0) {
+            throw new BadRequestException("Page must not be negative");
+        }
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new BadRequestException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (criteria.getFrom() != null && criteria.getTo() != null && criteria.getFrom().isAfter(criteria.getTo())) {
+            throw new BadRequestException("'from' must not be after 'to'");
+        }
+        if (criteria.getMinAmount() != null && criteria.getMaxAmount() != null
+                && criteria.getMinAmount() > criteria.getMaxAmount()) {
+            throw new BadRequestException("'minAmount' must not exceed 'maxAmount'");
+        }
+
+        PageRequest pageRequest = PageRequest.of(pageNumber, pageSize, searchSort(sort, direction));
+        Page<TransactionResponseDTO> result = transactionRepository.searchResponseDTOs(
+                TransactionSpecifications.matching(cardId, criteria), pageRequest);
+
+        return TransactionSearchResultDTO.builder()
+                .items(result.getContent())
+                .page(result.getNumber())
+                .size(result.getNumberOfElements())
+                .totalElements(result.getTotalElements())
+                .totalPages(result.getTotalPages())
+                .build();
+    }
+
+    // Newest first unless another whitelisted field is requested
+    private static Sort searchSort(String sort, String direction) {
+        String field = sort == null || sort.isBlank() ? "transactionDate" : sort.trim();
+        if (!SEARCH_SORT_FIELDS.contains(field)) {
+            throw new BadRequestException("Cannot sort by '" + field + "'; allowed: " + SEARCH_SORT_FIELDS);
+        }
+        Sort.Direction order = Sort.Direction.DESC;
+        if (direction != null && !direction.isBlank()) {
+            order = Sort.Direction.fromOptionalString(direction.trim())
+                    .orElseThrow(() -> new BadRequestException("Sort direction must be asc or desc"));
         }
-        List<Transaction> transactions = transactionRepository.findByCardId(cardId);
-        return transactions.stream()
-                .map(this::mapToResponseDTO)
-                .collect(Collectors.toList());
+        return "id".equals(field) ? Sort.by(order, "id") : Sort.by(order, field).and(Sort.by(order, "id"));
     }
 
     /**
@@ -198,7 +542,7 @@ public class TransactionService implements ITransactionService {
         Transaction transaction = transactionRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Transaction not found"));
 
-        if (!transaction.getCard().getUser().getEmail().equals(userEmail)) {
+        if (!ownershipService.ownsCard(transaction.getCardId(), userEmail)) {
             throw new UnauthorizedException("You cannot access this transaction");
         }
         return mapToResponseDTO(transaction);
@@ -206,10 +550,12 @@ public class TransactionService implements ITransactionService {
 
     @Override
     public List<TransactionResponseDTO> getAllTransactions() {
-        List<Transaction> transactions = transactionRepository.findAll();
-        return transactions.stream()
-                .map(this::mapToResponseDTO)
-                .collect(Collectors.toList());
+        return transactionRepository.findAllResponseDTOs();
+    }
+
+    @Override
+    public StreamingResponseBody streamAllTransactions() {
+        return jsonArrayStreamingService.jsonArray("transactions", transactionRepository::streamAllResponseDTOs, null);
     }
 
     @Override
@@ -218,10 +564,17 @@ public class TransactionService implements ITransactionService {
         Transaction existing = transactionRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Transaction not found"));
 
-        if (!existing.getCard().getUser().getEmail().equals(userEmail)) {
+        if (!ownershipService.ownsCard(existing.getCardId(), userEmail)) {
             throw new UnauthorizedException("You cannot update this transaction");
         }
 
+        Transaction previous = new Transaction();
+        previous.setCardId(existing.getCardId());
+        previous.setAmount(existing.getAmount());
+        previous.setCategory(existing.getCategory());
+        previous.setTransactionDate(existing.getTransactionDate());
+        previous.setMerchantName(existing.getMerchantName());
+
         existing.setAmount(updatedTransaction.getAmount());
         existing.setCategory(updatedTransaction.getCategory());
         existing.setMerchantName(updatedTransaction.getMerchantName());
@@ -232,6 +585,10 @@ public class TransactionService implements ITransactionService {
         existing.setIsBNPL(updatedTransaction.isBNPL());
 
         Transaction saved = transactionRepository.save(existing);
+        cardSpendingService.replaceTransaction(previous, saved);
+        merchantSuggestionService.replaceTransaction(previous, saved);
+        transactionAnalytics.ifPresent(analytics -> analytics.replaceTransaction(saved));
+        resourceVersionService.cardChanged(saved.getCardId());
         return mapToResponseDTO(saved);
     }
 
@@ -241,14 +598,20 @@ public class TransactionService implements ITransactionService {
         Transaction existing = transactionRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Transaction not found"));
 
-        if (!existing.getCard().getUser().getEmail().equals(userEmail)) {
+        if (!ownershipService.ownsCard(existing.getCardId(), userEmail)) {
             throw new UnauthorizedException("You cannot delete this transaction");
         }
 
+        double unpaidPrincipal = bnplInstallmentRepository.sumUnpaidAmountByTransactionId(id);
         transactionRepository.delete(existing);
+        cardSpendingService.reverseTransaction(existing, unpaidPrincipal);
+        merchantSuggestionService.removeTransaction(existing);
+        transactionAnalytics.ifPresent(analytics -> analytics.removeTransaction(existing));
+        ownershipService.evictTransaction(id);
+        resourceVersionService.cardChanged(existing.getCardId());
     }
 
-    private TransactionResponseDTO mapToResponseDTO(Transaction transaction) {
+    TransactionResponseDTO mapToResponseDTO(Transaction transaction) {
         TransactionResponseDTO dto = new TransactionResponseDTO();
         dto.setId(transaction.getId());
         dto.setCardId(transaction.getCardId());
@@ -261,19 +624,88 @@ public class TransactionService implements ITransactionService {
         return dto;
     }
 
+    // Cursor format before encoding: cardId:epochDay:id, base64url without padding
+    private String encodeCursor(Long cardId, TransactionResponseDTO last) {
+        String raw = cardId + ":" + last.getTransactionDate().toEpochDay() + ":" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private HistoryCursor decodeCursor(String cursor, Long cardId) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+            if (parts.length != 3 || Long.parseLong(parts[0]) != cardId) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            return new HistoryCursor(LocalDate.ofEpochDay(Long.parseLong(parts[1])), Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    private record HistoryCursor(LocalDate transactionDate, Long id) {
+    }
+
+    private Optional<Card> findCardByCredentials(TransactionCreateDTO dto, String userEmail) {
+        String cacheKey = cardAuthorizationCache.keyFor(dto.getCardNumber(), dto.getCvv(),
+                dto.getExpiryMonth(), dto.getExpiryYear(), userEmail);
+        return findCardByCredentials(dto, userEmail, cacheKey, cardAuthorizationCache.get(cacheKey));
+    }
+
+    /**
+     * Resolves a card from its credentials, using the authorization cache to turn the
+     * five-column credential lookup into a primary-key read on repeat checkouts.
+     */
+    private Optional<Card> findCardByCredentials(TransactionCreateDTO dto, String userEmail,
+                                                 String cacheKey,
+                                                 CardAuthorizationCache.CardAuthorization cached) {
+        if (cached != null) {
+            Optional<Card> card = cardRepository.findById(cached.getCardId());
+            if (card.isPresent()) {
+                return card;
+            }
+            cardAuthorizationCache.invalidateCard(cached.getCardId());
+        }
+
+        // taken before the read, so a status read before a concurrent block is not cached after it
+        long stamp = cardAuthorizationCache.stamp();
+        Optional<Card> card = cardRepository.findByCardNumberAndCvvAndExpiryMonthAndExpiryYearAndUserEmail(
+                dto.getCardNumber(),
+                dto.getCvv(),
+                dto.getExpiryMonth(),
+                dto.getExpiryYear(),
+                userEmail
+        );
+        card.ifPresent(c -> cardAuthorizationCache.put(cacheKey, c.getCardId(), c.getStatus(), userEmail, stamp));
+        return card;
+    }
+
+    private String firstViolation(TransactionCreateDTO dto) {
+        if (dto == null) {
+            return "Transaction is required";
+        }
+        Set<ConstraintViolation<TransactionCreateDTO>> violations = validator.validate(dto);
+        return violations.isEmpty() ? null : violations.iterator().next().getMessage();
+    }
+
+    private TransactionBatchItemResultDTO rejected(int index, String message) {
+        return TransactionBatchItemResultDTO.builder()
+                .index(index)
+                .result("REJECTED")
+                .message(message)
+                .build();
+    }
+
     private void validateTransactionAmount(Double amount) {
         if (amount == null || amount <= 0) {
             throw new BadRequestException("Transaction amount must be positive");
         }
     }
 
-    private void validateCard(Card card, Double amount) {
+    // Available limit is checked and debited atomically by CardLimitReservationService
+    private void validateCard(Card card) {
         if (!"ACTIVE".equalsIgnoreCase(card.getStatus())) {
             throw new CardInactiveException(card.getCardId());
         }
-        if (amount > card.getAvailableLimit()) {
-            throw new InsufficientCreditLimitException(amount, card.getAvailableLimit());
-        }
     }
 
     private void validateInstallmentPlan(InstallmentPlan plan) {
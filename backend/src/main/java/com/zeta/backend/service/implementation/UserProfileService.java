@@ -28,6 +28,9 @@ public class UserProfileService {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private OwnershipService ownershipService;
+
 
 
 
@@ -138,6 +141,7 @@ public class UserProfileService {
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         userProfileRepository.delete(profile);
+        ownershipService.evictUser(email);
 
         return Map.of("message", "User profile deleted successfully");
     }
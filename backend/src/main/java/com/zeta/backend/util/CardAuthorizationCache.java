@@ -0,0 +1,186 @@
+package com.zeta.backend.util;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded LRU cache of card credential lookups used by TransactionService.
+ * Keys are SHA-256 hashes of the card credentials and the owner email, so raw
+ * card numbers and CVVs are never held in memory. Entries for a card are dropped
+ * whenever CardServiceImpl changes its status or limit. Guarded by a ReentrantLock rather
+ * than synchronized so contended lookups do not pin virtual request threads.
+ *
+ * A lookup that read the card before an invalidation must not cache what it read afterwards:
+ * callers take a stamp before reading the database and pass it to put, which skips the entry
+ * if the card was invalidated since. Hits, misses, evictions and size are published as
+ * card.authorization.cache.* meters.
+ */
+@Component
+public class CardAuthorizationCache implements MeterBinder {
+
+    private static final int MAX_ENTRIES = 10_000;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<Long, Set<String>> keysByCardId = new HashMap<>();
+    // Stamp of the latest invalidation per card; stamps come from one sequence
+    private final Map<Long, Long> invalidatedAt = new HashMap<>();
+    private long stamps;
+    private long clearedAt;
+    private final LinkedHashMap<String, CardAuthorization> entries =
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CardAuthorization> eldest) {
+                    if (size() > MAX_ENTRIES) {
+                        unlinkKey(eldest.getValue().getCardId(), eldest.getKey());
+                        evictions.incrementAndGet();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+
+    public String keyFor(String cardNumber, String cvv, String expiryMonth, String expiryYear, String userEmail) {
+        String credential = String.join("|", cardNumber, cvv, expiryMonth, expiryYear, userEmail);
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(credential.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public CardAuthorization get(String key) {
+        CardAuthorization authorization;
+        lock.lock();
+        try {
+            authorization = entries.get(key);
+        } finally {
+            lock.unlock();
+        }
+        if (authorization == null) {
+            misses.incrementAndGet();
+        } else {
+            hits.incrementAndGet();
+        }
+        return authorization;
+    }
+
+    /**
+     * Stamp to take before reading a card from the database and pass to put.
+     */
+    public long stamp() {
+        lock.lock();
+        try {
+            return stamps;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Caches a card read after the stamp was taken, unless the card was invalidated since.
+     */
+    public void put(String key, Long cardId, String status, String ownerEmail, long stamp) {
+        lock.lock();
+        try {
+            if (clearedAt > stamp || invalidatedAt.getOrDefault(cardId, 0L) > stamp) {
+                return;
+            }
+            CardAuthorization previous = entries.put(key, new CardAuthorization(cardId, status, ownerEmail));
+            if (previous != null && !previous.getCardId().equals(cardId)) {
+                unlinkKey(previous.getCardId(), key);
+            }
+            keysByCardId.computeIfAbsent(cardId, id -> new HashSet<>()).add(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Drops every cached credential that resolves to the given card
+    public void invalidateCard(Long cardId) {
+        lock.lock();
+        try {
+            invalidatedAt.put(cardId, ++stamps);
+            Set<String> keys = keysByCardId.remove(cardId);
+            if (keys != null) {
+                keys.forEach(entries::remove);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void clear() {
+        lock.lock();
+        try {
+            entries.clear();
+            keysByCardId.clear();
+            // entries read before the clear must not come back
+            invalidatedAt.clear();
+            stamps++;
+            clearedAt = stamps;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("card.authorization.cache.hits", hits, AtomicLong::get)
+                .description("Card credential lookups answered from the cache").register(registry);
+        FunctionCounter.builder("card.authorization.cache.misses", misses, AtomicLong::get)
+                .description("Card credential lookups not in the cache").register(registry);
+        FunctionCounter.builder("card.authorization.cache.evictions", evictions, AtomicLong::get)
+                .description("Entries evicted to stay within the size limit").register(registry);
+        Gauge.builder("card.authorization.cache.size", this, CardAuthorizationCache::size)
+                .description("Cached card credential lookups").register(registry);
+    }
+
+    private void unlinkKey(Long cardId, String key) {
+        Set<String> keys = keysByCardId.get(cardId);
+        if (keys != null) {
+            keys.remove(key);
+            if (keys.isEmpty()) {
+                keysByCardId.remove(cardId);
+            }
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class CardAuthorization {
+        private final Long cardId;
+        private final String status;
+        private final String ownerEmail;
+    }
+}
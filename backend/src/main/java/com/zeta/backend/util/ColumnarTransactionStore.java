@@ -0,0 +1,398 @@
+package com.zeta.backend.util;
+
+import com.zeta.backend.dto.TransactionAnalyticsDTO;
+import com.zeta.backend.dto.TransactionColumnRow;
+import com.zeta.backend.enums.AnalyticsDimension;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory column store of transactions for whole-table aggregates.
+ *
+ * Rows live in fixed segments of primitive arrays: transaction id, card id, epoch day,
+ * year-month, amount in cents, a BNPL flag, and dictionary codes of category, merchant name
+ * and card type (code 0 is null). Rows are only appended; a deleted row is flagged in a
+ * bitset and an update flags the old row and appends the new one. Locating a row by id scans
+ * the id column from the newest segment, which is fine for the rare updates and deletes.
+ *
+ * An aggregate splits the segments across a fork-join pool. Each segment is processed in
+ * batches of rows, one column at a time: the date range and deletion flags build a selection
+ * vector without branching, card and BNPL filters narrow it, and the selected rows are summed
+ * into per-group arrays indexed by dictionary code or month, which the tasks then add up.
+ * Guarded by a ReentrantReadWriteLock; scans of the whole store hold the read lock.
+ */
+public class ColumnarTransactionStore implements AutoCloseable {
+
+    private static final int SEGMENT_SIZE = 1 << 16;
+    private static final int BATCH_SIZE = 1024;
+    private static final int NO_DAY = Integer.MIN_VALUE;
+    private static final int NO_MONTH = -1;
+
+    private final List<Segment> segments = new ArrayList<>();
+    private final Dictionary categories = new Dictionary();
+    private final Dictionary merchants = new Dictionary();
+    private final Dictionary cardTypes = new Dictionary();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ForkJoinPool pool;
+    private final int parallelism;
+
+    private long liveRows;
+    private int minMonth = Integer.MAX_VALUE;
+    private int maxMonth = Integer.MIN_VALUE;
+
+    public ColumnarTransactionStore(int parallelism) {
+        this.parallelism = parallelism;
+        this.pool = new ForkJoinPool(parallelism, ColumnarTransactionStore::newWorker, null, false);
+    }
+
+    public void append(TransactionColumnRow row) {
+        lock.writeLock().lock();
+        try {
+            appendRow(row);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void appendAll(Collection<TransactionColumnRow> rows) {
+        lock.writeLock().lock();
+        try {
+            rows.forEach(this::appendRow);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the live row of the same transaction id, or appends the row if there is none.
+     */
+    public void replace(TransactionColumnRow row) {
+        lock.writeLock().lock();
+        try {
+            deleteRow(row.getId());
+            appendRow(row);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return whether a live row of the transaction was found.
+     */
+    public boolean delete(long transactionId) {
+        lock.writeLock().lock();
+        try {
+            return deleteRow(transactionId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public long size() {
+        lock.readLock().lock();
+        try {
+            return liveRows;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Count and spend of the live rows matching the filters, per non-empty group, in no particular order.
+     * @param from first transaction date, or null for no lower bound
+     * @param to last transaction date, or null for no upper bound
+     * @param cardId only this card, or null for every card
+     * @param bnpl only BNPL (true) or regular (false) transactions, or null for both
+     */
+    public List<TransactionAnalyticsDTO.Group> aggregate(AnalyticsDimension groupBy, LocalDate from, LocalDate to,
+                                                         Long cardId, Boolean bnpl) {
+        Filter filter = new Filter(from == null ? NO_DAY : (int) from.toEpochDay(),
+                to == null ? Integer.MAX_VALUE : (int) to.toEpochDay(), cardId, bnpl);
+        lock.readLock().lock();
+        try {
+            if (liveRows == 0) {
+                return List.of();
+            }
+            GroupColumn column = groupColumn(groupBy);
+            Segment[] snapshot = segments.toArray(new Segment[0]);
+            int leafSegments = Math.max(1, snapshot.length / (parallelism * 2));
+            long[][] totals = pool.invoke(new ScanTask(snapshot, 0, snapshot.length, leafSegments, column, filter));
+
+            List<TransactionAnalyticsDTO.Group> groups = new ArrayList<>();
+            for (int g = 0; g < column.groupCount; g++) {
+                if (totals[0][g] > 0) {
+                    groups.add(new TransactionAnalyticsDTO.Group(column.label(g), totals[0][g], totals[1][g] / 100.0));
+                }
+            }
+            return groups;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    private void appendRow(TransactionColumnRow row) {
+        Segment segment = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        if (segment == null || segment.size == SEGMENT_SIZE) {
+            segment = new Segment();
+            segments.add(segment);
+        }
+        LocalDate date = row.getTransactionDate();
+        int month = date == null ? NO_MONTH : date.getYear() * 12 + date.getMonthValue() - 1;
+        if (month != NO_MONTH) {
+            minMonth = Math.min(minMonth, month);
+            maxMonth = Math.max(maxMonth, month);
+        }
+        int i = segment.size;
+        segment.ids[i] = row.getId();
+        segment.cardIds[i] = row.getCardId();
+        segment.days[i] = date == null ? NO_DAY : (int) date.toEpochDay();
+        segment.months[i] = month;
+        segment.cents[i] = Math.round(row.getAmount() * 100);
+        segment.bnpl[i] = (byte) (Boolean.TRUE.equals(row.getIsBNPL()) ? 1 : 0);
+        segment.categories[i] = categories.encode(row.getCategory());
+        segment.merchants[i] = merchants.encode(row.getMerchantName());
+        segment.cardTypes[i] = cardTypes.encode(row.getCardType());
+        segment.size++;
+        liveRows++;
+    }
+
+    private boolean deleteRow(long transactionId) {
+        for (int s = segments.size() - 1; s >= 0; s--) {
+            Segment segment = segments.get(s);
+            for (int i = segment.size - 1; i >= 0; i--) {
+                if (segment.ids[i] == transactionId && !segment.isDeleted(i)) {
+                    segment.deleted[i >>> 6] |= 1L << i;
+                    liveRows--;
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private GroupColumn groupColumn(AnalyticsDimension groupBy) {
+        return switch (groupBy) {
+            case CATEGORY -> new GroupColumn(groupBy, categories.size(), 0);
+            case MERCHANT -> new GroupColumn(groupBy, merchants.size(), 0);
+            case CARD_TYPE -> new GroupColumn(groupBy, cardTypes.size(), 0);
+            // months before the first one (only NO_MONTH) land in the extra last slot
+            case MONTH -> maxMonth < minMonth
+                    ? new GroupColumn(groupBy, 1, 0)
+                    : new GroupColumn(groupBy, maxMonth - minMonth + 2, minMonth);
+        };
+    }
+
+    // Filters and sums one segment into the group arrays, a batch of rows at a time
+    private static void scan(Segment segment, GroupColumn column, Filter filter,
+                             int[] selection, long[] counts, long[] cents) {
+        int[] keys = column.keys(segment);
+        int base = column.base;
+        int nullSlot = column.groupCount - 1;
+        for (int start = 0; start < segment.size; start += BATCH_SIZE) {
+            int end = Math.min(segment.size, start + BATCH_SIZE);
+
+            int selected = 0;
+            int[] days = segment.days;
+            long[] deleted = segment.deleted;
+            for (int i = start; i < end; i++) {
+                int day = days[i];
+                selection[selected] = i;
+                selected += (day >= filter.fromDay & day <= filter.toDay & (deleted[i >>> 6] & 1L << i) == 0) ? 1 : 0;
+            }
+            if (filter.cardId != null) {
+                long cardId = filter.cardId;
+                long[] cardIds = segment.cardIds;
+                int kept = 0;
+                for (int j = 0; j < selected; j++) {
+                    int i = selection[j];
+                    selection[kept] = i;
+                    kept += cardIds[i] == cardId ? 1 : 0;
+                }
+                selected = kept;
+            }
+            if (filter.bnpl != null) {
+                byte bnpl = (byte) (filter.bnpl ? 1 : 0);
+                byte[] flags = segment.bnpl;
+                int kept = 0;
+                for (int j = 0; j < selected; j++) {
+                    int i = selection[j];
+                    selection[kept] = i;
+                    kept += flags[i] == bnpl ? 1 : 0;
+                }
+                selected = kept;
+            }
+
+            long[] amounts = segment.cents;
+            for (int j = 0; j < selected; j++) {
+                int i = selection[j];
+                int g = keys[i] - base;
+                if (g < 0) {
+                    g = nullSlot;
+                }
+                counts[g]++;
+                cents[g] += amounts[i];
+            }
+        }
+    }
+
+    private static ForkJoinWorkerThread newWorker(ForkJoinPool pool) {
+        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        thread.setName("analytics-" + thread.getPoolIndex());
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    // Halves [fromSegment, toSegment) down to leafSegments; returns {counts, cents} per group
+    private static final class ScanTask extends RecursiveTask<long[][]> {
+
+        private final Segment[] segments;
+        private final int fromSegment;
+        private final int toSegment;
+        private final int leafSegments;
+        private final GroupColumn column;
+        private final Filter filter;
+
+        ScanTask(Segment[] segments, int fromSegment, int toSegment, int leafSegments,
+                 GroupColumn column, Filter filter) {
+            this.segments = segments;
+            this.fromSegment = fromSegment;
+            this.toSegment = toSegment;
+            this.leafSegments = leafSegments;
+            this.column = column;
+            this.filter = filter;
+        }
+
+        @Override
+        protected long[][] compute() {
+            if (toSegment - fromSegment > leafSegments) {
+                int middle = (fromSegment + toSegment) >>> 1;
+                ScanTask right = new ScanTask(segments, middle, toSegment, leafSegments, column, filter);
+                right.fork();
+                long[][] totals = new ScanTask(segments, fromSegment, middle, leafSegments, column, filter).compute();
+                long[][] other = right.join();
+                for (int g = 0; g < column.groupCount; g++) {
+                    totals[0][g] += other[0][g];
+                    totals[1][g] += other[1][g];
+                }
+                return totals;
+            }
+            long[] counts = new long[column.groupCount];
+            long[] cents = new long[column.groupCount];
+            int[] selection = new int[BATCH_SIZE];
+            for (int s = fromSegment; s < toSegment; s++) {
+                scan(segments[s], column, filter, selection, counts, cents);
+            }
+            return new long[][]{counts, cents};
+        }
+    }
+
+    private final class GroupColumn {
+        private final AnalyticsDimension dimension;
+        private final int groupCount;
+        private final int base;
+
+        private GroupColumn(AnalyticsDimension dimension, int groupCount, int base) {
+            this.dimension = dimension;
+            this.groupCount = groupCount;
+            this.base = base;
+        }
+
+        private int[] keys(Segment segment) {
+            return switch (dimension) {
+                case CATEGORY -> segment.categories;
+                case MERCHANT -> segment.merchants;
+                case CARD_TYPE -> segment.cardTypes;
+                case MONTH -> segment.months;
+            };
+        }
+
+        private String label(int group) {
+            return switch (dimension) {
+                case CATEGORY -> categories.decode(group);
+                case MERCHANT -> merchants.decode(group);
+                case CARD_TYPE -> cardTypes.decode(group);
+                case MONTH -> group == groupCount - 1
+                        ? null
+                        : YearMonth.of((group + base) / 12, (group + base) % 12 + 1).toString();
+            };
+        }
+    }
+
+    private static final class Filter {
+        private final int fromDay;
+        private final int toDay;
+        private final Long cardId;
+        private final Boolean bnpl;
+
+        private Filter(int fromDay, int toDay, Long cardId, Boolean bnpl) {
+            this.fromDay = fromDay;
+            this.toDay = toDay;
+            this.cardId = cardId;
+            this.bnpl = bnpl;
+        }
+    }
+
+    private static final class Segment {
+        private final long[] ids = new long[SEGMENT_SIZE];
+        private final long[] cardIds = new long[SEGMENT_SIZE];
+        private final int[] days = new int[SEGMENT_SIZE];
+        private final int[] months = new int[SEGMENT_SIZE];
+        private final long[] cents = new long[SEGMENT_SIZE];
+        private final byte[] bnpl = new byte[SEGMENT_SIZE];
+        private final int[] categories = new int[SEGMENT_SIZE];
+        private final int[] merchants = new int[SEGMENT_SIZE];
+        private final int[] cardTypes = new int[SEGMENT_SIZE];
+        private final long[] deleted = new long[SEGMENT_SIZE / 64];
+        private int size;
+
+        private boolean isDeleted(int i) {
+            return (deleted[i >>> 6] & 1L << i) != 0;
+        }
+    }
+
+    // String <-> int code; code 0 stands for null and codes are never reused
+    private static final class Dictionary {
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        private Dictionary() {
+            values.add(null);
+        }
+
+        private int encode(String value) {
+            if (value == null) {
+                return 0;
+            }
+            Integer code = codes.get(value);
+            if (code == null) {
+                code = values.size();
+                values.add(value);
+                codes.put(value, code);
+            }
+            return code;
+        }
+
+        private String decode(int code) {
+            return values.get(code);
+        }
+
+        private int size() {
+            return values.size();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.zeta.backend.util;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Installment ids bucketed by due date.
+ *
+ * One bucket per day in a map ordered by date, so the installments due on a day are found
+ * with one lookup and everything due before a day is taken off the front of the map: both cost
+ * the number of installments returned plus a log of the number of distinct days, however many
+ * installments are due later. An installment moved to another due date has to be removed from
+ * its old bucket by its writer; ids are not checked against the database here.
+ *
+ * Guarded by a ReentrantLock rather than synchronized so callers on virtual threads are not pinned.
+ */
+public class InstallmentDueIndex {
+
+    private final TreeMap<LocalDate, Set<Long>> buckets = new TreeMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private int size;
+
+    public void add(Long installmentId, LocalDate dueDate) {
+        lock.lock();
+        try {
+            if (buckets.computeIfAbsent(dueDate, day -> new HashSet<>()).add(installmentId)) {
+                size++;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void remove(Long installmentId, LocalDate dueDate) {
+        lock.lock();
+        try {
+            Set<Long> bucket = buckets.get(dueDate);
+            if (bucket != null && bucket.remove(installmentId)) {
+                size--;
+                if (bucket.isEmpty()) {
+                    buckets.remove(dueDate);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Ids due on the day; they stay in the index.
+     */
+    public Set<Long> dueOn(LocalDate day) {
+        lock.lock();
+        try {
+            Set<Long> bucket = buckets.get(day);
+            return bucket == null ? Set.of() : new HashSet<>(bucket);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes and returns the ids due before the day, by due date.
+     */
+    public NavigableMap<LocalDate, Set<Long>> pollDueBefore(LocalDate day) {
+        lock.lock();
+        try {
+            NavigableMap<LocalDate, Set<Long>> due = new TreeMap<>();
+            Map.Entry<LocalDate, Set<Long>> first;
+            while ((first = buckets.firstEntry()) != null && first.getKey().isBefore(day)) {
+                buckets.pollFirstEntry();
+                due.put(first.getKey(), first.getValue());
+                size -= first.getValue().size();
+            }
+            return due;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void clear() {
+        lock.lock();
+        try {
+            buckets.clear();
+            size = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package com.zeta.backend.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Case-insensitive prefix index of merchant names with transaction counts.
+ *
+ * A character trie over the lower-cased names in which every node keeps the top
+ * {@code capacity} merchants of its subtree, ordered by count (then name). A lookup walks
+ * the prefix and copies that list, so its cost depends on the prefix length only, never on
+ * how many names share the prefix. Children are kept in sorted char arrays to keep nodes small.
+ *
+ * An increment only moves one merchant up, so the lists along its path are patched in place.
+ * A decrement can let a merchant outside a list overtake it, so the affected lists are
+ * recomputed bottom-up from the children's lists. Guarded by a ReentrantReadWriteLock rather
+ * than synchronized so lookups run concurrently and do not pin virtual request threads.
+ */
+public class MerchantPrefixIndex {
+
+    private static final char[] NO_LABELS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final Merchant[] NO_MERCHANTS = new Merchant[0];
+
+    // Rank order: higher count first, then name so equal counts are stable
+    private static final Comparator<Merchant> RANK =
+            Comparator.comparingLong((Merchant m) -> m.count).reversed().thenComparing(m -> m.key);
+
+    private final int capacity;
+    private final Node root = new Node();
+    private final Map<String, Merchant> merchants = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public MerchantPrefixIndex(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Builds an index from (name, count) pairs in one pass; names differing only in case or
+     * surrounding blanks are merged under the spelling with the highest count.
+     */
+    public static MerchantPrefixIndex build(int capacity, Map<String, Long> counts) {
+        MerchantPrefixIndex index = new MerchantPrefixIndex(capacity);
+        Map<String, Long> spellingCounts = new HashMap<>();
+        for (Map.Entry<String, Long> row : counts.entrySet()) {
+            String key = normalize(row.getKey());
+            if (key.isEmpty() || row.getValue() <= 0) {
+                continue;
+            }
+            String spelling = row.getKey().strip();
+            Merchant merchant = index.merchants.get(key);
+            if (merchant == null) {
+                merchant = new Merchant(spelling, key);
+                index.merchants.put(key, merchant);
+                index.path(key, true)[key.length()].terminal = merchant;
+            }
+            merchant.count += row.getValue();
+            // keep the most used spelling of a name as its display name
+            long spellingCount = spellingCounts.merge(spelling, row.getValue(), Long::sum);
+            if (!merchant.name.equals(spelling) && spellingCount > spellingCounts.getOrDefault(merchant.name, 0L)) {
+                merchant.name = spelling;
+            }
+        }
+        index.recompute(index.root);
+        return index;
+    }
+
+    /**
+     * Adds count transactions to the merchant, creating it on first use.
+     */
+    public void add(String name, long count) {
+        String key = normalize(name);
+        if (key.isEmpty() || count <= 0) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Merchant merchant = merchants.get(key);
+            Node[] path = path(key, merchant == null);
+            if (merchant == null) {
+                merchant = new Merchant(name.strip(), key);
+                merchants.put(key, merchant);
+                path[key.length()].terminal = merchant;
+            }
+            merchant.count += count;
+            for (Node node : path) {
+                promote(node, merchant);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes count transactions from the merchant; unknown names are ignored.
+     */
+    public void remove(String name, long count) {
+        String key = normalize(name);
+        if (key.isEmpty() || count <= 0) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Merchant merchant = merchants.get(key);
+            if (merchant == null) {
+                return;
+            }
+            merchant.count = Math.max(0, merchant.count - count);
+            Node[] path = path(key, false);
+            // deepest first, so each node merges already corrected child lists
+            for (int depth = path.length - 1; depth >= 0; depth--) {
+                if (indexOf(path[depth], merchant) >= 0) {
+                    mergeChildren(path[depth]);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Up to limit merchants whose name starts with the prefix (case-insensitive), most used first.
+     * An empty prefix returns the most used merchants overall.
+     */
+    public List<String> suggest(String prefix, int limit) {
+        String key = prefix == null ? "" : prefix.toLowerCase(Locale.ROOT).stripLeading();
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < key.length() && node != null; i++) {
+                node = node.child(key.charAt(i));
+            }
+            if (node == null) {
+                return List.of();
+            }
+            int n = Math.min(limit, node.topSize);
+            List<String> result = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                result.add(node.top[i].name);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return merchants.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static String normalize(String name) {
+        return name == null ? "" : name.strip().toLowerCase(Locale.ROOT);
+    }
+
+    // Nodes from the root to the key's node; missing nodes are created when create is set
+    private Node[] path(String key, boolean create) {
+        Node[] path = new Node[key.length() + 1];
+        Node node = root;
+        path[0] = node;
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            Node child = node.child(c);
+            if (child == null) {
+                if (!create) {
+                    throw new IllegalStateException("Merchant key without trie path: " + key);
+                }
+                child = node.addChild(c);
+            }
+            node = child;
+            path[i + 1] = node;
+        }
+        return path;
+    }
+
+    // Moves the merchant, whose count just grew, into its place in the node's list
+    private void promote(Node node, Merchant merchant) {
+        int i = indexOf(node, merchant);
+        if (i < 0) {
+            if (node.topSize < capacity) {
+                if (node.topSize == node.top.length) {
+                    node.top = Arrays.copyOf(node.top, Math.min(capacity, Math.max(2, node.topSize * 2)));
+                }
+                i = node.topSize++;
+            } else if (RANK.compare(merchant, node.top[capacity - 1]) < 0) {
+                i = capacity - 1;
+            } else {
+                return;
+            }
+            node.top[i] = merchant;
+        }
+        while (i > 0 && RANK.compare(node.top[i], node.top[i - 1]) < 0) {
+            Merchant previous = node.top[i - 1];
+            node.top[i - 1] = node.top[i];
+            node.top[i] = previous;
+            i--;
+        }
+    }
+
+    private static int indexOf(Node node, Merchant merchant) {
+        for (int i = 0; i < node.topSize; i++) {
+            if (node.top[i] == merchant) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Post-order pass computing every list of the subtree
+    private void recompute(Node node) {
+        for (int i = 0; i < node.labels.length; i++) {
+            recompute(node.children[i]);
+        }
+        mergeChildren(node);
+    }
+
+    // A node's top merchants are the best of its own merchant and its children's lists
+    private void mergeChildren(Node node) {
+        List<Merchant> candidates = new ArrayList<>();
+        if (node.terminal != null && node.terminal.count > 0) {
+            candidates.add(node.terminal);
+        }
+        for (Node child : node.children) {
+            candidates.addAll(Arrays.asList(child.top).subList(0, child.topSize));
+        }
+        candidates.sort(RANK);
+        node.topSize = Math.min(capacity, candidates.size());
+        node.top = node.topSize == 0 ? NO_MERCHANTS : candidates.subList(0, node.topSize).toArray(NO_MERCHANTS);
+    }
+
+    private static final class Merchant {
+        private String name;
+        private final String key;
+        private long count;
+
+        private Merchant(String name, String key) {
+            this.name = name;
+            this.key = key;
+        }
+    }
+
+    private static final class Node {
+        private char[] labels = NO_LABELS;
+        private Node[] children = NO_CHILDREN;
+        private Merchant[] top = NO_MERCHANTS;
+        private int topSize;
+        private Merchant terminal;
+
+        private Node child(char c) {
+            int i = Arrays.binarySearch(labels, c);
+            return i >= 0 ? children[i] : null;
+        }
+
+        private Node addChild(char c) {
+            int at = -Arrays.binarySearch(labels, c) - 1;
+            char[] newLabels = new char[labels.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(labels, 0, newLabels, 0, at);
+            System.arraycopy(children, 0, newChildren, 0, at);
+            System.arraycopy(labels, at, newLabels, at + 1, labels.length - at);
+            System.arraycopy(children, at, newChildren, at + 1, children.length - at);
+            Node child = new Node();
+            newLabels[at] = c;
+            newChildren[at] = child;
+            labels = newLabels;
+            children = newChildren;
+            return child;
+        }
+    }
+}
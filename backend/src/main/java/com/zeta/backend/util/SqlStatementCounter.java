@@ -0,0 +1,26 @@
+package com.zeta.backend.util;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hibernate StatementInspector that counts the SQL statements prepared on the current thread.
+ * Callers read the counter before and after a unit of work and record the difference; a JDBC
+ * batch counts once because Hibernate prepares its statement once.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return sql;
+    }
+
+    /**
+     * Statements prepared on this thread since it started; only differences are meaningful.
+     */
+    public static long current() {
+        return COUNT.get()[0];
+    }
+}
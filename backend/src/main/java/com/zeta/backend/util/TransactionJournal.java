@@ -0,0 +1,350 @@
+package com.zeta.backend.util;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of accepted transactions, stored in fixed-size memory-mapped
+ * segment files. Appends return once a background syncer has forced the segment to disk,
+ * so concurrent appends share one fsync (group commit).
+ *
+ * Positions are global offsets: segment index * segment size + offset in segment.
+ * Record layout: [int length][long cardId][long amountPaise][long epochDay]
+ * [short len][category][short len][merchant][int crc32]. A length of -1 marks the end of
+ * a segment and 0 marks unwritten space.
+ */
+@Component
+@ConditionalOnProperty(name = "transactions.journal.enabled", havingValue = "true")
+@Slf4j
+public class TransactionJournal {
+
+    private static final int END_OF_SEGMENT = -1;
+    private static final int FIXED_PAYLOAD_BYTES = 8 + 8 + 8 + 2 + 2;
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final long syncIntervalMs;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition synced = lock.newCondition();
+    private final TreeMap<Long, MappedByteBuffer> segments = new TreeMap<>();
+
+    private long writePosition;
+    private long syncedPosition;
+    private ScheduledExecutorService syncer;
+
+    public TransactionJournal(@Value("${transactions.journal.directory:./data/journal}") String directory,
+                              @Value("${transactions.journal.segment-size-mb:64}") int segmentSizeMb,
+                              @Value("${transactions.journal.sync-interval-ms:2}") long syncIntervalMs) {
+        this.directory = Paths.get(directory);
+        this.segmentSize = segmentSizeMb * 1024 * 1024;
+        this.syncIntervalMs = syncIntervalMs;
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(f -> f.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .forEach(f -> segments.put(segmentIndexOf(f), null));
+        }
+        long lastSegment = segments.isEmpty() ? 0 : segments.lastKey();
+        writePosition = recoverEndOf(lastSegment);
+        syncedPosition = writePosition;
+
+        syncer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "transaction-journal-sync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        syncer.scheduleWithFixedDelay(this::sync, syncIntervalMs, syncIntervalMs, TimeUnit.MILLISECONDS);
+        log.info("Transaction journal opened at {} (write position {})", directory.toAbsolutePath(), writePosition);
+    }
+
+    @PreDestroy
+    public void close() {
+        if (syncer != null) {
+            syncer.shutdown();
+        }
+        sync();
+    }
+
+    /**
+     * Appends a record and blocks until it is durable on disk. Once the record is in the segment
+     * it will be flushed, so the wait is not cut short by an interrupt (the interrupt status is kept);
+     * an exception means nothing was written.
+     * @return the position just after the record.
+     */
+    public long append(long cardId, double amount, LocalDate transactionDate, String category, String merchantName) {
+        byte[] record = encode(cardId, amount, transactionDate, category, merchantName);
+        long end;
+        lock.lock();
+        try {
+            int offset = offsetOf(writePosition);
+            if (offset + record.length + Integer.BYTES > segmentSize) {
+                MappedByteBuffer current = segment(segmentOf(writePosition));
+                if (offset + Integer.BYTES <= segmentSize) {
+                    current.putInt(offset, END_OF_SEGMENT);
+                }
+                current.force();
+                writePosition = (segmentOf(writePosition) + 1) * segmentSize;
+                offset = 0;
+            }
+            segment(segmentOf(writePosition)).put(offset, record);
+            writePosition += record.length;
+            end = writePosition;
+        } finally {
+            lock.unlock();
+        }
+        awaitDurable(end);
+        return end;
+    }
+
+    /**
+     * Reads up to maxRecords durable records starting at the given position.
+     */
+    public List<JournalRecord> read(long fromPosition, int maxRecords) {
+        List<JournalRecord> records = new ArrayList<>();
+        long limit;
+        lock.lock();
+        try {
+            limit = syncedPosition;
+        } finally {
+            lock.unlock();
+        }
+
+        long position = fromPosition;
+        while (position < limit && records.size() < maxRecords) {
+            int offset = offsetOf(position);
+            MappedByteBuffer buffer = segment(segmentOf(position));
+            int length = offset + Integer.BYTES <= segmentSize ? buffer.getInt(offset) : END_OF_SEGMENT;
+            if (length == END_OF_SEGMENT) {
+                position = (segmentOf(position) + 1) * segmentSize;
+                continue;
+            }
+            JournalRecord record = decode(buffer, offset, position);
+            if (record == null) {
+                throw new IllegalStateException("Corrupt journal record at position " + position);
+            }
+            records.add(record);
+            position = record.getEndPosition();
+        }
+        return records;
+    }
+
+    /**
+     * Deletes segments that lie entirely before the given (flushed) position.
+     */
+    public void releaseBefore(long position) {
+        long firstLiveSegment = segmentOf(position);
+        lock.lock();
+        try {
+            List<Long> obsolete = segments.keySet().stream().filter(s -> s < firstLiveSegment).toList();
+            for (Long segment : obsolete) {
+                segments.remove(segment);
+                Files.deleteIfExists(segmentPath(segment));
+                log.debug("Deleted flushed journal segment {}", segment);
+            }
+        } catch (IOException e) {
+            log.warn("Could not delete flushed journal segments: {}", e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Position of the first record still on disk; used when no checkpoint exists yet
+    public long getFirstPosition() {
+        lock.lock();
+        try {
+            return segments.isEmpty() ? 0 : segments.firstKey() * segmentSize;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void sync() {
+        long target;
+        MappedByteBuffer buffer;
+        lock.lock();
+        try {
+            target = writePosition;
+            if (target <= syncedPosition) {
+                return;
+            }
+            buffer = segment(segmentOf(target == 0 ? 0 : target - 1));
+        } finally {
+            lock.unlock();
+        }
+
+        buffer.force();
+
+        lock.lock();
+        try {
+            syncedPosition = Math.max(syncedPosition, target);
+            synced.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void awaitDurable(long position) {
+        lock.lock();
+        try {
+            while (syncedPosition < position) {
+                synced.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Scans the last segment for the end of valid data, discarding a torn tail write
+    private long recoverEndOf(long segmentIndex) {
+        MappedByteBuffer buffer = segment(segmentIndex);
+        int offset = 0;
+        while (offset + Integer.BYTES <= segmentSize) {
+            int length = buffer.getInt(offset);
+            if (length == END_OF_SEGMENT) {
+                return recoverEndOf(segmentIndex + 1);
+            }
+            if (length <= 0) {
+                break;
+            }
+            JournalRecord record = decode(buffer, offset, segmentIndex * segmentSize + offset);
+            if (record == null) {
+                log.warn("Discarding torn journal record at segment {} offset {}", segmentIndex, offset);
+                byte[] zeros = new byte[64 * 1024];
+                for (int i = offset; i < segmentSize; i += zeros.length) {
+                    buffer.put(i, zeros, 0, Math.min(zeros.length, segmentSize - i));
+                }
+                buffer.force();
+                break;
+            }
+            offset = offsetOf(record.getEndPosition());
+        }
+        return segmentIndex * segmentSize + offset;
+    }
+
+    private MappedByteBuffer segment(long index) {
+        lock.lock();
+        try {
+            MappedByteBuffer buffer = segments.get(index);
+            if (buffer == null) {
+                try (FileChannel channel = FileChannel.open(segmentPath(index),
+                        StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                    buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Could not map journal segment " + index, e);
+                }
+                segments.put(index, buffer);
+            }
+            return buffer;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private byte[] encode(long cardId, double amount, LocalDate date, String category, String merchantName) {
+        byte[] categoryBytes = category == null ? new byte[0] : category.getBytes(StandardCharsets.UTF_8);
+        byte[] merchantBytes = merchantName == null ? new byte[0] : merchantName.getBytes(StandardCharsets.UTF_8);
+        int payloadLength = FIXED_PAYLOAD_BYTES + categoryBytes.length + merchantBytes.length;
+
+        ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + payloadLength + Integer.BYTES);
+        buffer.putInt(payloadLength);
+        buffer.putLong(cardId);
+        buffer.putLong(Math.round(amount * 100.0));
+        buffer.putLong(date.toEpochDay());
+        buffer.putShort((short) categoryBytes.length).put(categoryBytes);
+        buffer.putShort((short) merchantBytes.length).put(merchantBytes);
+
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), Integer.BYTES, payloadLength);
+        buffer.putInt((int) crc.getValue());
+        return buffer.array();
+    }
+
+    // Returns null when the bytes at offset are not a complete, checksummed record
+    private JournalRecord decode(MappedByteBuffer segment, int offset, long position) {
+        int payloadLength = segment.getInt(offset);
+        if (payloadLength < FIXED_PAYLOAD_BYTES || offset + 2 * Integer.BYTES + payloadLength > segmentSize) {
+            return null;
+        }
+        byte[] payload = new byte[payloadLength];
+        segment.get(offset + Integer.BYTES, payload);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        if ((int) crc.getValue() != segment.getInt(offset + Integer.BYTES + payloadLength)) {
+            return null;
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        long cardId = buffer.getLong();
+        double amount = buffer.getLong() / 100.0;
+        LocalDate date = LocalDate.ofEpochDay(buffer.getLong());
+        byte[] category = new byte[buffer.getShort()];
+        buffer.get(category);
+        byte[] merchant = new byte[buffer.getShort()];
+        buffer.get(merchant);
+
+        long end = position + 2L * Integer.BYTES + payloadLength;
+        return new JournalRecord(cardId, amount, date,
+                new String(category, StandardCharsets.UTF_8), new String(merchant, StandardCharsets.UTF_8), end);
+    }
+
+    private Path segmentPath(long index) {
+        return directory.resolve(String.format("journal-%08d%s", index, SEGMENT_SUFFIX));
+    }
+
+    private long segmentIndexOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring("journal-".length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private long segmentOf(long position) {
+        return position / segmentSize;
+    }
+
+    private int offsetOf(long position) {
+        return (int) (position % segmentSize);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class JournalRecord {
+        private final long cardId;
+        private final double amount;
+        private final LocalDate transactionDate;
+        private final String category;
+        private final String merchantName;
+        private final long endPosition;
+    }
+}